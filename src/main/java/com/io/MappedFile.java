@@ -0,0 +1,228 @@
+package com.io;
+
+import com.functional.Tuple;
+import com.lazy.Stream;
+import com.util.Result;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A source of the lines of a file, read through memory mapped windows of the file
+ * rather than through a reader.
+ * -> The line boundaries are found directly in the mapped bytes, and a line is only
+ * decoded when its element of the stream is evaluated. Skipping lines, or only
+ * looking at their bytes, never creates a String.
+ * -> A window covers at most WINDOW_SIZE bytes, so that files larger than 2GB, the
+ * limit of a single mapping, can be read. When a line crosses the end of a window,
+ * the next window is mapped from the start of the line.
+ * The lines are separated by '\n', and a '\r' before it is removed. A last line
+ * without separator is returned, and the empty string after a final separator is
+ * not. The separator is looked for in the bytes, so the charset must encode '\n' as
+ * a single byte, as UTF-8 and the ISO-8859 charsets do. A window which cannot be
+ * mapped while the stream is evaluated, for instance because the file was truncated,
+ * throws an IllegalStateException.
+ */
+public final class MappedFile {
+    /**
+     * The largest number of bytes mapped at once.
+     */
+    public static final int WINDOW_SIZE = 1 << 28;
+
+    private static final long SEPARATORS = 0x0A0A0A0A0A0A0A0AL;
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final Path path;
+    private final long size;
+    private final int windowSize;
+
+    private MappedFile(Path path, long size, int windowSize) {
+        this.path = path;
+        this.size = size;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * @param path : The path of the file, which is decoded as UTF-8.
+     * @return the Result holding the lazy stream of the lines of the file, or a failure
+     * if the file cannot be read.
+     */
+    public static Result<Stream<String>> lines(String path) {
+        return lines(Paths.get(path), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param path : The path of the file.
+     * @param charset : The charset of the file.
+     * @return the Result holding the lazy stream of the lines of the file, or a failure
+     * if the file cannot be read.
+     */
+    public static Result<Stream<String>> lines(Path path, Charset charset) {
+        return lines(path, charset, WINDOW_SIZE);
+    }
+
+    static Result<Stream<String>> lines(Path path, Charset charset, int windowSize) {
+        try {
+            return Result.success(lines(open(path, windowSize), charset));
+        } catch (IOException | RuntimeException e) {
+            return Result.failure(e);
+        }
+    }
+
+    private static Stream<String> lines(Cursor cursor, Charset charset) {
+        return cursor.advance()
+                .map(line -> Stream.cons(() -> line.decode(charset), () -> lines(line, charset)))
+                .getOrElse(Stream.empty());
+    }
+
+    /**
+     * @param path : The path of the file.
+     * @return the Result holding the lazy stream of the lines of the file, each one
+     * being a read only buffer over the mapped bytes of the line, without its
+     * separator, or a failure if the file cannot be read.
+     */
+    public static Result<Stream<ByteBuffer>> byteLines(Path path) {
+        return byteLines(path, WINDOW_SIZE);
+    }
+
+    static Result<Stream<ByteBuffer>> byteLines(Path path, int windowSize) {
+        try {
+            return Result.success(Stream.unfold(open(path, windowSize),
+                    cursor -> cursor.advance().map(line -> Tuple.create(line.bytes(), line))));
+        } catch (IOException | RuntimeException e) {
+            return Result.failure(e);
+        }
+    }
+
+    private static Cursor open(Path path, int windowSize) throws IOException {
+        return new MappedFile(path, Files.size(path), windowSize).cursor(0L);
+    }
+
+    /**
+     * Maps the window starting at the given position. The channel may be closed once
+     * the mapping is created, as the mapping stays valid until it is garbage collected.
+     * @param start : The position of the window in the file.
+     * @param length : The number of bytes of the window.
+     */
+    private MappedByteBuffer map(long start, int length) {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot map " + path + " at " + start, e);
+        }
+    }
+
+    private Cursor cursor(long start) {
+        return cursor(start, windowSize);
+    }
+
+    /**
+     * @return the cursor before the first line starting at the given position, in a new
+     * window of the given length, or up to the end of the file.
+     */
+    private Cursor cursor(long start, long length) {
+        final int mapped = (int) Math.min(length, size - start);
+        final var buffer = mapped == 0 ? ByteBuffer.allocate(0) : map(start, mapped);
+        return new Cursor(this, start, buffer.order(ByteOrder.LITTLE_ENDIAN), 0, 0, 0);
+    }
+
+    /**
+     * Finds the first separator in the buffer, reading eight bytes at a time. In each
+     * word, a byte equal to '\n' gives a zero byte x, for which (x - 0x01) & ~x sets
+     * the high bit. A borrow may also set the high bit of the bytes above a zero byte,
+     * but not below it, so with a little endian buffer the lowest set bit is the one of
+     * the first separator.
+     * @param buffer : The little endian buffer to search.
+     * @param from : The position from which to search.
+     * @return the position of the first separator, or the limit of the buffer if there
+     * is none.
+     */
+    private static int indexOfSeparator(ByteBuffer buffer, int from) {
+        final int limit = buffer.limit();
+        int i = from;
+        for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+            final long x = buffer.getLong(i) ^ SEPARATORS;
+            final long found = (x - LOW_BITS) & ~x & HIGH_BITS;
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < limit; ++i) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * A position of the stream of lines in the file: the mapped window, the bounds of
+     * the current line in the window, and the offset of the next line.
+     */
+    private static final class Cursor {
+        private final MappedFile file;
+        private final long start;
+        private final ByteBuffer buffer;
+        private final int from;
+        private final int to;
+        private final int next;
+
+        private Cursor(MappedFile file, long start, ByteBuffer buffer, int from, int to, int next) {
+            this.file = file;
+            this.start = start;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.next = next;
+        }
+
+        /**
+         * @return the cursor on the next line, mapping a new window if the line crosses
+         * the end of this one, or an empty Result at the end of the file.
+         */
+        private Result<Cursor> advance() {
+            final int limit = buffer.limit();
+            final int i = indexOfSeparator(buffer, next);
+            if (i < limit) {
+                return Result.success(line(next, i, i + 1));
+            }
+
+            final long position = start + next;
+            if (start + limit == file.size) {
+                return next == limit ? Result.empty() : Result.success(line(next, limit, limit));
+            }
+            if (next > 0) {
+                return file.cursor(position).advance();
+            }
+            if (limit >= Integer.MAX_VALUE / 2) {
+                throw new IllegalStateException("Line longer than 1GB at " + position + " in " + file.path);
+            }
+            return file.cursor(position, 2L * limit).advance();
+        }
+
+        private Cursor line(int from, int end, int next) {
+            final int to = end > from && buffer.get(end - 1) == '\r' ? end - 1 : end;
+            return new Cursor(file, start, buffer, from, to, next);
+        }
+
+        private ByteBuffer bytes() {
+            return buffer.duplicate().position(from).limit(to).slice();
+        }
+
+        private String decode(Charset charset) {
+            final var bytes = new byte[to - from];
+            buffer.duplicate().position(from).get(bytes);
+            return new String(bytes, charset);
+        }
+    }
+}
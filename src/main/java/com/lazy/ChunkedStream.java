@@ -0,0 +1,414 @@
+package com.lazy;
+
+import com.functional.Effect;
+import com.functional.Function;
+import com.functional.Tuple;
+import com.util.List;
+import com.util.Result;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static com.util.Result.success;
+
+/**
+ * A lazy stream whose elements are evaluated by chunks, rather than one at a time.
+ * Each cell of the stream holds an array of evaluated elements, and a lazy pointer to
+ * the next cell. The cells are the ones of a Stream of arrays, so they are evaluated
+ * at most once, even when the stream is shared between threads.
+ * Compared to a Stream, a chunk of n elements costs a single cell and two suppliers,
+ * instead of n of them, and the combinators run tight loops over the arrays. The
+ * price is that the laziness is only kept at the granularity of the chunks: reading
+ * the first element of a chunk evaluates the whole chunk, and the functions given to
+ * map or filter are applied to the whole chunk at once.
+ * The chunks are never empty, and are never modified once created.
+ * @param <A> : Type parameter of the elements.
+ */
+public final class ChunkedStream<A> {
+    /**
+     * The number of elements of the chunks created by the generating functions.
+     */
+    public static final int CHUNK_SIZE = 256;
+
+    @SuppressWarnings("rawtypes")
+    private static final ChunkedStream EMPTY = new ChunkedStream<>(Stream.empty());
+
+    private volatile Supplier<Stream<Object[]>> suspended;
+    private Stream<Object[]> chunks;
+
+    private ChunkedStream(Stream<Object[]> chunks) {
+        this.chunks = chunks;
+    }
+
+    /**
+     * Creates a stream whose chunks are given by the supplier, which is only evaluated
+     * when the stream is read, so that creating the stream does not evaluate the first
+     * chunk of the stream it is made from.
+     */
+    private ChunkedStream(Supplier<Stream<Object[]>> chunks) {
+        suspended = chunks;
+    }
+
+    /**
+     * Evaluates the supplier of the chunks at most once, as the cells of a Stream do.
+     */
+    private Stream<Object[]> chunks() {
+        if (suspended != null) {
+            synchronized (this) {
+                final var supplier = suspended;
+                if (supplier != null) {
+                    chunks = supplier.get();
+                    suspended = null;
+                }
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * @return true if the stream is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return chunks().isEmpty();
+    }
+
+    /**
+     * @return the Result holding the first element of the stream, or an empty Result
+     * if the stream is empty.
+     */
+    public Result<A> headOption() {
+        return isEmpty() ? Result.empty() : success(element(chunks().head()._1, 0));
+    }
+
+    /**
+     * This function takes only the first n elements in the stream. The last chunk is
+     * truncated if needed, and the chunks after it are never evaluated.
+     * @param n : The number of elements to take from the stream.
+     * @return The truncated stream.
+     */
+    public ChunkedStream<A> take(int n) {
+        return new ChunkedStream<>(() -> take(chunks(), n));
+    }
+
+    private static Stream<Object[]> take(Stream<Object[]> cs, int n) {
+        if (n <= 0 || cs.isEmpty()) {
+            return Stream.empty();
+        }
+
+        final var chunk = cs.head()._1;
+        return chunk.length >= n
+                ? Stream.cons(() -> chunk.length == n ? chunk : Arrays.copyOf(chunk, n), Stream.empty())
+                : Stream.cons(() -> chunk, () -> take(cs.tail(), n - chunk.length));
+    }
+
+    /**
+     * This function drops the first n elements from the stream. The chunks which are
+     * dropped entirely are skipped without reading their elements.
+     * @param n : The number of elements to drop.
+     * @return the remaining stream.
+     */
+    public ChunkedStream<A> drop(int n) {
+        var cs = chunks();
+        while (n > 0 && !cs.isEmpty()) {
+            final var chunk = cs.head()._1;
+            if (chunk.length > n) {
+                final int start = n;
+                return new ChunkedStream<>(Stream.cons(() -> Arrays.copyOfRange(chunk, start, chunk.length), cs::tail));
+            }
+            n -= chunk.length;
+            cs = cs.tail();
+        }
+        return new ChunkedStream<>(cs);
+    }
+
+    /**
+     * This function takes the elements from the stream as long as the predicate
+     * returns true.
+     * @param p : The predicate to be applied to each element of the stream.
+     * @return The truncated stream.
+     */
+    public ChunkedStream<A> takeWhile(Function<A, Boolean> p) {
+        return new ChunkedStream<>(() -> takeWhile(chunks(), p));
+    }
+
+    private static <A> Stream<Object[]> takeWhile(Stream<Object[]> cs, Function<A, Boolean> p) {
+        if (cs.isEmpty()) {
+            return Stream.empty();
+        }
+
+        final var chunk = cs.head()._1;
+        int i = 0;
+        while (i < chunk.length && p.apply(element(chunk, i))) {
+            ++i;
+        }
+        final int length = i;
+        return length == chunk.length
+                ? Stream.cons(() -> chunk, () -> takeWhile(cs.tail(), p))
+                : length == 0 ? Stream.empty() : Stream.cons(() -> Arrays.copyOf(chunk, length), Stream.empty());
+    }
+
+    /**
+     * This function drops the elements from the stream as long as the predicate
+     * returns true.
+     * @param p : The predicate to be applied to each element of the stream.
+     * @return the remaining stream after dropping the initial elements.
+     */
+    public ChunkedStream<A> dropWhile(Function<A, Boolean> p) {
+        for (var cs = chunks(); !cs.isEmpty(); cs = cs.tail()) {
+            final var chunk = cs.head()._1;
+            for (int i = 0; i < chunk.length; ++i) {
+                if (!p.apply(element(chunk, i))) {
+                    final int start = i;
+                    return new ChunkedStream<>(start == 0
+                            ? cs
+                            : Stream.cons(() -> Arrays.copyOfRange(chunk, start, chunk.length), cs::tail));
+                }
+            }
+        }
+        return empty();
+    }
+
+    /**
+     * This function turns the stream of type A into a stream of type B. The function
+     * is applied to a whole chunk when the chunk is evaluated.
+     * @param f : The function which maps a type from A to B.
+     * @param <B> : Type parameter of the return type of the function.
+     * @return the stream of type B.
+     */
+    public <B> ChunkedStream<B> map(Function<A, B> f) {
+        return new ChunkedStream<>(chunks().map(chunk -> {
+            final var res = new Object[chunk.length];
+            for (int i = 0; i < chunk.length; ++i) {
+                res[i] = f.apply(element(chunk, i));
+            }
+            return res;
+        }));
+    }
+
+    /**
+     * This function keeps the elements for which the predicate returns true. The chunks
+     * left empty are removed, so that the stream never holds an empty chunk.
+     * @param p : The predicate which returns a boolean for each element.
+     * @return the filtered stream.
+     */
+    public ChunkedStream<A> filter(Function<A, Boolean> p) {
+        return new ChunkedStream<>(chunks().map(chunk -> {
+            final var res = new Object[chunk.length];
+            int length = 0;
+            for (var a : chunk) {
+                if (p.apply(cast(a))) {
+                    res[length++] = a;
+                }
+            }
+            return length == chunk.length ? chunk : Arrays.copyOf(res, length);
+        }).filter(chunk -> chunk.length > 0));
+    }
+
+    /**
+     * This function returns the elements of the other stream, once the elements from
+     * this stream are exhausted. The chunks of both streams are shared.
+     * @param that : The other stream, that needs to be added to the end of this stream.
+     * @return a stream that contains both the streams.
+     */
+    public ChunkedStream<A> append(Supplier<ChunkedStream<A>> that) {
+        return new ChunkedStream<>(chunks().append(() -> that.get().chunks()));
+    }
+
+    /**
+     * This function applies the function to each element, and flattens the resulting
+     * streams into a single stream. The chunks of the resulting streams are reused as
+     * they are, so small resulting streams produce small chunks.
+     * @param f : The function which produces a stream for each element.
+     * @param <B> : The type parameter of mapped result.
+     * @return the stream of objects of type B.
+     */
+    public <B> ChunkedStream<B> flatMap(Function<A, ChunkedStream<B>> f) {
+        return new ChunkedStream<>(chunks().flatMap(chunk -> flatten(chunk, 0, f)));
+    }
+
+    private static <A, B> Stream<Object[]> flatten(Object[] chunk, int start, Function<A, ChunkedStream<B>> f) {
+        for (int i = start; i < chunk.length; ++i) {
+            final var inner = f.apply(element(chunk, i)).chunks();
+            if (!inner.isEmpty()) {
+                final int next = i + 1;
+                return inner.append(() -> flatten(chunk, next, f));
+            }
+        }
+        return Stream.empty();
+    }
+
+    /**
+     * This method evaluates the chunks of the stream, until the predicate returns
+     * true for an element.
+     * @param p : The predicate which returns a boolean for each element of the stream.
+     * @return true, if an element is found, false otherwise.
+     */
+    public boolean exists(Function<A, Boolean> p) {
+        return find(p).isSuccess();
+    }
+
+    /**
+     * Find the first element for which the predicate returns true.
+     * @param p : The predicate which returns a boolean for each element.
+     * @return the Result holding the element if found, otherwise an empty Result.
+     */
+    public Result<A> find(Function<A, Boolean> p) {
+        for (var cs = chunks(); !cs.isEmpty(); cs = cs.tail()) {
+            for (var a : cs.head()._1) {
+                if (p.apply(cast(a))) {
+                    return success(cast(a));
+                }
+            }
+        }
+        return Result.empty();
+    }
+
+    /**
+     * Folds the stream from left to right, in constant stack space. This function
+     * evaluates every element of the stream, so it does not terminate on infinite
+     * streams.
+     * @param identity : The identity of the operation. This will be returned if the
+     *                 input stream is empty.
+     * @param f : Accumulating function, which accepts a parameter of type B, and returns
+     *          a function that accepts an element and returns a B.
+     * @param <B> : The type of reduction element.
+     * @return the reduced type object.
+     */
+    public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
+        var acc = identity;
+        for (var cs = chunks(); !cs.isEmpty(); cs = cs.tail()) {
+            for (var a : cs.head()._1) {
+                acc = f.apply(acc).apply(cast(a));
+            }
+        }
+        return acc;
+    }
+
+    /**
+     * Applies the given effect to each element of the stream, in order.
+     * @param ef : The effect to be applied.
+     */
+    public void forEach(Effect<A> ef) {
+        for (var cs = chunks(); !cs.isEmpty(); cs = cs.tail()) {
+            for (var a : cs.head()._1) {
+                ef.apply(cast(a));
+            }
+        }
+    }
+
+    /**
+     * @return the list of the elements of the stream. For infinite streams, this
+     * function runs forever.
+     */
+    public List<A> toList() {
+        final var builder = List.<A>builder();
+        forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * @return the stream of the elements, evaluated one chunk at a time.
+     */
+    public Stream<A> toStream() {
+        return chunks().flatMap(chunk -> Stream.unfold(0, i -> i < chunk.length
+                ? success(Tuple.create(ChunkedStream.<A>element(chunk, i), i + 1))
+                : Result.empty()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> A cast(Object a) {
+        return (A) a;
+    }
+
+    private static <A> A element(Object[] chunk, int i) {
+        return cast(chunk[i]);
+    }
+
+    /**
+     * Method to create an empty stream.
+     * @param <A> : Type parameter to which the empty stream must conform to.
+     * @return the empty stream of the provided type parameter.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> ChunkedStream<A> empty() {
+        return EMPTY;
+    }
+
+    /**
+     * This is the most general form of the generating functions. Each chunk is filled
+     * by applying the function CHUNK_SIZE times, or until it returns an empty Result,
+     * which marks the end of the stream.
+     * @param z : The starting value of the stream.
+     * @param f : Function which takes the current seed, and returns a result
+     *          producing a tuple of the next element and the next seed.
+     * @param <A> : The type parameter of the elements.
+     * @param <S> : The type parameter of the seed element.
+     * @return the stream of elements of type A.
+     */
+    public static <A, S> ChunkedStream<A> unfold(S z, Function<S, Result<Tuple<A, S>>> f) {
+        return new ChunkedStream<>(Stream.unfold(success(z), (Result<S> seed) -> {
+            final var chunk = new Object[CHUNK_SIZE];
+            int length = 0;
+            var next = seed;
+            while (length < CHUNK_SIZE && next.isSuccess()) {
+                final var r = f.apply(next.successValue());
+                if (r.isSuccess()) {
+                    chunk[length++] = r.successValue()._1;
+                    next = success(r.successValue()._2);
+                } else {
+                    next = Result.empty();
+                }
+            }
+            return length == 0
+                    ? Result.empty()
+                    : success(Tuple.create(length == CHUNK_SIZE ? chunk : Arrays.copyOf(chunk, length), next));
+        }));
+    }
+
+    /**
+     * @param seed : The starting element.
+     * @param f : Function which takes the current value, and produces the next element.
+     * @param <A> : Type paramter of the elements.
+     * @return the infinite stream of generated elements.
+     */
+    public static <A> ChunkedStream<A> iterate(A seed, Function<A, A> f) {
+        return unfold(seed, a -> success(Tuple.create(a, f.apply(a))));
+    }
+
+    /**
+     * @param i : The starting value.
+     * @return the infinite stream of contiguous integers from the starting value.
+     */
+    public static ChunkedStream<Integer> from(int i) {
+        return iterate(i, j -> j + 1);
+    }
+
+    /**
+     * Splits a stream into chunks of CHUNK_SIZE elements, evaluated as the chunks are
+     * read.
+     * @param stream : The stream to be chunked.
+     * @param <A> : Type parameter of the elements.
+     * @return the chunked stream of the elements of the stream.
+     */
+    public static <A> ChunkedStream<A> fromStream(Stream<A> stream) {
+        return unfold(stream, s -> s.isEmpty()
+                ? Result.empty()
+                : success(Tuple.create(s.head()._1, s.tail())));
+    }
+
+    /**
+     * @param ls : The elements of the stream.
+     * @param <A> : Type parameter of the elements.
+     * @return the chunked stream of the elements of the list.
+     */
+    public static <A> ChunkedStream<A> fromList(List<A> ls) {
+        return unfold(ls, l -> l.isEmpty()
+                ? Result.empty()
+                : success(Tuple.create(l.head(), l.tail())));
+    }
+
+    @SafeVarargs
+    public static <A> ChunkedStream<A> of(A... as) {
+        return fromList(List.list(as));
+    }
+}
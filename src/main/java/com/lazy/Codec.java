@@ -0,0 +1,75 @@
+package com.lazy;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The binary encoding of the elements of a stream, used to write them to a file and
+ * read them back, as sortedExternal does for the runs it spills. The encoding must be
+ * self delimiting: read must consume exactly the bytes written by write.
+ * @param <A> : Type parameter of the elements.
+ */
+public interface Codec<A> {
+
+    void write(DataOutput out, A a) throws IOException;
+
+    A read(DataInput in) throws IOException;
+
+    Codec<Integer> INTEGER = new Codec<>() {
+        @Override
+        public void write(DataOutput out, Integer a) throws IOException {
+            out.writeInt(a);
+        }
+
+        @Override
+        public Integer read(DataInput in) throws IOException {
+            return in.readInt();
+        }
+    };
+
+    Codec<Long> LONG = new Codec<>() {
+        @Override
+        public void write(DataOutput out, Long a) throws IOException {
+            out.writeLong(a);
+        }
+
+        @Override
+        public Long read(DataInput in) throws IOException {
+            return in.readLong();
+        }
+    };
+
+    Codec<Double> DOUBLE = new Codec<>() {
+        @Override
+        public void write(DataOutput out, Double a) throws IOException {
+            out.writeDouble(a);
+        }
+
+        @Override
+        public Double read(DataInput in) throws IOException {
+            return in.readDouble();
+        }
+    };
+
+    /**
+     * Strings are written as their length in bytes followed by their UTF-8 bytes, so
+     * that, unlike writeUTF, they are not limited to 64KB.
+     */
+    Codec<String> STRING = new Codec<>() {
+        @Override
+        public void write(DataOutput out, String a) throws IOException {
+            final var bytes = a.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+            final var bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+}
@@ -0,0 +1,325 @@
+package com.lazy;
+
+import com.functional.Tuple;
+import com.util.Result;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+import static com.util.Result.success;
+
+/**
+ * The external merge sort behind Stream.sortedExternal:
+ * -> The elements are read into a buffer of at most memoryBudget elements. Each time
+ * the buffer is full, it is sorted and written to a temporary file, called a run,
+ * with the codec. If the whole stream fits in the buffer, it is sorted in memory,
+ * and nothing is written.
+ * -> When there are more than MAX_FAN_IN runs, consecutive runs are merged into
+ * larger ones, so that the final merge never keeps more than MAX_FAN_IN files open.
+ * -> The sorted stream is a lazy merge of the runs, which keeps the head of each run
+ * in a heap, so each element costs O(log k) comparisons for k runs. A run file is
+ * deleted as soon as it has been read to its end. If the sorted stream is dropped
+ * before its end, the runs still open are closed and deleted by a Cleaner, once the
+ * merge is no longer reachable.
+ * The sort is stable: the runs are sorted with a stable sort, and equal heads are
+ * taken from the earliest run first.
+ */
+final class ExternalSort<A> {
+    static final int MAX_FAN_IN = 64;
+    private static final int BUFFER_SIZE = 1 << 16;
+    /**
+     * Releases the files of the streams which are dropped before their end. It is
+     * shared with HashAggregation.
+     */
+    static final Cleaner CLEANER = Cleaner.create();
+
+    private final Comparator<? super A> comparator;
+    private final Codec<A> codec;
+    private final Path directory;
+
+    private ExternalSort(Comparator<? super A> comparator, Codec<A> codec, Path directory) {
+        this.comparator = comparator;
+        this.codec = codec;
+        this.directory = directory;
+    }
+
+    static <A> Stream<A> sort(Iterator<A> source, Comparator<? super A> comparator, Codec<A> codec,
+                              int memoryBudget, Path directory) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("memoryBudget must be positive: " + memoryBudget);
+        }
+        return new ExternalSort<>(comparator, codec, directory).sort(source, memoryBudget);
+    }
+
+    /**
+     * Same as sort, for a source which does not fit in memoryBudget elements, returning
+     * the merge of the runs instead of the sorted stream, so that the tests can release
+     * the runs with close instead of waiting for the Cleaner.
+     */
+    static <A> ExternalSort<A>.Merge merge(Iterator<A> source, Comparator<? super A> comparator, Codec<A> codec,
+                                           int memoryBudget, Path directory) {
+        final var sort = new ExternalSort<>(comparator, codec, directory);
+        final var merge = sort.merge(source, new ArrayList<>(), memoryBudget);
+        if (merge == null) {
+            throw new IllegalArgumentException("The source fits in memory: " + memoryBudget);
+        }
+        return merge;
+    }
+
+    private Stream<A> sort(Iterator<A> source, int memoryBudget) {
+        final var buffer = new ArrayList<A>(Math.min(memoryBudget, BUFFER_SIZE));
+        final var merge = merge(source, buffer, memoryBudget);
+        if (merge != null) {
+            return merge.next();
+        }
+        return Stream.unfold(0, i -> i < buffer.size()
+                ? success(Tuple.create(buffer.get(i), i + 1))
+                : Result.empty());
+    }
+
+    /**
+     * Writes the runs of the source, and opens their merge.
+     * @return null if the whole source fits in the buffer, in which case it is sorted
+     * in the buffer, and nothing is written.
+     */
+    private Merge merge(Iterator<A> source, ArrayList<A> buffer, int memoryBudget) {
+        var runs = new ArrayList<Run>();
+        try {
+            while (source.hasNext()) {
+                buffer.add(source.next());
+                if (buffer.size() == memoryBudget) {
+                    buffer.sort(comparator);
+                    runs.add(spill(buffer));
+                    buffer.clear();
+                }
+            }
+            buffer.sort(comparator);
+            if (runs.isEmpty()) {
+                return null;
+            }
+            if (!buffer.isEmpty()) {
+                runs.add(spill(buffer));
+            }
+            buffer.clear();
+            buffer.trimToSize();
+
+            while (runs.size() > MAX_FAN_IN) {
+                runs = mergePass(runs);
+            }
+            return new Merge(open(runs));
+        } catch (IOException e) {
+            runs.forEach(Run::delete);
+            throw new IllegalStateException("Cannot spill sorted runs to " + directory, e);
+        } catch (RuntimeException | Error e) {
+            runs.forEach(Run::delete);
+            throw e;
+        }
+    }
+
+    private Run spill(Iterable<A> elements) throws IOException {
+        final var run = Run.create(directory);
+        try (var out = run.output()) {
+            for (var a : elements) {
+                codec.write(out, a);
+                ++run.count;
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            run.delete();
+            throw e;
+        }
+        return run;
+    }
+
+    /**
+     * Merges each group of MAX_FAN_IN consecutive runs into a single run, keeping the
+     * order of the runs for the stability of the sort.
+     */
+    private ArrayList<Run> mergePass(ArrayList<Run> runs) throws IOException {
+        final var merged = new ArrayList<Run>();
+        PriorityQueue<Reader> heap = null;
+        try {
+            for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+                final var group = runs.subList(i, Math.min(i + MAX_FAN_IN, runs.size()));
+                final var run = Run.create(directory);
+                merged.add(run);
+                heap = open(group);
+                try (var out = run.output()) {
+                    //The reader leaves the heap only to be advanced, which closes it on failure.
+                    while (!heap.isEmpty()) {
+                        final var reader = heap.peek();
+                        codec.write(out, reader.head);
+                        ++run.count;
+                        heap.poll();
+                        if (reader.advance()) {
+                            heap.add(reader);
+                        }
+                    }
+                }
+            }
+            return merged;
+        } catch (IOException | RuntimeException | Error e) {
+            if (heap != null) {
+                heap.forEach(Reader::close);
+            }
+            merged.forEach(Run::delete);
+            throw e;
+        }
+    }
+
+    private PriorityQueue<Reader> open(java.util.List<Run> runs) throws IOException {
+        final var heap = new PriorityQueue<Reader>(Math.max(1, runs.size()));
+        try {
+            for (int i = 0; i < runs.size(); ++i) {
+                final var reader = new Reader(runs.get(i), i);
+                if (reader.advance()) {
+                    heap.add(reader);
+                }
+            }
+            return heap;
+        } catch (IOException | RuntimeException | Error e) {
+            heap.forEach(Reader::close);
+            throw e;
+        }
+    }
+
+    /**
+     * The final merge of the runs, read as the sorted stream is. Like the windows of
+     * Stream, it is only updated by next, once per element. The cells of the sorted
+     * stream not yet evaluated hold the merge, so it becomes unreachable when the
+     * stream is dropped, and the Cleaner then closes the runs left in the heap.
+     */
+    final class Merge {
+        private final PriorityQueue<Reader> heap;
+        private final Cleaner.Cleanable cleanable;
+
+        private Merge(PriorityQueue<Reader> heap) {
+            this.heap = heap;
+            //The cleaning action must not hold the merge, or it would never be run.
+            this.cleanable = CLEANER.register(this, () -> heap.forEach(Reader::close));
+        }
+
+        Stream<A> next() {
+            final var reader = heap.poll();
+            if (reader == null) {
+                cleanable.clean();
+                return Stream.empty();
+            }
+            final var a = reader.head;
+            try {
+                if (reader.advance()) {
+                    heap.add(reader);
+                }
+            } catch (IOException e) {
+                cleanable.clean();
+                throw new IllegalStateException("Cannot read sorted run " + reader.run.path, e);
+            }
+            return Stream.cons(() -> a, this::next);
+        }
+
+        /**
+         * Closes and deletes the runs left in the heap, which is what the Cleaner does
+         * once the merge is no longer reachable. The merge must not be read after.
+         */
+        void close() {
+            cleanable.clean();
+        }
+    }
+
+    /**
+     * A run being read, with the element read last, which is its smallest element not
+     * yet merged. The readers are ordered by this element, then by the position of
+     * their run.
+     */
+    private final class Reader implements Comparable<Reader> {
+        private final Run run;
+        private final int index;
+        private final DataInputStream in;
+        private long remaining;
+        private A head;
+
+        private Reader(Run run, int index) throws IOException {
+            this.run = run;
+            this.index = index;
+            this.remaining = run.count;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.path), BUFFER_SIZE));
+        }
+
+        /**
+         * Reads the next element of the run into head.
+         * @return false if the run has been read to its end, in which case it is
+         * closed and deleted. The run is also closed and deleted if it cannot be read.
+         */
+        private boolean advance() throws IOException {
+            if (remaining == 0) {
+                close();
+                return false;
+            }
+            try {
+                head = codec.read(in);
+            } catch (EOFException e) {
+                close();
+                throw new IOException("Run " + run.path + " ended " + remaining + " elements early", e);
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+            --remaining;
+            return true;
+        }
+
+        private void close() {
+            head = null;
+            try {
+                in.close();
+            } catch (IOException e) {
+                //The run is deleted anyway.
+            }
+            run.delete();
+        }
+
+        @Override
+        public int compareTo(Reader that) {
+            final int res = comparator.compare(head, that.head);
+            return res != 0 ? res : Integer.compare(index, that.index);
+        }
+    }
+
+    /**
+     * A temporary file holding a sorted run, and the number of elements written to it.
+     */
+    private static final class Run {
+        private final Path path;
+        private long count;
+
+        private Run(Path path) {
+            this.path = path;
+        }
+
+        private static Run create(Path directory) throws IOException {
+            return new Run(Files.createTempFile(directory, "stream-sort-", ".run"));
+        }
+
+        private DataOutputStream output() throws IOException {
+            return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+        }
+
+        private void delete() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                //Nothing else can be done with a file which cannot be deleted.
+            }
+        }
+    }
+}
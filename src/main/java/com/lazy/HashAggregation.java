@@ -0,0 +1,288 @@
+package com.lazy;
+
+import com.functional.Function;
+import com.functional.Tuple;
+import com.util.List;
+import com.util.Result;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+
+import static com.util.List.list;
+import static com.util.Result.success;
+
+/**
+ * The hash aggregation behind Stream.aggregateBy:
+ * -> The elements are folded into a hash table of the aggregates by key, as long as
+ * the table holds less than maxKeys keys. Once it is full, the elements of the keys
+ * already in the table are still folded into it, and the elements of the other keys
+ * are written to one of PARTITIONS temporary files, chosen by the hash of their key.
+ * -> The aggregates of the table are returned first, then each partition is read
+ * back and aggregated the same way, with a different hash, so that a partition
+ * holding too many keys is split again.
+ * Each key is therefore aggregated entirely in the table of a single pass, and its
+ * elements are folded in the order of the stream. Only the elements of the keys which
+ * do not fit are written, once per level, so no function merging two aggregates is
+ * needed. The partitions of the first level may be aggregated in parallel, each of
+ * them holding up to maxKeys keys in memory.
+ */
+final class HashAggregation<A, K, B> {
+    static final int PARTITIONS = 16;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Function<A, K> keyFn;
+    private final B zero;
+    private final Function<B, Function<A, B>> combiner;
+    private final Codec<A> codec;
+    private final int maxKeys;
+    private final Path directory;
+
+    HashAggregation(Function<A, K> keyFn, B zero, Function<B, Function<A, B>> combiner,
+                    Codec<A> codec, int maxKeys, Path directory) {
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("maxKeys must be positive: " + maxKeys);
+        }
+        this.keyFn = keyFn;
+        this.zero = zero;
+        this.combiner = combiner;
+        this.codec = codec;
+        this.maxKeys = maxKeys;
+        this.directory = directory;
+    }
+
+    /**
+     * Aggregates the source, and then the partitions one after the other, as the
+     * result is read.
+     */
+    Stream<Tuple<K, B>> aggregate(Iterator<A> source) {
+        return aggregate(source, 0);
+    }
+
+    /**
+     * Aggregates the source, and then the partitions of the first level on the executor
+     * service, up to parallelism at a time, ahead of the reader. The deeper levels of
+     * a partition are aggregated by its own task.
+     */
+    Stream<Tuple<K, B>> aggregate(Iterator<A> source, ExecutorService es, int parallelism) {
+        final var pass = new Pass(0);
+        pass.read(source);
+        return pass.entries().append(() -> Stream.of(pass.partitions())
+                .mapAsync(es, parallelism, p -> aggregate(p.iterator(codec), 1).toList())
+                .flatMap(Stream::of));
+    }
+
+    private Stream<Tuple<K, B>> aggregate(Iterator<A> source, int level) {
+        final var pass = new Pass(level);
+        pass.read(source);
+        return pass.entries().append(() -> Stream.of(pass.partitions())
+                .flatMap(p -> aggregate(p.iterator(codec), level + 1)));
+    }
+
+    /**
+     * A pass over the elements of one level: the table of the aggregates, and the
+     * partitions the other elements are written to, which are only created when an
+     * element has to be written.
+     */
+    private final class Pass {
+        private final int level;
+        private final LinkedHashMap<K, B> table = new LinkedHashMap<>();
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private final Partition<A>[] partitions = new Partition[PARTITIONS];
+
+        private Pass(int level) {
+            this.level = level;
+        }
+
+        private void read(Iterator<A> source) {
+            try {
+                while (source.hasNext()) {
+                    final var a = source.next();
+                    final var k = keyFn.apply(a);
+                    final var b = table.get(k);
+                    if (b != null || table.containsKey(k)) {
+                        table.put(k, combiner.apply(b).apply(a));
+                    } else if (table.size() < maxKeys) {
+                        table.put(k, combiner.apply(zero).apply(a));
+                    } else {
+                        partition(k).write(codec, a);
+                    }
+                }
+                for (var p : partitions) {
+                    if (p != null) {
+                        p.close();
+                    }
+                }
+            } catch (IOException e) {
+                delete();
+                throw new IllegalStateException("Cannot spill partitions to " + directory, e);
+            } catch (RuntimeException | Error e) {
+                delete();
+                throw e;
+            }
+        }
+
+        private Partition<A> partition(K k) throws IOException {
+            if (codec == null) {
+                throw new IllegalStateException("more than " + maxKeys + " keys, and no codec to spill them");
+            }
+            final int index = index(k);
+            if (partitions[index] == null) {
+                partitions[index] = Partition.create(directory);
+            }
+            return partitions[index];
+        }
+
+        /**
+         * Mixes the hash of the key with the level, so that the keys of a partition are
+         * spread over all the partitions of the next level.
+         */
+        private int index(K k) {
+            int h = k.hashCode() ^ level * 0x9E3779B9;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 16;
+            return Math.floorMod(h, PARTITIONS);
+        }
+
+        /**
+         * The aggregates of the table, in the order in which their keys were first read.
+         * The iterator is only advanced by unfold, once per element.
+         */
+        private Stream<Tuple<K, B>> entries() {
+            return Stream.unfold(table.entrySet().iterator(), it -> {
+                if (!it.hasNext()) {
+                    return Result.empty();
+                }
+                final var entry = it.next();
+                return success(Tuple.create(Tuple.create(entry.getKey(), entry.getValue()), it));
+            });
+        }
+
+        private List<Partition<A>> partitions() {
+            List<Partition<A>> res = list();
+            for (int i = PARTITIONS - 1; i >= 0; --i) {
+                if (partitions[i] != null) {
+                    res = res.cons(partitions[i]);
+                }
+            }
+            return res;
+        }
+
+        private void delete() {
+            for (var p : partitions) {
+                if (p != null) {
+                    p.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * A temporary file holding the elements of a partition, in the order of the stream.
+     * The file is deleted once it has been read to its end. The partitions not yet read
+     * are held by the resulting stream, so when it is dropped before its end, they
+     * become unreachable, and the Cleaner then deletes their files.
+     */
+    private static final class Partition<A> {
+        private final Path path;
+        private final DataOutputStream out;
+        private final Cleaner.Cleanable cleanable;
+        private long count;
+
+        private Partition(Path path, DataOutputStream out) {
+            this.path = path;
+            this.out = out;
+            //The cleaning action must not hold the partition, or it would never be run.
+            this.cleanable = ExternalSort.CLEANER.register(this, () -> delete(path, out));
+        }
+
+        private static <A> Partition<A> create(Path directory) throws IOException {
+            final var path = Files.createTempFile(directory, "stream-aggregate-", ".part");
+            try {
+                return new Partition<>(path,
+                        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE)));
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(path);
+                throw e;
+            }
+        }
+
+        private void write(Codec<A> codec, A a) throws IOException {
+            codec.write(out, a);
+            ++count;
+        }
+
+        private void close() throws IOException {
+            out.close();
+        }
+
+        private void delete() {
+            cleanable.clean();
+        }
+
+        private static void delete(Path path, DataOutputStream out) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                //The file is deleted anyway.
+            }
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                //Nothing else can be done with a file which cannot be deleted.
+            }
+        }
+
+        private Iterator<A> iterator(Codec<A> codec) {
+            return new PartitionIterator<>(this, codec);
+        }
+    }
+
+    private static final class PartitionIterator<A> implements Iterator<A> {
+        private final Partition<A> partition;
+        private final Codec<A> codec;
+        private DataInputStream in;
+        private long remaining;
+
+        private PartitionIterator(Partition<A> partition, Codec<A> codec) {
+            this.partition = partition;
+            this.codec = codec;
+            this.remaining = partition.count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public A next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            try {
+                if (in == null) {
+                    in = new DataInputStream(new BufferedInputStream(Files.newInputStream(partition.path), BUFFER_SIZE));
+                }
+                final var a = codec.read(in);
+                if (--remaining == 0) {
+                    in.close();
+                    partition.delete();
+                }
+                return a;
+            } catch (IOException e) {
+                partition.delete();
+                throw new IllegalStateException("Cannot read partition " + partition.path, e);
+            }
+        }
+    }
+}
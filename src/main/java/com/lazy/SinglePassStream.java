@@ -0,0 +1,459 @@
+package com.lazy;
+
+import com.functional.Effect;
+import com.functional.Function;
+import com.functional.Tuple;
+import com.util.List;
+import com.util.Result;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static com.util.Result.success;
+
+/**
+ * A lazy stream which can be read only once, backed by an iterator. Unlike a Stream,
+ * it does not memoize its elements: once an element has been read, nothing refers
+ * to it anymore, so the terminal operations (foldLeft, forEach, exists, find...) run
+ * in constant memory on streams of any length, including infinite ones.
+ * -> The intermediate operations (map, filter, take...) wrap the iterator of this
+ * stream, and return a new stream. They, like the terminal operations, consume this
+ * stream, and any further operation on it throws an IllegalStateException.
+ * -> A SinglePassStream must not be shared between threads.
+ * @param <A> : Type parameter of the elements.
+ */
+public final class SinglePassStream<A> {
+    private Iterator<A> iterator;
+
+    private SinglePassStream(Iterator<A> iterator) {
+        this.iterator = iterator;
+    }
+
+    /**
+     * Hands the iterator over to the operation, so that this stream cannot be read
+     * again.
+     */
+    private Iterator<A> consume() {
+        final var res = iterator;
+        if (res == null) {
+            throw new IllegalStateException("stream has already been consumed");
+        }
+        iterator = null;
+        return res;
+    }
+
+    /**
+     * The base of the iterators which compute their next element in advance, for the
+     * operations which need to read the source before knowing whether there is a next
+     * element.
+     */
+    private abstract static class LookAhead<A> implements Iterator<A> {
+        private A next;
+        private boolean ready;
+        private boolean done;
+
+        /**
+         * Computes the next element, and returns it through the setNext method, or
+         * calls end if there is none.
+         */
+        protected abstract void advance();
+
+        protected final void setNext(A a) {
+            next = a;
+            ready = true;
+        }
+
+        protected final void end() {
+            done = true;
+        }
+
+        @Override
+        public final boolean hasNext() {
+            if (!ready && !done) {
+                advance();
+            }
+            return ready;
+        }
+
+        @Override
+        public final A next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final var res = next;
+            next = null;
+            ready = false;
+            return res;
+        }
+    }
+
+    /**
+     * @param f : The function which maps a type from A to B.
+     * @param <B> : Type parameter of the return type of the function.
+     * @return the stream of the mapped elements.
+     */
+    public <B> SinglePassStream<B> map(Function<A, B> f) {
+        final var source = consume();
+        return new SinglePassStream<>(new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public B next() {
+                return f.apply(source.next());
+            }
+        });
+    }
+
+    /**
+     * @param p : The predicate which returns a boolean for each element.
+     * @return the stream of the elements for which the predicate returns true.
+     */
+    public SinglePassStream<A> filter(Function<A, Boolean> p) {
+        final var source = consume();
+        return new SinglePassStream<>(new LookAhead<>() {
+            @Override
+            protected void advance() {
+                while (source.hasNext()) {
+                    final var a = source.next();
+                    if (p.apply(a)) {
+                        setNext(a);
+                        return;
+                    }
+                }
+                end();
+            }
+        });
+    }
+
+    /**
+     * @param f : The function which produces a stream for each element.
+     * @param <B> : The type parameter of mapped result.
+     * @return the stream of the elements of the streams produced by the function.
+     */
+    public <B> SinglePassStream<B> flatMap(Function<A, SinglePassStream<B>> f) {
+        final var source = consume();
+        return new SinglePassStream<>(new LookAhead<>() {
+            private Iterator<B> inner = Collections.emptyIterator();
+
+            @Override
+            protected void advance() {
+                while (!inner.hasNext()) {
+                    if (!source.hasNext()) {
+                        end();
+                        return;
+                    }
+                    inner = f.apply(source.next()).consume();
+                }
+                setNext(inner.next());
+            }
+        });
+    }
+
+    /**
+     * @param n : The number of elements to take from the stream.
+     * @return the stream of the first n elements. The source is not read past the
+     * n-th element.
+     */
+    public SinglePassStream<A> take(int n) {
+        final var source = consume();
+        return new SinglePassStream<>(new Iterator<>() {
+            private int count;
+
+            @Override
+            public boolean hasNext() {
+                return count < n && source.hasNext();
+            }
+
+            @Override
+            public A next() {
+                if (count >= n) {
+                    throw new NoSuchElementException();
+                }
+                ++count;
+                return source.next();
+            }
+        });
+    }
+
+    /**
+     * @param p : The predicate to be applied to each element of the stream.
+     * @return the stream of the first elements for which the predicate returns true.
+     */
+    public SinglePassStream<A> takeWhile(Function<A, Boolean> p) {
+        final var source = consume();
+        return new SinglePassStream<>(new LookAhead<>() {
+            @Override
+            protected void advance() {
+                if (source.hasNext()) {
+                    final var a = source.next();
+                    if (p.apply(a)) {
+                        setNext(a);
+                        return;
+                    }
+                }
+                end();
+            }
+        });
+    }
+
+    /**
+     * @param n : The number of elements to drop.
+     * @return the stream of the elements after the first n ones. They are dropped when
+     * the resulting stream is first read.
+     */
+    public SinglePassStream<A> drop(int n) {
+        return dropWhile(new Function<>() {
+            private int count;
+
+            @Override
+            public Boolean apply(A a) {
+                return count++ < n;
+            }
+        });
+    }
+
+    /**
+     * @param p : The predicate to be applied to each element of the stream.
+     * @return the stream of the elements from the first one for which the predicate
+     * returns false.
+     */
+    public SinglePassStream<A> dropWhile(Function<A, Boolean> p) {
+        final var source = consume();
+        return new SinglePassStream<>(new LookAhead<>() {
+            private boolean dropping = true;
+
+            @Override
+            protected void advance() {
+                while (source.hasNext()) {
+                    final var a = source.next();
+                    if (!dropping || !p.apply(a)) {
+                        dropping = false;
+                        setNext(a);
+                        return;
+                    }
+                }
+                end();
+            }
+        });
+    }
+
+    /**
+     * Folds the stream from left to right, in constant memory. This function does not
+     * terminate on infinite streams.
+     * @param identity : The identity of the operation. This will be returned if the
+     *                 stream is empty.
+     * @param f : Accumulating function, which accepts a parameter of type B, and returns
+     *          a function that accepts an element and returns a B.
+     * @param <B> : The type of reduction element.
+     * @return the reduced type object.
+     */
+    public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
+        final var source = consume();
+        var acc = identity;
+        while (source.hasNext()) {
+            acc = f.apply(acc).apply(source.next());
+        }
+        return acc;
+    }
+
+    /**
+     * Applies the given effect to each element of the stream, in order.
+     * @param ef : The effect to be applied.
+     */
+    public void forEach(Effect<A> ef) {
+        final var source = consume();
+        while (source.hasNext()) {
+            ef.apply(source.next());
+        }
+    }
+
+    /**
+     * Reads the stream until an element satisfies the predicate.
+     * @param p : The predicate to be applied to each element.
+     * @return the Result holding the first element satisfying the predicate, or an
+     * empty Result if there is none.
+     */
+    public Result<A> find(Function<A, Boolean> p) {
+        final var source = consume();
+        while (source.hasNext()) {
+            final var a = source.next();
+            if (p.apply(a)) {
+                return success(a);
+            }
+        }
+        return Result.empty();
+    }
+
+    /**
+     * @param p : The predicate to be applied to each element.
+     * @return true if the predicate returns true for an element, false otherwise.
+     */
+    public boolean exists(Function<A, Boolean> p) {
+        return find(p).isSuccess();
+    }
+
+    /**
+     * @param p : The predicate to be applied to each element.
+     * @return true if the predicate returns true for all the elements, false otherwise.
+     */
+    public boolean forAll(Function<A, Boolean> p) {
+        return !exists(a -> !p.apply(a));
+    }
+
+    /**
+     * @return the Result holding the first element of the stream, or an empty Result
+     * if the stream is empty.
+     */
+    public Result<A> headOption() {
+        return find(a -> true);
+    }
+
+    /**
+     * Collects the elements of the stream. The list holds every element, so this
+     * function only runs in constant memory in the sense that no cell of the stream is
+     * kept besides the list itself.
+     * @return the list of the elements of the stream.
+     */
+    public List<A> toList() {
+        final var builder = List.<A>builder();
+        forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Sorts this stream with an external merge sort, as Stream.sortedExternal does.
+     * As the elements of this stream are not memoized, the memory used does not
+     * depend on the length of the stream, but only on memoryBudget.
+     * @param comparator : The order of the elements.
+     * @param codec : The encoding of the elements in the run files.
+     * @param memoryBudget : The largest number of elements sorted in memory at once.
+     * @return the sorted stream, whose elements are read lazily from the run files.
+     */
+    public Stream<A> sortedExternal(Comparator<? super A> comparator, Codec<A> codec, int memoryBudget) {
+        return ExternalSort.sort(consume(), comparator, codec, memoryBudget,
+                Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * @return the iterator over the elements of the stream, which consumes it.
+     */
+    public Iterator<A> iterator() {
+        return consume();
+    }
+
+    /**
+     * @param iterator : The iterator providing the elements.
+     * @param <A> : Type parameter of the elements.
+     * @return the stream reading the elements of the iterator.
+     */
+    public static <A> SinglePassStream<A> of(Iterator<A> iterator) {
+        return new SinglePassStream<>(iterator);
+    }
+
+    /**
+     * Reads a Stream once, keeping a reference only to its cell which is to be read
+     * next. The cells already read can then be collected, unless the caller itself
+     * holds a reference to the head of the stream.
+     * @param stream : The stream to be read.
+     * @param <A> : Type parameter of the elements.
+     * @return the single pass stream of the elements of the stream.
+     */
+    static <A> SinglePassStream<A> of(Stream<A> stream) {
+        return new SinglePassStream<>(new StreamIterator<>(stream));
+    }
+
+    /**
+     * The iterator over the cells of a Stream. It is not an anonymous class, which
+     * would capture the head of the stream in a synthetic field.
+     */
+    private static final class StreamIterator<A> implements Iterator<A> {
+        private Stream<A> current;
+
+        private StreamIterator(Stream<A> stream) {
+            current = stream;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !current.isEmpty();
+        }
+
+        @Override
+        public A next() {
+            if (current.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            final var a = current.head()._1;
+            current = current.tail();
+            return a;
+        }
+    }
+
+    /**
+     * @param z : The starting value of the stream.
+     * @param f : Function which takes the current seed, and returns a result
+     *          producing a tuple of the next element and the next seed. An empty
+     *          Result marks the end of the stream.
+     * @param <A> : The type parameter of the elements.
+     * @param <S> : The type parameter of the seed element.
+     * @return the stream of elements of type A.
+     */
+    public static <A, S> SinglePassStream<A> unfold(S z, Function<S, Result<Tuple<A, S>>> f) {
+        return new SinglePassStream<>(new LookAhead<>() {
+            private S seed = z;
+
+            @Override
+            protected void advance() {
+                final var r = f.apply(seed);
+                if (r.isSuccess()) {
+                    setNext(r.successValue()._1);
+                    seed = r.successValue()._2;
+                } else {
+                    end();
+                }
+            }
+        });
+    }
+
+    /**
+     * @param seed : The starting element.
+     * @param f : Function which takes the current value, and produces the next element.
+     * @param <A> : Type paramter of the elements.
+     * @return the infinite stream of generated elements.
+     */
+    public static <A> SinglePassStream<A> iterate(A seed, Function<A, A> f) {
+        return new SinglePassStream<>(new Iterator<>() {
+            private A current = seed;
+            private boolean started;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public A next() {
+                // f is only applied when the following element is requested.
+                if (started) {
+                    current = f.apply(current);
+                }
+                started = true;
+                return current;
+            }
+        });
+    }
+
+    /**
+     * @param i : The starting value.
+     * @return the infinite stream of contiguous integers from the starting value.
+     */
+    public static SinglePassStream<Integer> from(int i) {
+        return iterate(i, j -> j + 1);
+    }
+}
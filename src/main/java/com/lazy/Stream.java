@@ -7,6 +7,7 @@ import static com.util.Result.failure;
 import static com.util.Result.success;
 import static com.util.Result.empty;
 
+import com.util.AhoCorasick;
 import com.util.List;
 import static com.util.List.list;
 
@@ -15,7 +16,24 @@ import com.functional.TailCall;
 import static com.functional.TailCall.ret;
 import static com.functional.TailCall.sus;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.StreamSupport;
 
 /**
  * This class is a counterpart to list class. Whereas the list class contains
@@ -60,7 +78,7 @@ public abstract class Stream<A> {
      * is a Cons object, otherwise, it is a failure object.
      */
     public Result<A> headOption() {
-        return foldRight(Result::empty, a -> sa -> success(a));
+        return isEmpty() ? Result.empty() : success(head()._1);
     }
 
     /**
@@ -108,7 +126,7 @@ public abstract class Stream<A> {
     public Stream<A> dropWhile(Function<A, Boolean> p) {
         class DropHelper{
             TailCall<Stream<A>> go(Stream<A> ss) {
-                return ss.isEmpty() ||  p.apply(ss.head()._1) ?  sus(() -> go(ss.tail())) : ret(ss);
+                return !ss.isEmpty() && p.apply(ss.head()._1) ? sus(() -> go(ss.tail())) : ret(ss);
             }
         }
 
@@ -130,9 +148,7 @@ public abstract class Stream<A> {
      * @param p : The predicate to be applied to each element of the stream.
      * @return The truncated Stream object, based on the provided predicate.
      */
-    public Stream<A> takeWhile(Function<A, Boolean> p) {
-        return foldRight(Stream::empty, a -> sa -> p.apply(a) ? cons(() -> a, sa) : empty());
-    }
+    public abstract Stream<A> takeWhile(Function<A, Boolean> p);
 
     /**
      * This method evaluates the elements of the stream, until the predicate returns
@@ -143,7 +159,7 @@ public abstract class Stream<A> {
     public boolean exists(Function<A, Boolean> p) {
         class ExistsHelper {
             TailCall<Boolean> go(Stream<A> ss) {
-                return ss.isEmpty() || p.apply(ss.head()._1) ? ret(true) : sus(() -> go(ss.tail()));
+                return ss.isEmpty() ? ret(false) : p.apply(ss.head()._1) ? ret(true) : sus(() -> go(ss.tail()));
             }
         }
 
@@ -161,23 +177,58 @@ public abstract class Stream<A> {
      * @param <B> : The type of reduction element.
      * @return the reduced type object.
      *
-     * Note that it may not be possible to do a foldLeft on the stream, since it inverts the direction of operation
-     * and would need the stream to be reversed, and would not complete on infinite streams.
-     * Also note that, the foldRight implementation is not stack safe, meaning that, it might throw
-     * StackOverflowException for streams with elements larger than 10000 elements. For more
+     * Note that the fold is only stack safe if f is lazy in its second argument, i.e. if
+     * it returns a value which evaluates the supplier later, if ever, such as a stream.
+     * A function evaluating the supplier right away, such as an addition, nests one call
+     * per element, and might throw StackOverflowError for streams with more than a few
+     * thousand elements. Use foldRightStrict or foldLeft for such functions. For more
      * information, refer here: https://github.com/fpinjava/fpinjava/issues/12
      */
     public abstract <B> B foldRight(Supplier<B> identity, Function<A, Function<Supplier<B>, B>> f);
 
     /**
-     * This function turns the stream of type A into a stream of type B.
+     * Folds the stream from left to right, in constant stack space. This function
+     * evaluates every element of the stream, so it does not terminate on infinite
+     * streams.
+     * @param identity : The identity of the operation. This will be returned if the
+     *                 input stream is empty.
+     * @param f : Accumulating function, which accepts a parameter of type B, and returns
+     *          a function that accepts an element and returns a B.
+     * @param <B> : The type of reduction element.
+     * @return the reduced type object.
+     */
+    public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
+        var acc = identity;
+        for (var ss = this; !ss.isEmpty(); ss = ss.tail()) {
+            acc = f.apply(acc).apply(ss.head()._1);
+        }
+        return acc;
+    }
+
+    /**
+     * Folds the stream from right to left with a function which needs the result of
+     * the fold of the tail, in constant stack space. The elements are evaluated into a
+     * list first, which is then folded from its end, so the function does not
+     * terminate on infinite streams.
+     * @param identity : The identity of the operation. This will be returned if the
+     *                 input stream is empty.
+     * @param f : Accumulating function, which accepts an element, and returns a
+     *          function that accepts the fold of the tail and returns a B.
+     * @param <B> : The type of reduction element.
+     * @return the reduced type object.
+     */
+    public <B> B foldRightStrict(B identity, Function<A, Function<B, B>> f) {
+        return toList().foldRight(identity, f);
+    }
+
+    /**
+     * This function turns the stream of type A into a stream of type B. The function is
+     * applied to each element only when the element is evaluated.
      * @param f : The function which maps a type from A to B.
      * @param <B> : Type parameter of the return type of the function.
      * @return the stream of type B.
      */
-    public <B> Stream<B> map(Function<A, B> f) {
-        return foldRight(Stream::empty, a -> acc -> cons(() -> f.apply(a), acc));
-    }
+    public abstract <B> Stream<B> map(Function<A, B> f);
 
     /**
      * This function filters (removes), the elements from the stream, as long as
@@ -190,7 +241,7 @@ public abstract class Stream<A> {
     public Stream<A> filter(Function<A, Boolean> p) {
         var stream = dropWhile(x -> !p.apply(x));
 
-        return stream.isEmpty() ? stream : cons(() -> stream.head()._1, () -> stream.tail().filter(p));
+        return stream.isEmpty() ? stream : new Cons<>(stream.head()._1, () -> stream.tail().filter(p));
     }
 
     /**
@@ -199,21 +250,358 @@ public abstract class Stream<A> {
      * @param that : The other stream, that needs to be added to the end of this stream.
      * @return a stream that contains both the streams.
      */
-    public Stream<A> append(Supplier<Stream<A>> that) {
-        return foldRight(that, a -> acc -> cons(() -> a, acc));
-    }
+    public abstract Stream<A> append(Supplier<Stream<A>> that);
 
     /**
      * This function is a generalization of map. The input function here returns a stream
      * of elements, rather than a single element, for each application. The flatMap
-     * then flattens the stream of streams into a single stream. The runtime of this function
-     * could be O(n2), since it needs to traverse the stream for each invocation.
+     * then flattens the stream of streams into a single stream. As for filter, the
+     * elements are evaluated up to the first one producing a non empty stream, in a
+     * loop, so that long runs of empty streams do not consume the stack.
      * @param f : The function which produces a Stream<B> for each element of Stream<A>.
      * @param <B> : The type parameter of mapped result.
      * @return the stream of objects of type B.
      */
     public <B> Stream<B> flatMap(Function<A, Stream<B>> f) {
-        return foldRight(Stream::empty, a -> acc -> f.apply(a).append(acc));
+        var ss = this;
+        Stream<B> inner = empty();
+        while (inner.isEmpty()) {
+            if (ss.isEmpty()) {
+                return empty();
+            }
+            inner = f.apply(ss.head()._1);
+            ss = ss.tail();
+        }
+
+        final var rest = ss;
+        return inner.append(() -> rest.flatMap(f));
+    }
+
+    /**
+     * This is the parallel version of the map function. The function is applied on the
+     * executor service to up to parallelism elements ahead of the element read by the
+     * consumer, so that an expensive function runs concurrently with the processing of
+     * the earlier elements. The order of the elements is kept.
+     * -> The elements of this stream are evaluated on the consuming thread, as the
+     * window moves, and only the function is run on the executor service.
+     * -> At most parallelism elements are submitted and not yet read, which bounds the
+     * memory held by the window. The first ones are submitted when the stream is
+     * created.
+     * -> An exception thrown by the function is thrown again when its element is read.
+     * The elements submitted after it and not yet held by a cell are then cancelled,
+     * and no more elements are submitted, so the stream ends after them.
+     * -> Nothing cancels the elements already submitted when the stream is dropped
+     * before they are read, so the function still runs on them.
+     * @param es : The executor service to use for submitting the parallel jobs.
+     * @param parallelism : The number of elements evaluated ahead.
+     * @param f : The function which maps a type from A to B.
+     * @param <B> : Type parameter of the return type of the function.
+     * @return the stream of type B.
+     */
+    public <B> Stream<B> mapAsync(ExecutorService es, int parallelism, Function<A, B> f) {
+        return new Prefetch<>(this, es, Math.max(1, parallelism), f).next();
+    }
+
+    /**
+     * Same as mapAsync, but each element of the resulting stream is the first result
+     * to complete, so a slow element does not hold back the ones after it. The elements
+     * are therefore in no particular order. Each cell waits for the result it holds
+     * when it is created, so at most parallelism elements are submitted and not yet
+     * assigned to a cell, even if the heads are never read. As with mapAsync, an
+     * exception thrown by the function cancels the elements still pending, and the
+     * elements already submitted when the stream is dropped still run.
+     * @param es : The executor service to use for submitting the parallel jobs.
+     * @param parallelism : The number of elements evaluated ahead.
+     * @param f : The function which maps a type from A to B.
+     * @param <B> : Type parameter of the return type of the function.
+     * @return the stream of type B, in the order of completion.
+     */
+    public <B> Stream<B> mapAsyncUnordered(ExecutorService es, int parallelism, Function<A, B> f) {
+        return new UnorderedPrefetch<>(this, es, Math.max(1, parallelism), f).next();
+    }
+
+    /**
+     * Returns the windows of n consecutive elements of this stream, starting every
+     * step elements. Only full windows are returned, so a stream with less than n
+     * elements has no window, and the elements after the last full window are
+     * dropped. The elements of each window are evaluated when it is read, so the
+     * function may be used on infinite streams. Only the cells of a window are walked
+     * beforehand, to know if it is full, which evaluates no element of a mapped stream.
+     * @param n : The number of elements in a window.
+     * @param step : The number of elements between the starts of two windows.
+     * @return the stream of the windows.
+     */
+    public Stream<List<A>> sliding(int n, int step) {
+        if (n <= 0 || step <= 0) {
+            throw new IllegalArgumentException("window size and step must be positive: " + n + ", " + step);
+        }
+        return windows(this, n, step, false);
+    }
+
+    /**
+     * Splits this stream into groups of n consecutive elements. The last group holds
+     * the remaining elements, and may be shorter.
+     * @param n : The number of elements in a group.
+     * @return the stream of the groups.
+     */
+    public Stream<List<A>> grouped(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("group size must be positive: " + n);
+        }
+        return windows(this, n, n, true);
+    }
+
+    /**
+     * Walks the cells of the window starting at ss to know if there is a window, and
+     * reads its elements only when its head is read. The step elements to the next
+     * window are skipped only when the tail is read, so that no element is evaluated
+     * before its window.
+     */
+    private static <A> Stream<List<A>> windows(Stream<A> ss, int n, int step, boolean partial) {
+        return (partial ? ss : skip(ss, n - 1)).isEmpty()
+                ? empty()
+                : cons(() -> ss.take(n).toList(), () -> windows(skip(ss, step), n, step, partial));
+    }
+
+    /**
+     * Returns the stream given by the supplier, which the caller knows not to be
+     * empty, but evaluates it only when its head or its tail is read. The stream is
+     * evaluated once, and held by a cell of its own.
+     */
+    private static <A> Stream<A> suspend(Supplier<Stream<A>> s) {
+        final Stream<Stream<A>> stream = cons(s, empty());
+        return cons(() -> stream.head()._1.head()._1, () -> stream.head()._1.tail());
+    }
+
+    /**
+     * Same as drop, but returns an empty stream instead of failing when the stream has
+     * less than n elements.
+     */
+    private static <A> Stream<A> skip(Stream<A> ss, int n) {
+        var rest = ss;
+        for (int i = 0; i < n && !rest.isEmpty(); ++i) {
+            rest = rest.tail();
+        }
+        return rest;
+    }
+
+    /**
+     * Returns the aggregates of the windows of n consecutive elements of this stream,
+     * one per element from the nth one, such as a moving minimum or maximum. The
+     * operation must be associative, with identity as its identity, and is applied
+     * with the older elements on the left.
+     * The window is kept as a queue made of two stacks, holding partial aggregates, so
+     * each element costs O(1) applications of f amortized, instead of n for a fold
+     * over each window. The first window is evaluated when the stream is read, and
+     * each next element when the tail of the previous aggregate is read.
+     * @param n : The number of elements in a window.
+     * @param identity : The identity of the operation.
+     * @param f : The associative operation.
+     * @return the stream of the aggregates of the windows.
+     */
+    public Stream<A> windowAggregate(int n, A identity, Function<A, Function<A, A>> f) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("window size must be positive: " + n);
+        }
+        return skip(this, n - 1).isEmpty()
+                ? empty()
+                : suspend(() -> new TwoStackWindow<>(this, n, identity, f).next());
+    }
+
+    /**
+     * Same as windowAggregate, for an operation which has an inverse, such as a
+     * moving sum. The aggregate is updated by adding the element entering the window,
+     * and removing the element leaving it, so each element costs two applications.
+     * @param n : The number of elements in a window.
+     * @param identity : The identity of the operation.
+     * @param f : The associative operation.
+     * @param inverse : The function which takes an aggregate, and returns a function
+     *                removing the element leaving the window from it.
+     * @return the stream of the aggregates of the windows.
+     */
+    public Stream<A> windowAggregate(int n, A identity, Function<A, Function<A, A>> f,
+                                     Function<A, Function<A, A>> inverse) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("window size must be positive: " + n);
+        }
+        return skip(this, n - 1).isEmpty()
+                ? empty()
+                : suspend(() -> new InvertibleWindow<>(this, n, identity, f, inverse).next());
+    }
+
+    /**
+     * Sorts a stream which may not fit in memory. The elements are read in runs of at
+     * most memoryBudget elements, each of which is sorted in memory and written to a
+     * temporary file with the codec, and the resulting stream is a lazy merge of the
+     * runs, which reads each run file as the stream is read, and deletes it when it
+     * has been read to its end. A stream of at most memoryBudget elements is sorted in
+     * memory. The sort is stable.
+     * This function reads the whole stream before returning, so it does not terminate
+     * on infinite streams. As the cells of a stream are memoized, the elements only
+     * become garbage as they are read if nothing else refers to the head of this
+     * stream. SinglePassStream.sortedExternal does not have this restriction.
+     * @param comparator : The order of the elements.
+     * @param codec : The encoding of the elements in the run files.
+     * @param memoryBudget : The largest number of elements sorted in memory at once.
+     * @return the sorted stream.
+     * @throws IllegalStateException if the runs cannot be written. An error reading
+     * them back is thrown as an IllegalStateException when the sorted stream is read.
+     */
+    public Stream<A> sortedExternal(Comparator<? super A> comparator, Codec<A> codec, int memoryBudget) {
+        return sortedExternal(comparator, codec, memoryBudget, Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Same as sortedExternal, writing the runs to the given directory.
+     * @param comparator : The order of the elements.
+     * @param codec : The encoding of the elements in the run files.
+     * @param memoryBudget : The largest number of elements sorted in memory at once.
+     * @param directory : The directory in which the run files are created.
+     * @return the sorted stream.
+     */
+    public Stream<A> sortedExternal(Comparator<? super A> comparator, Codec<A> codec, int memoryBudget,
+                                    Path directory) {
+        return ExternalSort.sort(once().iterator(), comparator, codec, memoryBudget, directory);
+    }
+
+    /**
+     * Aggregates the elements of this stream by key, folding the elements of each key
+     * in the order of the stream, starting from zero. The aggregates are kept in a
+     * hash table, and the resulting stream holds one pair of a key and its aggregate
+     * per key, in the order in which the keys first appear.
+     * This function reads the whole stream before returning, so it does not terminate
+     * on infinite streams.
+     * @param keyFn : The function giving the key of an element.
+     * @param zero : The aggregate of a key before its first element.
+     * @param combiner : The function folding an element into the aggregate of its key.
+     * @param <K> : Type parameter of the keys.
+     * @param <B> : Type parameter of the aggregates.
+     * @return the stream of the keys with their aggregates.
+     */
+    public <K, B> Stream<Tuple<K, B>> aggregateBy(Function<A, K> keyFn, B zero, Function<B, Function<A, B>> combiner) {
+        return new HashAggregation<>(keyFn, zero, combiner, null, Integer.MAX_VALUE, null)
+                .aggregate(once().iterator());
+    }
+
+    /**
+     * Same as aggregateBy, holding at most maxKeys keys in memory at once. Once the
+     * table holds maxKeys keys, the elements of the other keys are written with the
+     * codec to temporary partition files, chosen by the hash of their key. The
+     * aggregates of the table come first in the resulting stream. Each partition is
+     * then aggregated the same way when the stream is read up to it, and its file is
+     * deleted once it has been read. The aggregates of the keys in the partitions are
+     * in no particular order.
+     * @param keyFn : The function giving the key of an element.
+     * @param zero : The aggregate of a key before its first element.
+     * @param combiner : The function folding an element into the aggregate of its key.
+     * @param codec : The encoding of the elements in the partition files.
+     * @param maxKeys : The largest number of keys aggregated in memory at once.
+     * @param <K> : Type parameter of the keys.
+     * @param <B> : Type parameter of the aggregates.
+     * @return the stream of the keys with their aggregates.
+     * @throws IllegalStateException if the partitions cannot be written. An error
+     * reading them back is thrown as an IllegalStateException when the resulting
+     * stream is read.
+     */
+    public <K, B> Stream<Tuple<K, B>> aggregateBy(Function<A, K> keyFn, B zero, Function<B, Function<A, B>> combiner,
+                                                  Codec<A> codec, int maxKeys) {
+        return aggregateBy(keyFn, zero, combiner, codec, maxKeys, Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Same as aggregateBy with a codec, writing the partitions to the given directory.
+     */
+    <K, B> Stream<Tuple<K, B>> aggregateBy(Function<A, K> keyFn, B zero, Function<B, Function<A, B>> combiner,
+                                           Codec<A> codec, int maxKeys, Path directory) {
+        return new HashAggregation<>(keyFn, zero, combiner, codec, maxKeys, directory)
+                .aggregate(once().iterator());
+    }
+
+    /**
+     * Same as aggregateBy with a codec, aggregating the partitions on the executor
+     * service, up to parallelism partitions at a time, which may then hold up to
+     * parallelism times maxKeys keys in memory.
+     * @param keyFn : The function giving the key of an element.
+     * @param zero : The aggregate of a key before its first element.
+     * @param combiner : The function folding an element into the aggregate of its key.
+     * @param codec : The encoding of the elements in the partition files.
+     * @param maxKeys : The largest number of keys aggregated in memory by a task.
+     * @param es : The executor service on which the partitions are aggregated.
+     * @param parallelism : The number of partitions aggregated at once.
+     * @param <K> : Type parameter of the keys.
+     * @param <B> : Type parameter of the aggregates.
+     * @return the stream of the keys with their aggregates.
+     */
+    public <K, B> Stream<Tuple<K, B>> aggregateBy(Function<A, K> keyFn, B zero, Function<B, Function<A, B>> combiner,
+                                                  Codec<A> codec, int maxKeys, ExecutorService es, int parallelism) {
+        return new HashAggregation<>(keyFn, zero, combiner, codec, maxKeys, Paths.get(System.getProperty("java.io.tmpdir")))
+                .aggregate(once().iterator(), es, Math.max(1, parallelism));
+    }
+
+    /**
+     * Pairs the elements of this stream with the elements of the other stream, up to
+     * the end of the shortest one. The elements are evaluated as the pairs are.
+     * @param that : The other stream.
+     * @param <B> : Type parameter of the elements of the other stream.
+     * @return the stream of the pairs of elements.
+     */
+    public <B> Stream<Tuple<A, B>> zip(Stream<B> that) {
+        return zipWith(this, that, a -> b -> Tuple.create(a, b));
+    }
+
+    /**
+     * This method combines the elements of two streams, up to the end of the shortest
+     * one, with the given function. The function is applied to a pair of elements only
+     * when the element of the resulting stream is evaluated, so the streams may be
+     * infinite.
+     * @param as : The stream of elements of type A.
+     * @param bs : The stream of elements of type B.
+     * @param f : A curried function that accepts arguments of a, b and produces c.
+     * @param <A> : Type parameter of elements in the first stream.
+     * @param <B> : Type parameter of elements in the second stream.
+     * @param <C> : Type parameter of elements in the result stream.
+     * @return the stream of the combined elements.
+     */
+    public static <A, B, C> Stream<C> zipWith(Stream<A> as, Stream<B> bs, Function<A, Function<B, C>> f) {
+        return as.isEmpty() || bs.isEmpty()
+                ? empty()
+                : cons(() -> f.apply(as.head()._1).apply(bs.head()._1), () -> zipWith(as.tail(), bs.tail(), f));
+    }
+
+    /**
+     * Alternates the elements of this stream and of the other stream, starting with this
+     * one. Once a stream ends, the rest of the other one follows.
+     * @param that : The other stream.
+     * @return the interleaved stream.
+     */
+    public Stream<A> interleave(Stream<A> that) {
+        return interleave(list(this, that));
+    }
+
+    /**
+     * Takes the elements of the streams in turn, one from each, skipping the streams
+     * which have ended, until all of them have. The streams may be infinite.
+     * @param streams : The streams to interleave.
+     * @param <A> : Type parameter of the elements.
+     * @return the interleaved stream.
+     */
+    public static <A> Stream<A> interleave(List<Stream<A>> streams) {
+        return new RoundRobin<>(streams).next();
+    }
+
+    /**
+     * Merges lazily streams which are each sorted into a single sorted stream. The
+     * next element of each stream is kept in a heap, so each element costs O(log k)
+     * comparisons for k streams, and a stream is only read past an element when that
+     * element has been taken. The merge is stable: equal elements are taken in the
+     * order of their streams in the list.
+     * @param streams : The sorted streams.
+     * @param comparator : The order of the elements.
+     * @param <A> : Type parameter of the elements.
+     * @return the sorted stream of the elements of all the streams.
+     */
+    public static <A> Stream<A> mergeSorted(List<Stream<A>> streams, Comparator<? super A> comparator) {
+        return new SortedMerge<>(streams, comparator).next();
     }
 
     /**
@@ -298,7 +686,7 @@ public abstract class Stream<A> {
      * @return the stream of elements of type A.
      */
     public static <A, S> Stream<A> unfold(S z, Function<S, Result<Tuple<A, S>>> f) {
-        return f.apply(z).map(r -> Stream.cons(() -> r._1, () -> unfold(r._2, f))).getOrElse(empty());
+        return f.apply(z).<Stream<A>>map(r -> new Cons<>(r._1, () -> unfold(r._2, f))).getOrElse(empty());
     }
 
     private Stream() {}
@@ -324,41 +712,86 @@ public abstract class Stream<A> {
             return this;
         }
 
+        @Override
+        public Stream<A> takeWhile(Function<A, Boolean> p) {
+            return this;
+        }
+
+        @Override
+        public <B> Stream<B> map(Function<A, B> f) {
+            return empty();
+        }
+
+        @Override
+        public Stream<A> append(Supplier<Stream<A>> that) {
+            return that.get();
+        }
+
         @Override
         public <B> B foldRight(Supplier<B> identity, Function<A, Function<Supplier<B>, B>> f) {
             return identity.get();
         }
     }
 
+    /**
+     * A non-empty stream. The head and the tail are evaluated at most once, even when
+     * the stream is shared between threads, using double-checked locking:
+     * -> The suppliers are held in volatile fields, and are set to null once they
+     * have been evaluated, which also releases whatever they captured.
+     * -> The evaluated values are written before the volatile write of null, so a
+     * thread reading a null supplier also sees the value.
+     * -> A thread finding a supplier still set takes the lock of the cell, and checks
+     * again before evaluating it, so that concurrent readers wait for the first
+     * evaluation instead of repeating it.
+     * Once evaluated, reading the head or the tail costs a single volatile read.
+     */
     private static class Cons<A> extends Stream<A> {
-        private final Supplier<A> head;
-        private Result<A> h;
-        private final Supplier<Stream<A>> tail;
+        private volatile Supplier<A> head;
+        private A h;
+        private volatile Supplier<Stream<A>> tail;
         private Stream<A> t;
 
         private Cons(Supplier<A> h, Supplier<Stream<A>> t) {
             head = h;
             tail = t;
-            this.h = Result.empty();
         }
 
+        /**
+         * Creates a cell whose head is already evaluated, so reading it never locks.
+         */
         private Cons(A h, Supplier<Stream<A>> t) {
-            head = () -> h;
+            this.h = h;
             tail = t;
-            this.h = Result.success(h);
+        }
+
+        private A evaluateHead() {
+            if (head != null) {
+                synchronized (this) {
+                    final var supplier = head;
+                    if (supplier != null) {
+                        h = supplier.get();
+                        head = null;
+                    }
+                }
+            }
+            return h;
         }
 
         @Override
         public Tuple<A, Stream<A>> head() {
-            A a = h.getOrElse(head.get());
-
-            return h.isEmpty() ? Tuple.create(a, new Cons<>(a, tail)) : Tuple.create(a, this);
+            return Tuple.create(evaluateHead(), this);
         }
 
         @Override
         public Stream<A> tail() {
-            if (t == null) {
-                t = tail.get();
+            if (tail != null) {
+                synchronized (this) {
+                    final var supplier = tail;
+                    if (supplier != null) {
+                        t = supplier.get();
+                        tail = null;
+                    }
+                }
             }
             return t;
         }
@@ -370,17 +803,474 @@ public abstract class Stream<A> {
 
         @Override
         public Stream<A> take(int n) {
-            return n <= 0 ? empty() : cons(head, () -> tail().take(n - 1));
+            if (n <= 0) {
+                return empty();
+            }
+            //The last cell must not evaluate the tail, which may not terminate.
+            final Supplier<Stream<A>> rest = n == 1 ? Stream::empty : () -> tail().take(n - 1);
+            return head == null ? new Cons<>(h, rest) : cons(this::evaluateHead, rest);
+        }
+
+        @Override
+        public Stream<A> takeWhile(Function<A, Boolean> p) {
+            final var a = evaluateHead();
+            return p.apply(a) ? new Cons<>(a, () -> tail().takeWhile(p)) : empty();
+        }
+
+        @Override
+        public <B> Stream<B> map(Function<A, B> f) {
+            return cons(() -> f.apply(evaluateHead()), () -> tail().map(f));
+        }
+
+        @Override
+        public Stream<A> append(Supplier<Stream<A>> that) {
+            final Supplier<Stream<A>> rest = () -> tail().append(that);
+            return head == null ? new Cons<>(h, rest) : cons(this::evaluateHead, rest);
         }
 
         @Override
         public <B> B foldRight(Supplier<B> identity, Function<A, Function<Supplier<B>, B>> f) {
-            //Its really a challenge to implement a stack safe version of foldRight,
-            //or its next to impossible.
+            //The recursion happens in the supplier, so it only nests when f
+            //evaluates it right away.
             return f.apply(head()._1).apply(() -> tail().foldRight(identity, f));
         }
     }
 
+    /**
+     * Finds lazily every occurrence of the patterns of the matcher in this stream.
+     * The stream is read only as far as needed to produce the requested matches, so
+     * the function may be used on infinite streams.
+     * @param matcher : The matcher holding the patterns to look for.
+     * @return the stream of the matches, each one being the position at which a
+     * pattern starts, with the pattern.
+     */
+    public Stream<Tuple<Integer, List<A>>> findAll(AhoCorasick<A> matcher) {
+        return unfold(new Scan<>(this, matcher.start(), 0, list()), Scan::next);
+    }
+
+    /**
+     * Returns the position of the first occurrence of the sublist in this stream.
+     * Each element of the stream is read only once, so the search runs in O(n + m)
+     * time. On an infinite stream which does not contain the sublist, this function
+     * runs forever.
+     * @param sub : The sublist to search for.
+     * @return the Result holding the position of the first occurrence of the sublist,
+     * or an empty Result if the stream does not contain it.
+     */
+    public Result<Integer> indexOfSlice(List<A> sub) {
+        return sub.isEmpty()
+                ? success(0)
+                : findAll(AhoCorasick.of(list(sub))).headOption().map(t -> t._1);
+    }
+
+    /**
+     * The state of findAll: the rest of the stream, the position of the matcher, and
+     * the matches ending at the last element read which are still to be produced.
+     */
+    private static final class Scan<A> {
+        private final Stream<A> rest;
+        private final AhoCorasick.Cursor<A> cursor;
+        private final int position;
+        private final List<List<A>> pending;
+
+        private Scan(Stream<A> rest, AhoCorasick.Cursor<A> cursor, int position, List<List<A>> pending) {
+            this.rest = rest;
+            this.cursor = cursor;
+            this.position = position;
+            this.pending = pending;
+        }
+
+        private Result<Tuple<Tuple<Integer, List<A>>, Scan<A>>> next() {
+            var scan = this;
+            while (scan.pending.isEmpty()) {
+                if (scan.rest.isEmpty()) {
+                    return Result.empty();
+                }
+                final var head = scan.rest.head();
+                final var next = scan.cursor.next(head._1);
+                scan = new Scan<>(head._2.tail(), next, scan.position + 1, next.matches());
+            }
+
+            final var pattern = scan.pending.head();
+            return success(Tuple.create(Tuple.create(scan.position - pattern.length(), pattern),
+                    new Scan<>(scan.rest, scan.cursor, scan.position, scan.pending.tail())));
+        }
+    }
+
+    /**
+     * The window of mapAsync: the elements submitted and not yet read, in order, and
+     * the rest of the stream. It is updated by next, which is called once per element
+     * from the tail of the previous one, and by cancel, when the head of a cell
+     * throws. A head may be read on another thread than the tail, so both are
+     * synchronized.
+     */
+    private static final class Prefetch<A, B> {
+        private final ExecutorService es;
+        private final int parallelism;
+        private final Function<A, B> f;
+        private final ArrayDeque<Future<B>> window = new ArrayDeque<>();
+        private Stream<A> rest;
+
+        private Prefetch(Stream<A> rest, ExecutorService es, int parallelism, Function<A, B> f) {
+            this.rest = rest;
+            this.es = es;
+            this.parallelism = parallelism;
+            this.f = f;
+        }
+
+        private Stream<B> next() {
+            final Future<B> future;
+            synchronized (this) {
+                while (window.size() < parallelism && !rest.isEmpty()) {
+                    final var a = rest.head()._1;
+                    window.add(es.submit(() -> f.apply(a)));
+                    rest = rest.tail();
+                }
+                future = window.poll();
+            }
+            return future == null ? empty() : cons(() -> get(future), this::next);
+        }
+
+        private B get(Future<B> future) {
+            try {
+                return await(future);
+            } catch (RuntimeException | Error e) {
+                cancel();
+                throw e;
+            }
+        }
+
+        private synchronized void cancel() {
+            window.forEach(future -> future.cancel(true));
+            window.clear();
+            rest = empty();
+        }
+    }
+
+    /**
+     * The window of mapAsyncUnordered: the number of elements submitted and not yet
+     * assigned to a cell of the resulting stream. Each cell is created with the next
+     * completed result, so the tail of a cell waits for a result even if its head is
+     * never read, and no more than parallelism results are ever submitted or buffered.
+     * The pending futures are kept so that cancel, called when the head of a cell
+     * throws, can cancel them. As in Prefetch, next and cancel are synchronized.
+     */
+    private static final class UnorderedPrefetch<A, B> {
+        private final ExecutorCompletionService<B> completions;
+        private final int parallelism;
+        private final Function<A, B> f;
+        private final Set<Future<B>> pending = new HashSet<>();
+        private Stream<A> rest;
+
+        private UnorderedPrefetch(Stream<A> rest, ExecutorService es, int parallelism, Function<A, B> f) {
+            this.rest = rest;
+            this.completions = new ExecutorCompletionService<>(es);
+            this.parallelism = parallelism;
+            this.f = f;
+        }
+
+        private Stream<B> next() {
+            final Future<B> future;
+            synchronized (this) {
+                while (pending.size() < parallelism && !rest.isEmpty()) {
+                    final var a = rest.head()._1;
+                    pending.add(completions.submit(() -> f.apply(a)));
+                    rest = rest.tail();
+                }
+
+                if (pending.isEmpty()) {
+                    return empty();
+                }
+                future = take();
+                pending.remove(future);
+            }
+            return cons(() -> get(future), this::next);
+        }
+
+        private B get(Future<B> future) {
+            try {
+                return await(future);
+            } catch (RuntimeException | Error e) {
+                cancel();
+                throw e;
+            }
+        }
+
+        private synchronized void cancel() {
+            pending.forEach(future -> future.cancel(true));
+            pending.clear();
+            rest = empty();
+        }
+
+        private Future<B> take() {
+            try {
+                return completions.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * The window of windowAggregate, as a queue made of two stacks. The elements enter
+     * the back stack, which keeps the aggregate of its elements. The oldest elements
+     * leave from the front stack, which keeps for each element the aggregate of this
+     * element and of the newer ones in the front stack. When the front stack is empty,
+     * the back stack is moved to it, which costs one application of f per element.
+     * It is only updated by next, once per element, from the tail of the previous one.
+     */
+    private static final class TwoStackWindow<A> {
+        private final int n;
+        private final A identity;
+        private final Function<A, Function<A, A>> f;
+        private final ArrayDeque<A> back = new ArrayDeque<>();
+        private final ArrayDeque<A> front = new ArrayDeque<>();
+        private A backAggregate;
+        private Stream<A> rest;
+
+        private TwoStackWindow(Stream<A> rest, int n, A identity, Function<A, Function<A, A>> f) {
+            this.rest = rest;
+            this.n = n;
+            this.identity = identity;
+            this.f = f;
+            this.backAggregate = identity;
+        }
+
+        private Stream<A> next() {
+            while (front.size() + back.size() < n) {
+                if (rest.isEmpty()) {
+                    return empty();
+                }
+                final var a = rest.head()._1;
+                back.push(a);
+                backAggregate = f.apply(backAggregate).apply(a);
+                rest = rest.tail();
+            }
+
+            final var frontAggregate = front.isEmpty() ? identity : front.peek();
+            final var aggregate = f.apply(frontAggregate).apply(backAggregate);
+            evict();
+            return new Cons<>(aggregate, this::next);
+        }
+
+        private void evict() {
+            if (front.isEmpty()) {
+                var aggregate = identity;
+                while (!back.isEmpty()) {
+                    aggregate = f.apply(back.pop()).apply(aggregate);
+                    front.push(aggregate);
+                }
+                backAggregate = identity;
+            }
+            front.pop();
+        }
+    }
+
+    /**
+     * The window of windowAggregate for an invertible operation: the elements of the
+     * window, oldest first, and their aggregate.
+     */
+    private static final class InvertibleWindow<A> {
+        private final int n;
+        private final Function<A, Function<A, A>> f;
+        private final Function<A, Function<A, A>> inverse;
+        private final ArrayDeque<A> window = new ArrayDeque<>();
+        private A aggregate;
+        private Stream<A> rest;
+
+        private InvertibleWindow(Stream<A> rest, int n, A identity, Function<A, Function<A, A>> f,
+                                 Function<A, Function<A, A>> inverse) {
+            this.rest = rest;
+            this.n = n;
+            this.f = f;
+            this.inverse = inverse;
+            this.aggregate = identity;
+        }
+
+        private Stream<A> next() {
+            while (window.size() < n) {
+                if (rest.isEmpty()) {
+                    return empty();
+                }
+                final var a = rest.head()._1;
+                window.add(a);
+                aggregate = f.apply(aggregate).apply(a);
+                rest = rest.tail();
+            }
+
+            final var result = aggregate;
+            aggregate = inverse.apply(aggregate).apply(window.poll());
+            return new Cons<>(result, this::next);
+        }
+    }
+
+    /**
+     * The state of interleave: the streams in the order of their turns, and the stream
+     * whose head was taken last, which goes back to the end of the queue, as its tail,
+     * when the next element is read. It is only updated by next.
+     */
+    private static final class RoundRobin<A> {
+        private final ArrayDeque<Stream<A>> queue = new ArrayDeque<>();
+        private Stream<A> taken;
+
+        private RoundRobin(List<Stream<A>> streams) {
+            streams.forEach(queue::add);
+        }
+
+        private Stream<A> next() {
+            if (taken != null) {
+                queue.add(taken.tail());
+                taken = null;
+            }
+            while (!queue.isEmpty()) {
+                final var ss = queue.poll();
+                if (!ss.isEmpty()) {
+                    taken = ss;
+                    return cons(() -> ss.head()._1, this::next);
+                }
+            }
+            return empty();
+        }
+    }
+
+    /**
+     * The state of mergeSorted: a heap of the streams which have not ended, ordered by
+     * their head, then by their position in the list, and the stream whose head was
+     * taken last, which goes back to the heap, as its tail, when the next element is
+     * read.
+     */
+    private static final class SortedMerge<A> {
+        private final PriorityQueue<Tuple<Stream<A>, Integer>> heap;
+        private Tuple<Stream<A>, Integer> taken;
+
+        private SortedMerge(List<Stream<A>> streams, Comparator<? super A> comparator) {
+            final Comparator<Tuple<Stream<A>, Integer>> byHead = (x, y) -> comparator.compare(x._1.head()._1, y._1.head()._1);
+            this.heap = new PriorityQueue<>(Math.max(1, streams.length()), byHead.thenComparing(t -> t._2));
+            streams.zipWithPosition().forEach(t -> {
+                if (!t._1.isEmpty()) {
+                    heap.add(t);
+                }
+            });
+        }
+
+        private Stream<A> next() {
+            if (taken != null) {
+                final var rest = taken._1.tail();
+                if (!rest.isEmpty()) {
+                    heap.add(Tuple.create(rest, taken._2));
+                }
+                taken = null;
+            }
+            taken = heap.poll();
+            return taken == null ? empty() : new Cons<>(taken._1.head()._1, this::next);
+        }
+    }
+
+    /**
+     * Waits for the result of a future, throwing again the unchecked exception which
+     * failed it, if any.
+     */
+    private static <B> B await(Future<B> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns a spliterator over the elements of this stream. The elements are
+     * evaluated as they are consumed, so the spliterator may be used on infinite
+     * streams. The size of the stream is not known, so the spliterator is only
+     * ORDERED, and a parallel java.util.stream.Stream splits it by copying batches
+     * of elements into arrays.
+     * @return the spliterator over the elements of this stream.
+     */
+    public Spliterator<A> spliterator() {
+        return new StreamSpliterator<>(this);
+    }
+
+    /**
+     * Returns a single pass stream over the elements of this stream. As it only refers
+     * to the cell to be read next, the cells already read can be collected, so its
+     * terminal operations run in constant memory, provided that the caller does not
+     * itself keep a reference to this stream, as in Stream.from(0).once().
+     * @return the single pass stream of the elements of this stream.
+     */
+    public SinglePassStream<A> once() {
+        return SinglePassStream.of(this);
+    }
+
+    /**
+     * Returns a publisher of the elements of this stream, which evaluates them only as
+     * its subscribers request them.
+     * @param executor : The executor on which the signals are sent to the subscribers.
+     * @return the publisher of the elements of this stream.
+     */
+    public Flow.Publisher<A> publisher(Executor executor) {
+        return StreamPublisher.of(this, executor);
+    }
+
+    /**
+     * Subscribes to a publisher, and returns the stream of the elements it sends. The
+     * elements are requested as the stream is read, so at most bufferSize elements
+     * are received ahead of the reader. Reading an element not yet received blocks
+     * until the publisher sends it, and so does this function, for the first element.
+     * @param publisher : The publisher of the elements.
+     * @param bufferSize : The number of elements which may be received ahead.
+     * @param <A> : Type parameter of the elements.
+     * @return the stream of the elements sent by the publisher.
+     */
+    public static <A> Stream<A> fromPublisher(Flow.Publisher<? extends A> publisher, int bufferSize) {
+        return StreamSubscriber.<A>subscribe(publisher, bufferSize).stream();
+    }
+
+    /**
+     * @return a sequential java.util.stream.Stream of the elements of this stream.
+     */
+    public java.util.stream.Stream<A> javaStream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @return a parallel java.util.stream.Stream of the elements of this stream,
+     * which runs on the common ForkJoinPool.
+     */
+    public java.util.stream.Stream<A> parallelJavaStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    private static class StreamSpliterator<A> extends Spliterators.AbstractSpliterator<A> {
+        private Stream<A> current;
+
+        private StreamSpliterator(Stream<A> current) {
+            super(Long.MAX_VALUE, ORDERED);
+            this.current = current;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super A> action) {
+            if (current.isEmpty()) {
+                return false;
+            }
+
+            final var head = current.head();
+            action.accept(head._1);
+            current = head._2.tail();
+            return true;
+        }
+    }
+
     /**
      * A convenience method to prepend an element to an existing stream, and return
      * a new stream.
@@ -0,0 +1,179 @@
+package com.lazy;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Flow.Publisher of the elements of a Stream. The elements are only evaluated as
+ * the subscribers request them:
+ * -> Each subscription reads the stream from its head, and evaluates the head of a
+ * cell only when a subscriber has requested an element. The tail of the last
+ * element sent is evaluated as well, so that the end of the stream is signalled
+ * without waiting for more demand.
+ * -> The signals of a subscription are sent by a single task at a time, running on
+ * the executor, so they never overlap, and a subscriber may call request from
+ * onNext without growing the stack.
+ * -> An exception thrown while evaluating an element is sent to onError, and ends
+ * the subscription.
+ * As the publisher holds the head of the stream, the elements evaluated by one
+ * subscription are memoized for the others, and are kept as long as the publisher.
+ * @param <A> : Type parameter of the elements.
+ */
+public final class StreamPublisher<A> implements Flow.Publisher<A> {
+    private final Stream<A> stream;
+    private final Executor executor;
+
+    private StreamPublisher(Stream<A> stream, Executor executor) {
+        this.stream = stream;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super A> subscriber) {
+        Objects.requireNonNull(subscriber);
+        new StreamSubscription<>(stream, subscriber, executor).start();
+    }
+
+    private static final class StreamSubscription<A> implements Flow.Subscription {
+        private final Flow.Subscriber<? super A> subscriber;
+        private final Executor executor;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger work = new AtomicInteger(1);
+        private volatile boolean cancelled;
+        //Positive as long as no invalid request was made.
+        private volatile long invalidRequest = 1;
+        private Stream<A> rest;
+
+        private StreamSubscription(Stream<A> stream, Flow.Subscriber<? super A> subscriber, Executor executor) {
+            this.rest = stream;
+            this.subscriber = subscriber;
+            this.executor = executor;
+        }
+
+        /**
+         * Sends onSubscribe from the drain task, so that the elements requested from
+         * onSubscribe are only sent once it has returned.
+         */
+        private void start() {
+            executor.execute(() -> {
+                subscriber.onSubscribe(this);
+                drain();
+            });
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = n;
+            } else {
+                demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void schedule() {
+            if (work.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Sends the elements requested, and loops as long as new requests came in
+         * meanwhile. Only one drain runs at a time, the one which incremented work
+         * from zero.
+         */
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!cancelled && invalidRequest <= 0) {
+                    cancelled = true;
+                    subscriber.onError(new IllegalArgumentException(
+                            "non-positive subscription request: " + invalidRequest));
+                }
+
+                long sent = 0;
+                final long requested = demand.get();
+                while (!cancelled && sent != requested) {
+                    if (!emit()) {
+                        break;
+                    }
+                    ++sent;
+                }
+                if (sent != 0 && requested != Long.MAX_VALUE) {
+                    demand.addAndGet(-sent);
+                }
+                if (!cancelled && sent == requested) {
+                    checkEnd();
+                }
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * @return true if an element was sent, false if the subscription ended.
+         */
+        private boolean emit() {
+            final A a;
+            try {
+                if (rest.isEmpty()) {
+                    complete();
+                    return false;
+                }
+                a = rest.head()._1;
+                rest = rest.tail();
+            } catch (RuntimeException e) {
+                cancelled = true;
+                subscriber.onError(e);
+                return false;
+            }
+            subscriber.onNext(a);
+            return true;
+        }
+
+        private void checkEnd() {
+            try {
+                if (rest.isEmpty()) {
+                    complete();
+                }
+            } catch (RuntimeException e) {
+                cancelled = true;
+                subscriber.onError(e);
+            }
+        }
+
+        private void complete() {
+            cancelled = true;
+            rest = Stream.empty();
+            subscriber.onComplete();
+        }
+    }
+
+    /**
+     * @param stream : The stream to be published.
+     * @param executor : The executor on which the signals are sent.
+     * @param <A> : Type parameter of the elements.
+     * @return the publisher of the elements of the stream.
+     */
+    public static <A> StreamPublisher<A> of(Stream<A> stream, Executor executor) {
+        return new StreamPublisher<>(stream, executor);
+    }
+
+    /**
+     * Same as of, but sends the signals on the common ForkJoinPool.
+     * @param stream : The stream to be published.
+     * @param <A> : Type parameter of the elements.
+     * @return the publisher of the elements of the stream.
+     */
+    public static <A> StreamPublisher<A> of(Stream<A> stream) {
+        return of(stream, ForkJoinPool.commonPool());
+    }
+}
@@ -0,0 +1,175 @@
+package com.lazy;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+
+/**
+ * A Flow.Subscriber exposing the elements it receives as a Stream, which is read by
+ * pulling them from a bounded buffer:
+ * -> The subscriber requests as many elements as the buffer holds when it is
+ * subscribed, and requests more only as the elements are read from the stream, so
+ * the buffer never holds more than bufferSize elements, whatever the speed of the
+ * publisher.
+ * -> Reading a cell of the stream which has not been received yet blocks until the
+ * publisher sends it, or ends.
+ * -> An error sent by the publisher is thrown when the stream is read past the last
+ * element received, wrapped in an IllegalStateException if it is checked.
+ * The elements read are memoized by the stream as usual, so a consumer wanting a
+ * constant memory should read it with once().
+ * @param <A> : Type parameter of the elements.
+ */
+public final class StreamSubscriber<A> implements Flow.Subscriber<A> {
+    private static final Object COMPLETE = new Object();
+
+    private final BlockingQueue<Object> buffer;
+    private final int limit;
+    private volatile Flow.Subscription subscription;
+    private int consumed;
+    private Stream<A> stream;
+
+    private StreamSubscriber(int bufferSize) {
+        //One more slot for the terminal signal, which is not requested.
+        this.buffer = new ArrayBlockingQueue<>(bufferSize + 1);
+        this.limit = Math.max(1, bufferSize / 2);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription);
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(buffer.remainingCapacity() - 1);
+    }
+
+    @Override
+    public void onNext(A item) {
+        Objects.requireNonNull(item);
+        if (!buffer.offer(item)) {
+            subscription.cancel();
+            buffer.clear();
+            buffer.offer(new Failure(new IllegalStateException("publisher sent more elements than requested")));
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable);
+        buffer.offer(new Failure(throwable));
+    }
+
+    @Override
+    public void onComplete() {
+        buffer.offer(COMPLETE);
+    }
+
+    /**
+     * Cancels the subscription, when the stream is not to be read any further. The
+     * cells already received can still be read.
+     */
+    public void cancel() {
+        final var s = subscription;
+        if (s != null) {
+            s.cancel();
+        }
+    }
+
+    /**
+     * Returns the stream of the elements received. The stream is created on the first
+     * call, which blocks until the first element is received, or the publisher ends.
+     * The next calls return the same stream.
+     * @return the stream of the elements sent by the publisher.
+     */
+    public synchronized Stream<A> stream() {
+        if (stream == null) {
+            stream = next();
+        }
+        return stream;
+    }
+
+    /**
+     * Takes the next signal from the buffer. It is only called by stream and by the
+     * tail of the last cell, which are evaluated once each and in order, so the
+     * count of elements read is only updated by one thread at a time.
+     */
+    @SuppressWarnings("unchecked")
+    private Stream<A> next() {
+        final var signal = take();
+        if (signal == COMPLETE) {
+            buffer.offer(COMPLETE);
+            return Stream.empty();
+        }
+        if (signal instanceof Failure) {
+            buffer.offer(signal);
+            return ((Failure) signal).rethrow();
+        }
+        if (++consumed == limit) {
+            consumed = 0;
+            subscription.request(limit);
+        }
+        final var a = (A) signal;
+        return Stream.cons(() -> a, this::next);
+    }
+
+    private Object take() {
+        try {
+            return buffer.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The error sent by the publisher, kept in the buffer behind the elements received
+     * before it.
+     */
+    private static final class Failure {
+        private final Throwable cause;
+
+        private Failure(Throwable cause) {
+            this.cause = cause;
+        }
+
+        private <B> B rethrow() {
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * @param bufferSize : The number of elements received and not yet read that the
+     *                   subscriber may hold.
+     * @param <A> : Type parameter of the elements.
+     * @return a subscriber which is not yet subscribed.
+     */
+    public static <A> StreamSubscriber<A> of(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        return new StreamSubscriber<>(bufferSize);
+    }
+
+    /**
+     * Subscribes a new subscriber to the publisher.
+     * @param publisher : The publisher of the elements.
+     * @param bufferSize : The number of elements received and not yet read that the
+     *                   subscriber may hold.
+     * @param <A> : Type parameter of the elements.
+     * @return the subscriber, whose stream holds the elements sent by the publisher.
+     */
+    public static <A> StreamSubscriber<A> subscribe(Flow.Publisher<? extends A> publisher, int bufferSize) {
+        final StreamSubscriber<A> subscriber = of(bufferSize);
+        publisher.subscribe(subscriber);
+        return subscriber;
+    }
+}
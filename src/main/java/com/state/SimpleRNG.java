@@ -3,6 +3,8 @@ package com.state;
 import java.util.Random;
 
 import com.functional.Function;
+import com.util.DoubleList;
+import com.util.IntList;
 import com.util.List;
 import com.functional.TailCall;
 import com.functional.Tuple;
@@ -23,11 +25,19 @@ public class SimpleRNG {
 
         @Override
         public Tuple<Integer, RNG> nextInt() {
-            final long newSeed = (seed * 0x5DEECE66DL + 0xBL) & 0xFFFFFFFFFFFFL;
+            final long newSeed = nextSeed(seed);
             final RNG nextRNG = new Simple(newSeed);
-            final int  n = (int) (newSeed >>> 16);
+            final int  n = value(newSeed);
             return Tuple.create(n, nextRNG);
         }
+
+        private static long nextSeed(long seed) {
+            return (seed * 0x5DEECE66DL + 0xBL) & 0xFFFFFFFFFFFFL;
+        }
+
+        private static int value(long seed) {
+            return (int) (seed >>> 16);
+        }
     }
 
     public static int rollDie(Random rng) {
@@ -134,6 +144,55 @@ public class SimpleRNG {
         return TailCall.sus(() -> doubles(count - 1, t1._2, xs.cons(t1._1)));
     }
 
+    /*
+     * Same as ints2, but the values are held unboxed in an IntList. The output
+     * list is in reverse order too. With a Simple RNG, the values are computed
+     * from the seed without creating a Tuple and an RNG for each of them.
+     */
+    public static Tuple<IntList, RNG> intList(int count, RNG rng) {
+        IntList xs = IntList.list();
+        if (rng instanceof Simple) {
+            long seed = ((Simple) rng).seed;
+            for (int i = 0; i < count; ++i) {
+                seed = Simple.nextSeed(seed);
+                xs = xs.cons(Simple.value(seed));
+            }
+            return Tuple.create(xs, new Simple(seed));
+        }
+        RNG next = rng;
+        for (int i = 0; i < count; ++i) {
+            Tuple<Integer, RNG> t = next.nextInt();
+            xs = xs.cons(t._1);
+            next = t._2;
+        }
+        return Tuple.create(xs, next);
+    }
+
+    /*
+     * Same as doubles, but the values are held unboxed in a DoubleList. The
+     * output list is in reverse order too, and the values are computed from the
+     * seed as in intList.
+     */
+    public static Tuple<DoubleList, RNG> doubleList(int count, RNG rng) {
+        DoubleList xs = DoubleList.list();
+        if (rng instanceof Simple) {
+            long seed = ((Simple) rng).seed;
+            for (int i = 0; i < count; ++i) {
+                seed = Simple.nextSeed(seed);
+                final int n = Simple.value(seed);
+                xs = xs.cons((n < 0 ? -(n + 1) : n) / ((double) Integer.MAX_VALUE + 1));
+            }
+            return Tuple.create(xs, new Simple(seed));
+        }
+        RNG next = rng;
+        for (int i = 0; i < count; ++i) {
+            Tuple<Double, RNG> t = doubleRnd(next);
+            xs = xs.cons(t._1);
+            next = t._2;
+        }
+        return Tuple.create(xs, next);
+    }
+
     public static Rand<Integer> intRnd = RNG::nextInt;
 
     public static <A> Rand<A> unit(A a) {
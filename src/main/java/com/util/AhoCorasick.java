@@ -0,0 +1,167 @@
+package com.util;
+
+import com.functional.Tuple;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * A matcher finding every occurrence of a set of patterns in a sequence, in a
+ * single pass, as described by Alfred Aho and Margaret Corasick in "Efficient
+ * string matching: an aid to bibliographic search".
+ * -> The patterns are stored in a trie, whose states are the prefixes of the
+ * patterns.
+ * -> Each state has a failure link to the state of its longest proper suffix
+ * which is also a prefix of a pattern. When the next element has no transition,
+ * the matcher follows the failure links instead of going back in the sequence.
+ * -> Each state holds the patterns ending at it, including the ones ending at the
+ * states reachable through its failure links.
+ * Scanning a sequence of n elements therefore takes O(n + k) time, k being the
+ * number of matches, whatever the number of patterns. The matcher is immutable,
+ * and can be shared between threads. Empty patterns are ignored.
+ * @param <A> : Type parameter of the elements.
+ */
+public final class AhoCorasick<A> {
+    private final ArrayList<HashMap<A, Integer>> transitions = new ArrayList<>();
+    private final ArrayList<Integer> failures = new ArrayList<>();
+    private final ArrayList<List<List<A>>> outputs = new ArrayList<>();
+
+    private AhoCorasick(List<List<A>> patterns) {
+        newState();
+        patterns.forEach(this::addPattern);
+        linkFailures();
+    }
+
+    private int newState() {
+        transitions.add(new HashMap<>());
+        failures.add(0);
+        outputs.add(List.list());
+        return transitions.size() - 1;
+    }
+
+    private void addPattern(List<A> pattern) {
+        if (pattern.isEmpty()) {
+            return;
+        }
+
+        int state = 0;
+        for (var ls = pattern; !ls.isEmpty(); ls = ls.tail()) {
+            final var next = transitions.get(state).get(ls.head());
+            state = next != null ? next : addTransition(state, ls.head());
+        }
+        if (outputs.get(state).isEmpty()) {
+            outputs.set(state, List.list(pattern));
+        }
+    }
+
+    private int addTransition(int state, A a) {
+        final int next = newState();
+        transitions.get(state).put(a, next);
+        return next;
+    }
+
+    /**
+     * Computes the failure links breadth first, so that the link of each state
+     * points to a state already linked.
+     */
+    private void linkFailures() {
+        final var queue = new ArrayDeque<Integer>(transitions.get(0).values());
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            for (var entry : transitions.get(state).entrySet()) {
+                final int child = entry.getValue();
+                final int failure = state == 0 ? 0 : next(failures.get(state), entry.getKey());
+                failures.set(child, failure);
+                outputs.set(child, List.concat(outputs.get(child), outputs.get(failure)));
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * @return the state reached from the given one with the element.
+     */
+    private int next(int state, A a) {
+        while (true) {
+            final var next = transitions.get(state).get(a);
+            if (next != null) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failures.get(state);
+        }
+    }
+
+    /**
+     * Finds every occurrence of the patterns in the list, in one pass.
+     * @param ls : The list to be scanned.
+     * @return the list of the matches, each one being the position at which a
+     * pattern starts, with the pattern. The matches are sorted by their end
+     * position, and the longest one comes first for matches ending at the same
+     * position.
+     */
+    public List<Tuple<Integer, List<A>>> findAll(List<A> ls) {
+        final var builder = List.<Tuple<Integer, List<A>>>builder();
+        int state = 0;
+        int position = 0;
+        for (; !ls.isEmpty(); ls = ls.tail()) {
+            state = next(state, ls.head());
+            ++position;
+            for (var ps = outputs.get(state); !ps.isEmpty(); ps = ps.tail()) {
+                builder.add(Tuple.create(position - ps.head().length(), ps.head()));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the cursor at the start of a sequence, to scan a sequence one element
+     * at a time.
+     */
+    public Cursor<A> start() {
+        return new Cursor<>(this, 0);
+    }
+
+    /**
+     * An immutable position of the matcher in a sequence. It is meant to scan the
+     * sequences which are not held in a List, such as lazy streams.
+     * @param <A> : Type parameter of the elements.
+     */
+    public static final class Cursor<A> {
+        private final AhoCorasick<A> matcher;
+        private final int state;
+
+        private Cursor(AhoCorasick<A> matcher, int state) {
+            this.matcher = matcher;
+            this.state = state;
+        }
+
+        /**
+         * @param a : The next element of the sequence.
+         * @return the cursor after the element.
+         */
+        public Cursor<A> next(A a) {
+            return new Cursor<>(matcher, matcher.next(state, a));
+        }
+
+        /**
+         * @return the patterns ending at the last element read, the longest first.
+         */
+        public List<List<A>> matches() {
+            return matcher.outputs.get(state);
+        }
+    }
+
+    /**
+     * Builds the matcher for a set of patterns.
+     * @param patterns : The patterns to look for.
+     * @param <A> : Type parameter of the elements.
+     * @return the matcher of the patterns.
+     */
+    public static <A> AhoCorasick<A> of(List<List<A>> patterns) {
+        return new AhoCorasick<>(patterns);
+    }
+}
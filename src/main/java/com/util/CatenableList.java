@@ -0,0 +1,479 @@
+package com.util;
+
+import com.functional.Effect;
+import com.functional.Function;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static com.util.List.list;
+import static com.util.Result.failure;
+import static com.util.Result.success;
+
+/**
+ * A persistent sequence supporting concatenation in constant time, as described
+ * by Chris Okasaki in "Purely Functional Data Structures" (catenable lists).
+ * Whereas List.concat copies its first argument, concatenating two catenable
+ * lists only links them:
+ * -> A non-empty catenable list holds a first segment, which is a non-empty List,
+ * and a queue of the catenable lists that follow it.
+ * -> concat adds the second list at the end of the queue of the first one.
+ * -> tail removes the head of the first segment. Once the segment is exhausted,
+ * the first list of the queue is linked to a suspension of the linking of the
+ * others, which is evaluated at most once, when the list is read that far.
+ * Wrapping a List is constant time too, since the List becomes a segment, so this
+ * class is meant to accumulate many lists before turning them back into a single
+ * List in one pass, with toList.
+ * head and cons run in O(1) time, and append, concat and tail in amortized O(1)
+ * time. Since the queue and the linking are only evaluated through memoized
+ * suspensions, the bounds hold even when the same list is used several times.
+ * @param <A> : Type parameter of the elements.
+ */
+public abstract class CatenableList<A> {
+    @SuppressWarnings("rawtypes")
+    private static final CatenableList EMPTY = new Empty();
+
+    /**
+     * Prevent the clients from extending this class.
+     */
+    private CatenableList() {}
+
+    /**
+     * Returns the first or head element of the list.
+     * Throws an exception if called on an empty list.
+     * @return the first element from the list.
+     */
+    public abstract A head();
+
+    /**
+     * Returns the first or head element of the list, wrapped in a Result object.
+     * @return the Result object holding the value or a failure for an empty list.
+     */
+    public abstract Result<A> headOption();
+
+    /**
+     * Returns the tail (or rest) of the list.
+     * Throws an exception if called on an empty list.
+     * @return the remaining elements of the list.
+     */
+    public abstract CatenableList<A> tail();
+
+    /**
+     * @return true if the list is empty or false otherwise.
+     */
+    public abstract boolean isEmpty();
+
+    /**
+     * @return Returns the number of elements in the list.
+     */
+    public abstract int length();
+
+    /**
+     * Adds an element at the beginning of the list.
+     * @param a : The element that needs to be added at the beginning.
+     * @return The list with the element added in the beginning.
+     */
+    public abstract CatenableList<A> cons(A a);
+
+    /**
+     * Concatenates that list at the end of this one, in constant time.
+     * @param that : The list to be added at the end of this list.
+     * @return the combined list of this and that.
+     */
+    public abstract CatenableList<A> concat(CatenableList<A> that);
+
+    /**
+     * Concatenates a List at the end of this one, in constant time. The List is
+     * not copied.
+     * @param that : The list to be added at the end of this list.
+     * @return the combined list of this and that.
+     */
+    public CatenableList<A> concat(List<A> that) {
+        return concat(fromList(that));
+    }
+
+    /**
+     * Adds an element at the end of the list.
+     * @param a : The element that needs to be added at the end.
+     * @return the list with the element added at the end.
+     */
+    public CatenableList<A> append(A a) {
+        return concat(list(a));
+    }
+
+    /**
+     * A general purpose function which can be used to turn the list into any other type.
+     * This function operates on the list from left to right, one segment at a time.
+     * @param identity : The identity of the operation. This will be returned if the
+     *                 input list is empty.
+     * @param f : Accumulating function, which accepts a parameter of type B, and returns
+     *          a function that accepts a parameter of type A and returns a B.
+     * @param <B> : The type of reduction element.
+     * @return the reduced type object.
+     */
+    public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
+        return segments().reverse().foldLeft(identity, acc -> segment -> segment.foldLeft(acc, f));
+    }
+
+    /**
+     * Applies the given effect to each element of the list.
+     * @param ef : The effect to be applied.
+     */
+    public void forEach(Effect<A> ef) {
+        segments().reverse().forEach(segment -> segment.forEach(ef));
+    }
+
+    /**
+     * Turns this list into a List. Each segment is copied once, except the last
+     * one, which is shared by the resulting List.
+     * @return the List holding the elements of this list, in the same order.
+     */
+    public List<A> toList() {
+        final var segments = segments();
+        return segments.isEmpty()
+                ? list()
+                : segments.tail().foldLeft(segments.head(), acc -> segment -> List.concat(segment, acc));
+    }
+
+    /**
+     * Collects the segments of the list, last one first. The traversal uses an
+     * explicit stack of lists still to be visited, so it is stack safe whatever
+     * the shape of the list.
+     */
+    private List<List<A>> segments() {
+        var res = List.<List<A>>list();
+        var stack = list(new Suspension<>(this));
+        while (!stack.isEmpty()) {
+            final var current = stack.head().force();
+            stack = stack.tail();
+            if (!current.isEmpty()) {
+                final var cat = (Cat<A>) current;
+                res = res.cons(cat.segment);
+                stack = cat.rest.prependTo(stack);
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof CatenableList)) return false;
+
+        CatenableList<?> l1 = this;
+        CatenableList<?> l2 = (CatenableList<?>) o;
+        if (l1.length() != l2.length()) return false;
+
+        while (!l1.isEmpty()) {
+            if (!Objects.equals(l1.head(), l2.head())) return false;
+            l1 = l1.tail();
+            l2 = l2.tail();
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        return foldLeft(1, acc -> v -> acc * prime + Objects.hashCode(v));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%sNIL]",
+                foldLeft(new StringBuilder(), acc -> v -> acc.append(v).append(", ")));
+    }
+
+    private static class Empty<A> extends CatenableList<A> {
+        @Override
+        public A head() {
+            throw new IllegalStateException("head called on empty list");
+        }
+
+        @Override
+        public Result<A> headOption() {
+            return failure("head called on empty list.");
+        }
+
+        @Override
+        public CatenableList<A> tail() {
+            throw new IllegalStateException("tail called on empty list");
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        public int length() {
+            return 0;
+        }
+
+        @Override
+        public CatenableList<A> cons(A a) {
+            return new Cat<>(list(a), Queue.empty(), 1);
+        }
+
+        @Override
+        public CatenableList<A> concat(CatenableList<A> that) {
+            return that;
+        }
+    }
+
+    private static class Cat<A> extends CatenableList<A> {
+        private final List<A> segment;
+        private final Queue<Suspension<CatenableList<A>>> rest;
+        private final int length;
+
+        private Cat(List<A> segment, Queue<Suspension<CatenableList<A>>> rest, int length) {
+            this.segment = segment;
+            this.rest = rest;
+            this.length = length;
+        }
+
+        @Override
+        public A head() {
+            return segment.head();
+        }
+
+        @Override
+        public Result<A> headOption() {
+            return success(segment.head());
+        }
+
+        @Override
+        public CatenableList<A> tail() {
+            if (!segment.tail().isEmpty()) {
+                return new Cat<>(segment.tail(), rest, length - 1);
+            }
+            return rest.isEmpty() ? empty() : linkAll(rest, length - 1);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public CatenableList<A> cons(A a) {
+            return new Cat<>(segment.cons(a), rest, length + 1);
+        }
+
+        @Override
+        public CatenableList<A> concat(CatenableList<A> that) {
+            return that.isEmpty()
+                    ? this
+                    : new Cat<>(segment, rest.snoc(new Suspension<>(that)), length + that.length());
+        }
+    }
+
+    /**
+     * Links the first list of a non-empty queue to a suspension of the linking of
+     * the others, which is only evaluated once the first list has been read. This
+     * is the lazy linkAll of Okasaki: each call does a constant amount of work
+     * besides the operations of the queue.
+     * @param length : The number of elements of the lists of the queue.
+     */
+    private static <A> CatenableList<A> linkAll(Queue<Suspension<CatenableList<A>>> queue, int length) {
+        final var first = (Cat<A>) queue.head().force();
+        final var others = queue.tail();
+        if (others.isEmpty()) {
+            return first;
+        }
+        final var linked = new Suspension<>(() -> linkAll(others, length - first.length));
+        return new Cat<>(first.segment, first.rest.snoc(linked), length);
+    }
+
+    /**
+     * A memoized suspension, evaluated at most once even when it is shared between
+     * threads, with the same double-checked locking as the cells of Stream.
+     */
+    private static final class Suspension<T> {
+        private volatile Supplier<T> supplier;
+        private T value;
+
+        private Suspension(Supplier<T> supplier) {
+            this.supplier = supplier;
+        }
+
+        /**
+         * Creates a suspension which is already evaluated.
+         */
+        private Suspension(T value) {
+            this.value = value;
+        }
+
+        private T force() {
+            if (supplier != null) {
+                synchronized (this) {
+                    final var s = supplier;
+                    if (s != null) {
+                        value = s.get();
+                        supplier = null;
+                    }
+                }
+            }
+            return value;
+        }
+    }
+
+    /**
+     * A persistent FIFO queue, which is the physicist's queue of Okasaki:
+     * -> The elements are held in a front list and a reversed rear list. The front
+     * list is only evaluated when needed, and a prefix of it, the working list, is
+     * kept evaluated so that head is constant time.
+     * -> Once the rear list is longer than the front one, it is reversed and added
+     * at the end of the front list, in a new suspension.
+     * Since the suspensions are shared by all the queues derived from the same one,
+     * each reversal is evaluated once, so all the operations are amortized O(1)
+     * even when the same queue is used several times.
+     */
+    private static final class Queue<T> {
+        @SuppressWarnings("rawtypes")
+        private static final Queue EMPTY = new Queue<>(list(), 0, Front.of(new Suspension<>(list())), 0, list());
+
+        private final List<T> working;
+        private final int frontLength;
+        private final Front<T> front;
+        private final int rearLength;
+        private final List<T> rear;
+
+        private Queue(List<T> working, int frontLength, Front<T> front, int rearLength, List<T> rear) {
+            this.working = working;
+            this.frontLength = frontLength;
+            this.front = front;
+            this.rearLength = rearLength;
+            this.rear = rear;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Queue<T> empty() {
+            return EMPTY;
+        }
+
+        private boolean isEmpty() {
+            return frontLength == 0;
+        }
+
+        private T head() {
+            return working.head();
+        }
+
+        private Queue<T> tail() {
+            return check(working.tail(), frontLength - 1, front.tail(), rearLength, rear);
+        }
+
+        private Queue<T> snoc(T t) {
+            return check(working, frontLength, front, rearLength + 1, rear.cons(t));
+        }
+
+        private static <T> Queue<T> check(List<T> working, int frontLength, Front<T> front,
+                                          int rearLength, List<T> rear) {
+            if (rearLength <= frontLength) {
+                return checkWorking(working, frontLength, front, rearLength, rear);
+            }
+            final var f = front.force();
+            return checkWorking(f, frontLength + rearLength,
+                    Front.of(new Suspension<>(() -> List.concat(f, rear.reverse()))), 0, list());
+        }
+
+        private static <T> Queue<T> checkWorking(List<T> working, int frontLength, Front<T> front,
+                                                 int rearLength, List<T> rear) {
+            return working.isEmpty()
+                    ? new Queue<>(front.force(), frontLength, front, rearLength, rear)
+                    : new Queue<>(working, frontLength, front, rearLength, rear);
+        }
+
+        /**
+         * Puts the elements of the queue in front of the given list, in the order
+         * of the queue.
+         */
+        private List<T> prependTo(List<T> ls) {
+            return List.concat(front.force(), rear.foldLeft(ls, acc -> acc::cons));
+        }
+    }
+
+    /**
+     * The front list of a queue, which is either a suspension, or the tail of the
+     * front list of the queue it was derived from. Each tail is evaluated at most
+     * once, and a chain of tails is evaluated in a loop, so that a long chain does
+     * not overflow the stack. Two threads evaluating the same tail find the same
+     * List, so the tails need no lock.
+     */
+    private static final class Front<T> {
+        private final Suspension<List<T>> source;
+        private volatile Front<T> parent;
+        private List<T> value;
+
+        private Front(Suspension<List<T>> source, Front<T> parent) {
+            this.source = source;
+            this.parent = parent;
+        }
+
+        private static <T> Front<T> of(Suspension<List<T>> source) {
+            return new Front<>(source, null);
+        }
+
+        private Front<T> tail() {
+            return new Front<>(null, this);
+        }
+
+        private List<T> force() {
+            var chain = List.<Front<T>>list();
+            var node = this;
+            List<T> res = null;
+            while (res == null) {
+                final var p = node.parent;
+                if (node.source != null) {
+                    res = node.source.force();
+                } else if (p == null) {
+                    res = node.value;
+                } else {
+                    chain = chain.cons(node);
+                    node = p;
+                }
+            }
+            for (; !chain.isEmpty(); chain = chain.tail()) {
+                res = res.tail();
+                chain.head().value = res;
+                chain.head().parent = null;
+            }
+            return res;
+        }
+    }
+
+    /**
+     * @param <A> : Type parameter of the elements.
+     * @return the empty list.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> CatenableList<A> empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Wraps a List into a catenable list, in constant time.
+     * @param ls : The list to be wrapped.
+     * @param <A> : Type parameter of the elements.
+     * @return the catenable list holding the elements of the list.
+     */
+    public static <A> CatenableList<A> fromList(List<A> ls) {
+        return ls.isEmpty() ? empty() : new Cat<>(ls, Queue.empty(), ls.length());
+    }
+
+    /**
+     * A convenience method to construct a catenable list from an array of elements.
+     * @param as : The elements to be held in the list.
+     * @param <A> : Type parameter of the elements.
+     * @return the catenable list holding the elements in the order of the array.
+     */
+    @SafeVarargs
+    public static <A> CatenableList<A> of(A... as) {
+        return fromList(list(as));
+    }
+}
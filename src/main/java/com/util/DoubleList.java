@@ -0,0 +1,375 @@
+package com.util;
+
+import static com.util.Result.failure;
+import static com.util.Result.success;
+
+import com.functional.Function;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A functional list specialized for double values. It mirrors the List class, but
+ * the elements are held in primitive fields, and the operations take the primitive
+ * functional interfaces from java.util.function, so neither the list nor the
+ * functions applied to it box the values.
+ * As for List, the class contains two private static subclasses: Nil for an empty
+ * list, and Cons for a non-empty one. The operations are written as loops, since a
+ * TailCall would box the accumulator on each step.
+ */
+public abstract class DoubleList {
+    private static final DoubleList NIL = new Nil();
+
+    /**
+     * Prevent the clients from extending this class.
+     */
+    private DoubleList() {}
+
+    /**
+     * Returns the first or head element of the list.
+     * Throws an exception if called on the Nil object.
+     * @return the first element from the list.
+     */
+    public abstract double head();
+
+    /**
+     * Returns the first or head element of the list, wrapped in a Result object.
+     * @return the Result object holding the value or a failure for an empty list.
+     */
+    public abstract Result<Double> headOption();
+
+    /**
+     * Returns the tail (or rest) of the list.
+     * @return the remaining elements of the list.
+     */
+    public abstract DoubleList tail();
+
+    /**
+     * @return true if the list is empty or false otherwise.
+     */
+    public abstract boolean isEmpty();
+
+    /**
+     * @return Returns the number of elements in the list.
+     */
+    public abstract int length();
+
+    /**
+     * Adds an element at the beginning of the list.
+     * @param i : The element that needs to be added at the beginning.
+     * @return The list with the element added in the beginning.
+     */
+    public DoubleList cons(double i) {
+        return new Cons(i, this);
+    }
+
+    /**
+     * Folds the list from left to right into a double.
+     * @param identity : The identity of the operation. This will be returned if the
+     *                 input list is empty.
+     * @param f : Accumulating function, which accepts the accumulator and the current
+     *          element.
+     * @return the reduced value.
+     */
+    public double foldLeft(double identity, DoubleBinaryOperator f) {
+        var acc = identity;
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            acc = f.applyAsDouble(acc, ls.head());
+        }
+        return acc;
+    }
+
+    /**
+     * Folds the list from left to right into any other type.
+     * @param identity : The identity of the operation. This will be returned if the
+     *                 input list is empty.
+     * @param f : Accumulating function, which accepts a parameter of type B, and returns
+     *          a function that accepts the current element and returns a B.
+     * @param <B> : The type of reduction element.
+     * @return the reduced type object.
+     */
+    public <B> B foldLeft(B identity, Function<B, DoubleFunction<B>> f) {
+        var acc = identity;
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            acc = f.apply(acc).apply(ls.head());
+        }
+        return acc;
+    }
+
+    /**
+     * @return the sum of the elements of the list.
+     */
+    public double sum() {
+        return foldLeft(0.0, Double::sum);
+    }
+
+    /**
+     * Transforms the list by applying the function to each element.
+     * @param f : The function to be applied to each element of the list.
+     * @return the transformed list.
+     */
+    public DoubleList map(DoubleUnaryOperator f) {
+        final var xs = toArray();
+        for (int i = 0; i < xs.length; ++i) {
+            xs[i] = f.applyAsDouble(xs[i]);
+        }
+        return fromArray(xs, xs.length);
+    }
+
+    /**
+     * Transforms the list into a list of objects, by applying the function to each
+     * element.
+     * @param f : The function to be applied to each element of the list.
+     * @param <B> : The type into which the function maps each element.
+     * @return the list of elements of type B.
+     */
+    public <B> List<B> mapToObj(DoubleFunction<B> f) {
+        final List.Builder<B> builder = List.builder();
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            builder.add(f.apply(ls.head()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the list of the elements for which the predicate returns true.
+     * @param p : The predicate to be applied to each element of the list.
+     * @return the list of values for which the predicate returned true.
+     */
+    public DoubleList filter(DoublePredicate p) {
+        final var xs = new double[length()];
+        int count = 0;
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            if (p.test(ls.head())) {
+                xs[count++] = ls.head();
+            }
+        }
+        return fromArray(xs, count);
+    }
+
+    /**
+     * Reverses the order of the elements and returns a new list.
+     * @return the list with elements in the reverse order.
+     */
+    public DoubleList reverse() {
+        var res = list();
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            res = res.cons(ls.head());
+        }
+        return res;
+    }
+
+    /**
+     * Removes n elements from the list and returns the remaining elements.
+     * @param n : the number of elements to drop from the list.
+     * @return the remaining list after dropping n elements.
+     */
+    public DoubleList drop(int n) {
+        var ls = this;
+        for (int i = 0; i < n && !ls.isEmpty(); ++i) {
+            ls = ls.tail();
+        }
+        return ls;
+    }
+
+    /**
+     * @param p : the predicate to be applied to each element of the list.
+     * @return true if predicate returns true for an element, false otherwise.
+     */
+    public boolean exists(DoublePredicate p) {
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            if (p.test(ls.head())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param p : The predicated to be applied to each element of the list.
+     * @return true if predicate is true for all elements, false otherwise.
+     */
+    public boolean forAll(DoublePredicate p) {
+        return !exists(p.negate());
+    }
+
+    /**
+     * Applies the given effect to each element of the list.
+     * @param ef : The effect to be applied.
+     */
+    public void forEach(DoubleConsumer ef) {
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            ef.accept(ls.head());
+        }
+    }
+
+    /**
+     * @return an array holding the elements of the list, in the same order.
+     */
+    public double[] toArray() {
+        final var xs = new double[length()];
+        var ls = this;
+        for (int i = 0; i < xs.length; ++i) {
+            xs[i] = ls.head();
+            ls = ls.tail();
+        }
+        return xs;
+    }
+
+    /**
+     * Converts this list into a list of boxed values.
+     * @return the List holding the same elements in the same order.
+     */
+    public List<Double> toList() {
+        return mapToObj(Double::valueOf);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%sNIL]",
+                foldLeft(new StringBuilder(), acc -> i -> acc.append(i).append(", ")));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof DoubleList)) return false;
+
+        var l1 = this;
+        var l2 = (DoubleList) o;
+        if (l1.length() != l2.length()) return false;
+
+        for (; !l1.isEmpty(); l1 = l1.tail(), l2 = l2.tail()) {
+            if (Double.compare(l1.head(), l2.head()) != 0) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            result = result * prime + Double.hashCode(ls.head());
+        }
+        return result;
+    }
+
+    private static DoubleList fromArray(double[] xs, int length) {
+        var res = list();
+        for (int i = length - 1; i >= 0; --i) {
+            res = res.cons(xs[i]);
+        }
+        return res;
+    }
+
+    private static class Nil extends DoubleList {
+        private Nil() {}
+
+        @Override
+        public double head() {
+            throw new IllegalStateException("head called on empty list");
+        }
+
+        @Override
+        public Result<Double> headOption() {
+            return failure("head called on empty list.");
+        }
+
+        @Override
+        public DoubleList tail() {
+            throw new IllegalStateException("tail called on empty list");
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        public int length() {
+            return 0;
+        }
+    }
+
+    private static class Cons extends DoubleList {
+        private final double head;
+        private final int length;
+        private final DoubleList tail;
+
+        private Cons(double head, DoubleList tail) {
+            this.head = head;
+            this.tail = tail;
+            this.length = tail.length() + 1;
+        }
+
+        @Override
+        public double head() {
+            return head;
+        }
+
+        @Override
+        public Result<Double> headOption() {
+            return success(head);
+        }
+
+        @Override
+        public DoubleList tail() {
+            return tail;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+    }
+
+    /**
+     * @return the empty list.
+     */
+    public static DoubleList list() {
+        return NIL;
+    }
+
+    /**
+     * A convenience method to construct a list from an array of elements.
+     * @param xs : The elements to be held in the list.
+     * @return the list holding the elements in the order of the array.
+     */
+    public static DoubleList list(double... xs) {
+        return fromArray(xs, xs.length);
+    }
+
+    /**
+     * Generates a list of n elements, starting from the seed value.
+     * @param seed : The starting value to be included in the list.
+     * @param f : The generator function which takes the current value, and returns the next one.
+     * @param n : The number of elements to be included in the list.
+     * @return the list containing the n generated elements.
+     */
+    public static DoubleList iterate(double seed, DoubleUnaryOperator f, int n) {
+        final var xs = new double[Math.max(n, 0)];
+        var current = seed;
+        for (int i = 0; i < xs.length; ++i) {
+            xs[i] = current;
+            current = f.applyAsDouble(current);
+        }
+        return fromArray(xs, xs.length);
+    }
+
+    /**
+     * Converts a list of boxed values into an DoubleList.
+     * @param ls : The list to be converted.
+     * @return the DoubleList holding the same elements in the same order.
+     */
+    public static DoubleList fromList(List<Double> ls) {
+        return ls.reverse().foldLeft(list(), acc -> acc::cons);
+    }
+}
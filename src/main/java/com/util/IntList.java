@@ -0,0 +1,385 @@
+package com.util;
+
+import static com.util.Result.failure;
+import static com.util.Result.success;
+
+import com.functional.Function;
+
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A functional list specialized for int values. It mirrors the List class, but
+ * the elements are held in primitive fields, and the operations take the primitive
+ * functional interfaces from java.util.function, so neither the list nor the
+ * functions applied to it box the values.
+ * As for List, the class contains two private static subclasses: Nil for an empty
+ * list, and Cons for a non-empty one. The operations are written as loops, since a
+ * TailCall would box the accumulator on each step.
+ */
+public abstract class IntList {
+    private static final IntList NIL = new Nil();
+
+    /**
+     * Prevent the clients from extending this class.
+     */
+    private IntList() {}
+
+    /**
+     * Returns the first or head element of the list.
+     * Throws an exception if called on the Nil object.
+     * @return the first element from the list.
+     */
+    public abstract int head();
+
+    /**
+     * Returns the first or head element of the list, wrapped in a Result object.
+     * @return the Result object holding the value or a failure for an empty list.
+     */
+    public abstract Result<Integer> headOption();
+
+    /**
+     * Returns the tail (or rest) of the list.
+     * @return the remaining elements of the list.
+     */
+    public abstract IntList tail();
+
+    /**
+     * @return true if the list is empty or false otherwise.
+     */
+    public abstract boolean isEmpty();
+
+    /**
+     * @return Returns the number of elements in the list.
+     */
+    public abstract int length();
+
+    /**
+     * Adds an element at the beginning of the list.
+     * @param i : The element that needs to be added at the beginning.
+     * @return The list with the element added in the beginning.
+     */
+    public IntList cons(int i) {
+        return new Cons(i, this);
+    }
+
+    /**
+     * Folds the list from left to right into an int.
+     * @param identity : The identity of the operation. This will be returned if the
+     *                 input list is empty.
+     * @param f : Accumulating function, which accepts the accumulator and the current
+     *          element.
+     * @return the reduced value.
+     */
+    public int foldLeft(int identity, IntBinaryOperator f) {
+        var acc = identity;
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            acc = f.applyAsInt(acc, ls.head());
+        }
+        return acc;
+    }
+
+    /**
+     * Folds the list from left to right into any other type.
+     * @param identity : The identity of the operation. This will be returned if the
+     *                 input list is empty.
+     * @param f : Accumulating function, which accepts a parameter of type B, and returns
+     *          a function that accepts the current element and returns a B.
+     * @param <B> : The type of reduction element.
+     * @return the reduced type object.
+     */
+    public <B> B foldLeft(B identity, Function<B, IntFunction<B>> f) {
+        var acc = identity;
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            acc = f.apply(acc).apply(ls.head());
+        }
+        return acc;
+    }
+
+    /**
+     * @return the sum of the elements of the list.
+     */
+    public int sum() {
+        return foldLeft(0, Integer::sum);
+    }
+
+    /**
+     * Transforms the list by applying the function to each element.
+     * @param f : The function to be applied to each element of the list.
+     * @return the transformed list.
+     */
+    public IntList map(IntUnaryOperator f) {
+        final var is = toArray();
+        for (int i = 0; i < is.length; ++i) {
+            is[i] = f.applyAsInt(is[i]);
+        }
+        return fromArray(is, is.length);
+    }
+
+    /**
+     * Transforms the list into a list of objects, by applying the function to each
+     * element.
+     * @param f : The function to be applied to each element of the list.
+     * @param <B> : The type into which the function maps each element.
+     * @return the list of elements of type B.
+     */
+    public <B> List<B> mapToObj(IntFunction<B> f) {
+        final List.Builder<B> builder = List.builder();
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            builder.add(f.apply(ls.head()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the list of the elements for which the predicate returns true.
+     * @param p : The predicate to be applied to each element of the list.
+     * @return the list of values for which the predicate returned true.
+     */
+    public IntList filter(IntPredicate p) {
+        final var is = new int[length()];
+        int count = 0;
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            if (p.test(ls.head())) {
+                is[count++] = ls.head();
+            }
+        }
+        return fromArray(is, count);
+    }
+
+    /**
+     * Reverses the order of the elements and returns a new list.
+     * @return the list with elements in the reverse order.
+     */
+    public IntList reverse() {
+        var res = list();
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            res = res.cons(ls.head());
+        }
+        return res;
+    }
+
+    /**
+     * Removes n elements from the list and returns the remaining elements.
+     * @param n : the number of elements to drop from the list.
+     * @return the remaining list after dropping n elements.
+     */
+    public IntList drop(int n) {
+        var ls = this;
+        for (int i = 0; i < n && !ls.isEmpty(); ++i) {
+            ls = ls.tail();
+        }
+        return ls;
+    }
+
+    /**
+     * @param p : the predicate to be applied to each element of the list.
+     * @return true if predicate returns true for an element, false otherwise.
+     */
+    public boolean exists(IntPredicate p) {
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            if (p.test(ls.head())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param p : The predicated to be applied to each element of the list.
+     * @return true if predicate is true for all elements, false otherwise.
+     */
+    public boolean forAll(IntPredicate p) {
+        return !exists(p.negate());
+    }
+
+    /**
+     * Applies the given effect to each element of the list.
+     * @param ef : The effect to be applied.
+     */
+    public void forEach(IntConsumer ef) {
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            ef.accept(ls.head());
+        }
+    }
+
+    /**
+     * @return an array holding the elements of the list, in the same order.
+     */
+    public int[] toArray() {
+        final var is = new int[length()];
+        var ls = this;
+        for (int i = 0; i < is.length; ++i) {
+            is[i] = ls.head();
+            ls = ls.tail();
+        }
+        return is;
+    }
+
+    /**
+     * Converts this list into a list of boxed values.
+     * @return the List holding the same elements in the same order.
+     */
+    public List<Integer> toList() {
+        return mapToObj(Integer::valueOf);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%sNIL]",
+                foldLeft(new StringBuilder(), acc -> i -> acc.append(i).append(", ")));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof IntList)) return false;
+
+        var l1 = this;
+        var l2 = (IntList) o;
+        if (l1.length() != l2.length()) return false;
+
+        for (; !l1.isEmpty(); l1 = l1.tail(), l2 = l2.tail()) {
+            if (l1.head() != l2.head()) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        return foldLeft(1, (acc, i) -> acc * prime + Integer.hashCode(i));
+    }
+
+    private static IntList fromArray(int[] is, int length) {
+        var res = list();
+        for (int i = length - 1; i >= 0; --i) {
+            res = res.cons(is[i]);
+        }
+        return res;
+    }
+
+    private static class Nil extends IntList {
+        private Nil() {}
+
+        @Override
+        public int head() {
+            throw new IllegalStateException("head called on empty list");
+        }
+
+        @Override
+        public Result<Integer> headOption() {
+            return failure("head called on empty list.");
+        }
+
+        @Override
+        public IntList tail() {
+            throw new IllegalStateException("tail called on empty list");
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        public int length() {
+            return 0;
+        }
+    }
+
+    private static class Cons extends IntList {
+        private final int head;
+        private final int length;
+        private final IntList tail;
+
+        private Cons(int head, IntList tail) {
+            this.head = head;
+            this.tail = tail;
+            this.length = tail.length() + 1;
+        }
+
+        @Override
+        public int head() {
+            return head;
+        }
+
+        @Override
+        public Result<Integer> headOption() {
+            return success(head);
+        }
+
+        @Override
+        public IntList tail() {
+            return tail;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+    }
+
+    /**
+     * @return the empty list.
+     */
+    public static IntList list() {
+        return NIL;
+    }
+
+    /**
+     * A convenience method to construct a list from an array of elements.
+     * @param is : The elements to be held in the list.
+     * @return the list holding the elements in the order of the array.
+     */
+    public static IntList list(int... is) {
+        return fromArray(is, is.length);
+    }
+
+    /**
+     * Produces the list of integers in a given range.
+     * @param start : The element from which to start counting.
+     * @param end : The element before which to include in the list.
+     * @return the list of integers that lie between start and end.
+     */
+    public static IntList range(int start, int end) {
+        var res = list();
+        for (int i = end - 1; i >= start; --i) {
+            res = res.cons(i);
+        }
+        return res;
+    }
+
+    /**
+     * Generates a list of n elements, starting from the seed value.
+     * @param seed : The starting value to be included in the list.
+     * @param f : The generator function which takes the current value, and returns the next one.
+     * @param n : The number of elements to be included in the list.
+     * @return the list containing the n generated elements.
+     */
+    public static IntList iterate(int seed, IntUnaryOperator f, int n) {
+        final var is = new int[Math.max(n, 0)];
+        var current = seed;
+        for (int i = 0; i < is.length; ++i) {
+            is[i] = current;
+            current = f.applyAsInt(current);
+        }
+        return fromArray(is, is.length);
+    }
+
+    /**
+     * Converts a list of boxed values into an IntList.
+     * @param ls : The list to be converted.
+     * @return the IntList holding the same elements in the same order.
+     */
+    public static IntList fromList(List<Integer> ls) {
+        return ls.reverse().foldLeft(list(), acc -> acc::cons);
+    }
+}
@@ -13,12 +13,28 @@ import static com.util.Result.failure;
 import static com.functional.TailCall.sus;
 import static com.functional.TailCall.ret;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Spliterator;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.StreamSupport;
 
 /**
  * A functional list that supports all the functional operations on a list.
@@ -94,20 +110,14 @@ public abstract class List<A> {
     public boolean equals(Object o) {
         if (!( o instanceof List)) return false;
 
-        List that = (List) o;
-        class EqualsHelper {
-            TailCall<Boolean> go(List l1, List l2) {
-                if (l1.isEmpty() && !l2.isEmpty() || !l1.isEmpty() && l2.isEmpty()) {
-                    return ret(false);
-                } else if(l1.isEmpty() && l2.isEmpty()) {
-                    return ret(true);
-                } else {
-                    return l1.head().equals(l2.head()) ? go(l1.tail(), l2.tail()) : ret(false);
-                }
-            }
-        }
+        List l1 = this;
+        List l2 = (List) o;
+        if (l1.length() != l2.length()) return false;
 
-        return new EqualsHelper().go(this, that).eval();
+        for (; !l1.isEmpty(); l1 = l1.tail(), l2 = l2.tail()) {
+            if (!Objects.equals(l1.head(), l2.head())) return false;
+        }
+        return true;
     }
 
     @Override
@@ -126,12 +136,11 @@ public abstract class List<A> {
      * method returns an empty list.
      */
     public List<A> drop(int n) {
-        class DropHelper {
-            TailCall<List<A>> go(List<A> as, int n) {
-                return (n <= 0 || as.isEmpty()) ? ret(as) : sus(() -> go(as.tail(), n - 1));
-            }
+        var ls = this;
+        for (int i = 0; i < n && !ls.isEmpty(); ++i) {
+            ls = ls.tail();
         }
-        return new DropHelper().go(this, n).eval();
+        return ls;
     }
 
     /**
@@ -141,13 +150,11 @@ public abstract class List<A> {
      * @return the remaining list after dropping the elements.
      */
     public List<A> dropWhile(Function<A, Boolean> p) {
-        class DropHelper {
-            TailCall<List<A>> go(List<A> as) {
-                return (!as.isEmpty() && p.apply(as.head())) ? sus(() -> go(as.tail())) : ret(as);
-            }
+        var ls = this;
+        while (!ls.isEmpty() && p.apply(ls.head())) {
+            ls = ls.tail();
         }
-
-        return new DropHelper().go(this).eval();
+        return ls;
     }
 
     /**
@@ -160,7 +167,7 @@ public abstract class List<A> {
      * @return : the combined list of list1 and list2.
      */
     public static <A> List<A> concat(List<A> list1, List<A> list2) {
-        return list1.foldRight(list2, v -> acc -> acc.cons(v));
+        return list2.isEmpty() ? list1 : List.<A>builder().addAll(list1).buildOnto(list2);
     }
 
     /**
@@ -185,13 +192,11 @@ public abstract class List<A> {
      * @return the reduced type object.
      */
     public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
-        class FoldHelper {
-            TailCall<B> go(List<A> ls, B acc) {
-                return ls.isEmpty() ? ret(acc) : sus(() -> go(ls.tail(), f.apply(acc).apply(ls.head())));
-            }
+        var acc = identity;
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            acc = f.apply(acc).apply(ls.head());
         }
-
-        return new FoldHelper().go(this, identity).eval();
+        return acc;
     }
 
     /**
@@ -207,15 +212,12 @@ public abstract class List<A> {
      * @return the tuple of reduced type object and the remaining list elements.
      */
     public <B> Tuple<B, List<A>> foldLeft(B identity, B zeroElement, Function<B, Function<A, B>> f) {
-        class FoldHelper {
-            TailCall<Tuple<B, List<A>>> go(List<A> ls, B acc) {
-                return ls.isEmpty() || acc.equals(zeroElement) ? ret(Tuple.create(acc, ls)) :
-                        sus(() -> go(ls.tail(),
-                        f.apply(acc).apply(ls.head())));
-            }
+        var acc = identity;
+        var ls = this;
+        for (; !ls.isEmpty() && !acc.equals(zeroElement); ls = ls.tail()) {
+            acc = f.apply(acc).apply(ls.head());
         }
-
-        return new FoldHelper().go(this, identity).eval();
+        return Tuple.create(acc, ls);
     }
 
     /**
@@ -237,15 +239,12 @@ public abstract class List<A> {
      */
     public <B> Tuple<B, List<A>> foldLeft(B identity, Function<B, Function<A, Boolean>> p,
                                         Function<B, Function<A, B>> f) {
-        class FoldHelper {
-            TailCall<Tuple<B, List<A>>> go(List<A> ls, B acc) {
-                return ls.isEmpty() || p.apply(acc).apply(ls.head()) ? ret(Tuple.create(acc,  ls)) :
-                        sus(() -> go(ls.tail(),
-                        f.apply(acc).apply(ls.head())));
-            }
+        var acc = identity;
+        var ls = this;
+        for (; !ls.isEmpty() && !p.apply(acc).apply(ls.head()); ls = ls.tail()) {
+            acc = f.apply(acc).apply(ls.head());
         }
-
-        return new FoldHelper().go(this, identity).eval();
+        return Tuple.create(acc, ls);
     }
 
     /**
@@ -320,7 +319,11 @@ public abstract class List<A> {
      * @return the list with elements in the reverse order.
      */
     public List<A> reverse() {
-        return foldLeft(list(), acc -> v -> acc.cons(v));
+        List<A> res = list();
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            res = new Cons<>(ls.head(), res);
+        }
+        return res;
     }
 
     /**
@@ -342,7 +345,41 @@ public abstract class List<A> {
      * @return the transformed list containing the elements of type B.
      */
     public <B> List<B> map(Function<A, B> f) {
-        return foldRight(list(), v -> acc -> acc.cons(f.apply(v)));
+        final var builder = List.<B>builder();
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            builder.add(f.apply(ls.head()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Transforms the list into an IntList, by applying the given function to each
+     * element. The resulting values are held unboxed.
+     * @param f : The function to be applied to each element of the list.
+     * @return the IntList holding the mapped values.
+     */
+    public IntList mapToInt(ToIntFunction<A> f) {
+        return reverse().foldLeft(IntList.list(), acc -> a -> acc.cons(f.applyAsInt(a)));
+    }
+
+    /**
+     * Transforms the list into a LongList, by applying the given function to each
+     * element. The resulting values are held unboxed.
+     * @param f : The function to be applied to each element of the list.
+     * @return the LongList holding the mapped values.
+     */
+    public LongList mapToLong(ToLongFunction<A> f) {
+        return reverse().foldLeft(LongList.list(), acc -> a -> acc.cons(f.applyAsLong(a)));
+    }
+
+    /**
+     * Transforms the list into a DoubleList, by applying the given function to each
+     * element. The resulting values are held unboxed.
+     * @param f : The function to be applied to each element of the list.
+     * @return the DoubleList holding the mapped values.
+     */
+    public DoubleList mapToDouble(ToDoubleFunction<A> f) {
+        return reverse().foldLeft(DoubleList.list(), acc -> a -> acc.cons(f.applyAsDouble(a)));
     }
 
     /**
@@ -353,35 +390,39 @@ public abstract class List<A> {
      * @return the list of values for which the predicate returned true.
      */
     public List<A> filter(Function<A, Boolean> p) {
-        return foldLeft(List.<A>list(), acc -> v -> p.apply(v) ? acc.cons(v) : acc).reverse();
-//        return foldRight(list(), v -> acc -> p.apply(v) ? acc.cons(v) : acc);
+        final var builder = List.<A>builder();
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            if (p.apply(ls.head())) {
+                builder.add(ls.head());
+            }
+        }
+        return builder.build();
     }
 
     /**
      * This function is a generalization of map. The input function here returns a list
      * of elements, rather than a single element, for each application. The flatMap
-     * then flattens the list of lists into a single list. The runtime of this function
-     * could be O(n2), since it needs to traverse the list for each invocation.
+     * then flattens the list of lists into a single list. The lists are accumulated
+     * in a CatenableList, where each concatenation is O(1), and are then copied
+     * once into the result, so the runtime of this function is O(n).
      * @param f : The function which produces a List<B> for each element of List<A>.
      * @param <B> : The type parameter of mapped result.
      * @return the list of objects of type B.
      */
     public <B> List<B> flatMap(Function<A, List<B>> f) {
-//        return flatten(map(f));
-        return foldRight(list(), v -> acc -> concat(f.apply(v), acc));
+        return foldLeft(CatenableList.<B>empty(), acc -> v -> acc.concat(f.apply(v))).toList();
     }
 
     /**
      * A convenience function to flatten a list of list of elements into a single
-     * list. The runtime of this function could be O(n2), since it needs to
-     * traverse the list for each invocation.
+     * list. As for flatMap, the lists are accumulated in a CatenableList, so the
+     * runtime of this function is O(n).
      * @param aas : List of list of a.
      * @param <A> : Type parameter of elements of inner list.
      * @return the flattened list of elements.
      */
     public static <A> List<A> flatten(List<List<A>> aas) {
-        return aas.foldRight(list(), v -> acc -> concat(v, acc));
-
+        return aas.foldLeft(CatenableList.<A>empty(), acc -> acc::concat).toList();
     }
 
     /**
@@ -393,13 +434,13 @@ public abstract class List<A> {
      * @return the List class holding the elements from collection.
      */
     public static <T> List<T> fromCollection(Collection<T> ct) {
-        var list = List.<T>list();
+        final var builder = List.<T>builder();
 
         for(final T t : ct) {
-            list = list.cons(t);
+            builder.add(t);
         }
 
-        return list.reverse();
+        return builder.build();
     }
 
     /**
@@ -421,15 +462,12 @@ public abstract class List<A> {
      * true for an element or return an empty object otherwise.
      */
     public Result<A> first(Function<A, Boolean> p) {
-        class FirstHelper {
-            TailCall<Result<A>> go(List<A> ls) {
-                return ls.isEmpty() ? ret(Result.<A>failure("Empty list")) : p.apply(ls.head()) ?
-                                            ret(Result.success(ls.head())) :
-                                            sus(() -> go(ls.tail()));
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            if (p.apply(ls.head())) {
+                return Result.success(ls.head());
             }
         }
-
-        return new FirstHelper().go(this).eval();
+        return Result.failure("Empty list");
     }
 
     /**
@@ -525,17 +563,11 @@ public abstract class List<A> {
      * pair of elements of input lists.
      */
     public static <A,B,C> List<C> zipWith(List<A> as, List<B> bs, Function<A, Function<B, C>> f) {
-        class ZipHelper {
-            TailCall<List<C>> go(List<A> as, List<B> bs, List<C> cs) {
-                if (as.isEmpty() || bs.isEmpty()) {
-                    return ret(cs);
-                } else {
-                    return go(as.tail(), bs.tail(), cs.cons(f.apply(as.head()).apply(bs.head())));
-                }
-            }
+        final var builder = List.<C>builder();
+        for (; !as.isEmpty() && !bs.isEmpty(); as = as.tail(), bs = bs.tail()) {
+            builder.add(f.apply(as.head()).apply(bs.head()));
         }
-
-        return new ZipHelper().go(as, bs, list()).eval().reverse();
+        return builder.build();
     }
 
     /**
@@ -648,15 +680,7 @@ public abstract class List<A> {
      * @return the Result object encapsulating the element or failure.
      */
     public Result<A> getAt(int index) {
-        class GetHelper{
-            TailCall<Result<A>> go(List<A> as, int index) {
-                return index == 0 ? ret(success(as.head())) : sus(() -> go(as.tail(), index - 1));
-            }
-        }
-
-        return index < 0 || index > length()  ? failure("Index out of bounds") :
-                new GetHelper().go(this, index).eval();
-
+        return index < 0 || index >= length() ? failure("Index out of bounds") : success(drop(index).head());
     }
 
     /**
@@ -674,13 +698,12 @@ public abstract class List<A> {
             return Tuple.create(this, list());
         }
 
-        var identity = Tuple.create(List.<A>list(), index);
-        Tuple<Tuple<List<A>, Integer>, List<A>> res = foldLeft(identity,
-                (Function<Tuple<List<A>, Integer>, Function<A, Boolean>>) acc -> v -> acc._2 == 0,
-                (Function<Tuple<List<A>, Integer>, Function<A, Tuple<List<A>, Integer>>>) acc -> v -> acc._2 >= 0 ?
-                                                                           Tuple.create(acc._1.cons(v), acc._2 - 1) :
-                                                                           acc);
-        return Tuple.create(res._1._1.reverse(), res._2);
+        final var builder = List.<A>builder();
+        var ls = this;
+        for (int i = 0; i < index; ++i, ls = ls.tail()) {
+            builder.add(ls.head());
+        }
+        return Tuple.create(builder.build(), ls);
     }
 
     /**
@@ -705,51 +728,85 @@ public abstract class List<A> {
      * false otherwise.
      */
     public static <A> Boolean startsWith(List<A> list, List<A> sub) {
-        class StartsWithHelper {
-            TailCall<Boolean> go(List<A> list, List<A> sub) {
-                return sub.isEmpty() ? ret(true)
-                                    : list.isEmpty() ? ret(false)
-                                                    : list.head().equals(sub.head()) ? sus(() -> go(list.tail(), sub.tail()))
-                                                                                     : ret(false);
+        for (; !sub.isEmpty(); list = list.tail(), sub = sub.tail()) {
+            if (list.isEmpty() || !list.head().equals(sub.head())) {
+                return false;
             }
         }
-
-        return new StartsWithHelper().go(list, sub).eval();
+        return true;
     }
 
     /**
      * This function searches for the provided sublist in a list, and returns true
-     * if it finds it, false otherwise.
+     * if it finds it, false otherwise. It runs in O(n + m) time, see indexOfSlice.
      * @param list : The list in which to search the sublist.
      * @param sub : The sublist to search for.
      * @param <A> : Type parameter of the elements.
      * @return true if the sublist is contained in the list, false otherwise.
      */
     public static <A> Boolean hasSubList(List<A> list, List<A> sub) {
-        class HasSubListHelper {
-            TailCall<Boolean> go(List<A> list) {
-                return list.isEmpty() ? ret(sub.isEmpty()) : startsWith(list, sub) ? ret(true) :
-                        sus(() -> go(list.tail()));
+        return list.indexOfSlice(sub).isSuccess();
+    }
+
+    /**
+     * Returns the position of the first occurrence of the sublist in this list, using
+     * the Knuth-Morris-Pratt algorithm. The sublist is first turned into a table which
+     * gives, for each prefix of the sublist, the length of its longest proper suffix
+     * which is also a prefix. On a mismatch, the search resumes from this shorter
+     * prefix instead of going back in the list, so each element of the list is read
+     * only once, and the search runs in O(n + m) time. To look for many sublists at
+     * once, see AhoCorasick.
+     * @param sub : The sublist to search for.
+     * @return the Result holding the position of the first occurrence of the sublist,
+     * or an empty Result if the list does not contain it.
+     */
+    public Result<Integer> indexOfSlice(List<A> sub) {
+        final var pattern = sub.toArray();
+        if (pattern.length == 0) {
+            return success(0);
+        }
+
+        final var borders = new int[pattern.length];
+        for (int i = 1, k = 0; i < pattern.length; ++i) {
+            while (k > 0 && !Objects.equals(pattern[i], pattern[k])) {
+                k = borders[k - 1];
             }
+            if (Objects.equals(pattern[i], pattern[k])) {
+                ++k;
+            }
+            borders[i] = k;
         }
 
-        return new HasSubListHelper().go(list).eval();
+        int k = 0;
+        int position = 0;
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail(), ++position) {
+            while (k > 0 && !Objects.equals(ls.head(), pattern[k])) {
+                k = borders[k - 1];
+            }
+            if (Objects.equals(ls.head(), pattern[k]) && ++k == pattern.length) {
+                return success(position - k + 1);
+            }
+        }
+        return Result.empty();
     }
 
     /**
-     * This method accepts a function from A to B, and returns a Map, where keys
-     * are the result of the function applied to each element of the list and
-     * values are lists of elements corresponding to each key.
+     * This method accepts a function from A to B, and returns a PersistentMap, where
+     * keys are the result of the function applied to each element of the list and
+     * values are lists of elements corresponding to each key. The map is built with
+     * a transient, so each node is copied at most once.
      * @param f : The function that maps an A into a B.
      * @param <B> : Type parameter of the keys.
-     * @return a Map containing the list elements grouped by keys, as provided
+     * @return a PersistentMap containing the list elements grouped by keys, as provided
      * by the function.
      */
-    public <B> Map<B, List<A>> groupBy(Function<A, B> f) {
-        return foldLeft(Map.empty(), acc -> a -> {
-            final var res = f.apply(a);
-            return acc.put(res, acc.get(res).getOrElse(list()).cons(a));
+    public <B> PersistentMap<B, List<A>> groupBy(Function<A, B> f) {
+        final var res = PersistentMap.<B, List<A>>empty().asTransient();
+        forEach(a -> {
+            final var key = f.apply(a);
+            res.put(key, res.get(key).getOrElse(list()).cons(a));
         });
+        return res.persistent();
     }
 
     /**
@@ -764,16 +821,11 @@ public abstract class List<A> {
      * @return the list of values of type A.
      */
     public static <A, S> List<A> unfold(S seed, Function<S, Result<Tuple<A, S>>> f) {
-        class UnfoldHelper {
-            TailCall<Result<List<A>>> go(S seed, List<A> ls) {
-                var res = f.apply(seed);
-                Result<TailCall<Result<List<A>>>> result = res.map(rt -> sus(() -> go(rt._2, ls.cons(rt._1))));
-
-                return result.getOrElse(ret(success(ls)));
-            }
+        final var builder = List.<A>builder();
+        for (var res = f.apply(seed); res.isSuccess(); res = f.apply(res.successValue()._2)) {
+            builder.add(res.successValue()._1);
         }
-
-        return new UnfoldHelper().go(seed, list()).eval().getOrElse(list()).reverse();
+        return builder.build();
     }
 
     /**
@@ -799,15 +851,15 @@ public abstract class List<A> {
      * from the seed value.
      */
     public static <T> List<T> iterate(T seed, Function<T, T> f, int n) {
-        var res = List.<T>list();
+        final var builder = List.<T>builder();
         T temp = seed;
 
         for (int i = 0; i < n; ++i) {
-            res = res.cons(temp);
+            builder.add(temp);
             temp = f.apply(temp);
         }
 
-        return res.reverse();
+        return builder.build();
     }
 
     /**
@@ -830,7 +882,12 @@ public abstract class List<A> {
      * @return true if predicate returns true for an element, false otherwise.
      */
     public boolean exists(Function<A, Boolean> p) {
-        return foldLeft(false, true, acc -> v -> acc || p.apply(v))._1;
+        for (var ls = this; !ls.isEmpty(); ls = ls.tail()) {
+            if (p.apply(ls.head())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -841,7 +898,7 @@ public abstract class List<A> {
      * @return true if predicate is true for all elements, false otherwise.
      */
     public boolean forAll(Function<A, Boolean> p) {
-        return foldLeft(true, false, acc -> v -> acc && p.apply(v))._1;
+        return !exists(v -> !p.apply(v));
     }
 
     /**
@@ -864,11 +921,13 @@ public abstract class List<A> {
     }
 
     /**
-     * Given an Executor Service, this function divides the list into chunks and applies
-     * the function in parallel. Since it applies the function in parallel, it also needs
-     * a function to combine the intermediate results, which may or may not be the same
-     * operation. In terms of functionality, this function is identical to foldLeft, unless
-     * the operation being applied is not commutative.
+     * Given an Executor Service, this function folds the list in parallel. The list is
+     * copied once into an array, which is then split adaptively into ranges by a
+     * RecursiveTask running on a ForkJoinPool. Each range is folded sequentially from
+     * the identity, and the intermediate results are combined from left to right with
+     * the combining function, so the original order of the elements is kept.
+     * If the executor service is a ForkJoinPool the ranges are split adaptively on it,
+     * otherwise the array is split upfront, and one job per range is submitted to it.
      * @param es : The ExecutorService to use for submitting the parallel jobs.
      * @param identity : The identity element for the fold operation.
      * @param f : The accumulator function to be applied to each element and the accumulator.
@@ -879,60 +938,388 @@ public abstract class List<A> {
      */
     public <B> Result<B> parFoldLeft(ExecutorService es, B identity, Function<B,Function<A, B>> f,
                              Function<B, Function<B, B>> m) {
-        final int chunks = 1024;
-        final var dList  = divide(chunks);
+        final var as = toArray();
 
         try {
-            List<B> intermediateResult = dList.map(ls -> es.submit(() -> ls.reverse().foldLeft(identity, f))).map( x -> {
-                try {
-                    return x.get();
-                } catch (InterruptedException | ExecutionException e) {
-                    throw new RuntimeException(e);
-                }
-            });
+            return success(combine(invokeAll(es, as.length, sequentialThreshold(es, as.length),
+                    (from, to, threshold) -> new FoldTask<>(as, from, to, threshold, identity, f, m)), m));
+        } catch (Exception e) {
+            return failure(e);
+        }
+    }
+
+    /**
+     * Same as parFoldLeft, but runs on the common ForkJoinPool.
+     * @param identity : The identity element for the fold operation.
+     * @param f : The accumulator function to be applied to each element and the accumulator.
+     * @param m : The combining function, which combines intermediate results from the parallel
+     *          jobs.
+     * @param <B> : The type parameter of the resulting fold value.
+     * @return the folded value.
+     */
+    public <B> Result<B> parFoldLeft(B identity, Function<B,Function<A, B>> f, Function<B, Function<B, B>> m) {
+        return parFoldLeft(ForkJoinPool.commonPool(), identity, f, m);
+    }
 
-            return success(intermediateResult.foldLeft(identity, m));
+    /**
+     * This function reduces the list in parallel with an associative operation. It is
+     * similar to parFoldLeft, except that there is no identity element, and the
+     * elements themselves are combined.
+     * @param es : The executor service to use for submitting the parallel jobs.
+     * @param m : The associative operation used to combine the elements.
+     * @return the reduced value, or an empty result if the list is empty.
+     */
+    public Result<A> parReduce(ExecutorService es, Function<A, Function<A, A>> m) {
+        if (isEmpty()) {
+            return empty();
+        }
+
+        final var as = toArray();
+
+        try {
+            return success(combine(invokeAll(es, as.length, sequentialThreshold(es, as.length),
+                    (from, to, threshold) -> new ReduceTask<>(as, from, to, threshold, m)), m));
         } catch (Exception e) {
             return failure(e);
         }
     }
 
     /**
-     * This is the parallel version of the map function, analogous to parallel fold in its
-     * implementation.
+     * This is the parallel version of the map function. The function is applied to
+     * the elements in parallel, each task writing its results into its own range of
+     * an array, from which the resulting list is built. No intermediate lists are
+     * concatenated.
      * @param es : The executor service to use for submitting the parallel jobs.
      * @param f : The function which maps an A to a B.
      * @param <B> : The type parameter of the result of applying f.
      * @return the mapped list of values of type B.
      */
+    @SuppressWarnings("unchecked")
     public <B> Result<List<B>> parMap(ExecutorService es, Function<A, B> f) {
-        return parFoldLeft(es, list(), acc -> v -> acc.cons(f.apply(v)), l1 -> l2 -> concat(l1, l2));
+        final var as = toArray();
+        final var bs = new Object[as.length];
+
+        return runInParallel(es, as.length, i -> bs[i] = f.apply((A) as[i]))
+                .map(x -> fromArray(bs, bs.length));
     }
 
     /**
-     * Applies the given effect to each element of the list.
+     * This is the parallel version of the filter function. The predicate is applied
+     * to the elements in parallel, and the matching elements are then collected in
+     * their original order.
+     * @param es : The executor service to use for submitting the parallel jobs.
+     * @param p : The predicate to be applied to each element of the list.
+     * @return the list of values for which the predicate returned true.
+     */
+    @SuppressWarnings("unchecked")
+    public Result<List<A>> parFilter(ExecutorService es, Function<A, Boolean> p) {
+        final var as = toArray();
+        final var keep = new boolean[as.length];
+
+        return runInParallel(es, as.length, i -> keep[i] = p.apply((A) as[i])).map(x -> {
+            var res = List.<A>list();
+            for (int i = as.length - 1; i >= 0; --i) {
+                if (keep[i]) {
+                    res = new Cons<>((A) as[i], res);
+                }
+            }
+            return res;
+        });
+    }
+
+    /**
+     * Applies the given effect to each element of the list in parallel. Note that the
+     * effects are not applied in the order of the elements.
+     * @param es : The executor service to use for submitting the parallel jobs.
      * @param ef : The effect to be applied.
+     * @return a success if all the effects were applied, or a failure otherwise.
      */
-    public abstract void forEach(Effect<A> ef);
+    @SuppressWarnings("unchecked")
+    public Result<Nothing> parForEach(ExecutorService es, Effect<A> ef) {
+        final var as = toArray();
 
-    public List<A> takeAtMost(int n) {
-        class TakeHelper {
-            TailCall<List<A>> go (List<A> acc, List<A> unseenList, int n) {
-                return unseenList.isEmpty() || n <= 0
-                        ? ret(acc)
-                        : sus(() -> go(acc.cons(unseenList.head()), unseenList.tail(), n - 1));
+        return runInParallel(es, as.length, i -> ef.apply((A) as[i]));
+    }
+
+    /**
+     * Sorts the list, using a stable bottom-up merge sort. The list is copied once
+     * into an array, which is sorted in O(n log n) time, and the sorted list is built
+     * from it. Elements which compare equal keep their relative order.
+     * @param comparator : The comparator defining the order of the elements.
+     * @return the sorted list.
+     */
+    @SuppressWarnings("unchecked")
+    public List<A> sort(Comparator<? super A> comparator) {
+        final var as = toArray();
+        mergeSort(as, new Object[as.length], 0, as.length, (Comparator<Object>) comparator);
+        return fromArray(as, as.length);
+    }
+
+    /**
+     * Sorts the list by the keys extracted from the elements. As for sort, the sort
+     * is stable.
+     * @param f : The function extracting the key from each element.
+     * @param <B> : Type parameter of the keys.
+     * @return the list sorted by keys.
+     */
+    public <B extends Comparable<? super B>> List<A> sortBy(Function<A, B> f) {
+        return sort(Comparator.comparing(f::apply));
+    }
+
+    /**
+     * This is the parallel version of the sort function. The array holding the
+     * elements is split in ranges, which are sorted concurrently, and the sorted
+     * ranges are then merged pairwise. On a ForkJoinPool the merges run in parallel
+     * too, while with any other executor service they are run by the calling thread.
+     * As for sort, the sort is stable.
+     * @param es : The executor service to use for submitting the parallel jobs.
+     * @param comparator : The comparator defining the order of the elements.
+     * @return the sorted list, or a failure if the comparator threw an exception.
+     */
+    @SuppressWarnings("unchecked")
+    public Result<List<A>> parSort(ExecutorService es, Comparator<? super A> comparator) {
+        final var as = toArray();
+        final var aux = new Object[as.length];
+        final var c = (Comparator<Object>) comparator;
+        final int threshold = sequentialThreshold(es, as.length);
+
+        try {
+            final var ranges = invokeAll(es, as.length, threshold,
+                    (from, to, t) -> new SortTask(as, aux, from, to, t, c));
+            if (ranges.size() > 1) {
+                mergeRuns(as, aux, 0, as.length, threshold, c);
+            }
+            return success(fromArray(as, as.length));
+        } catch (Exception e) {
+            return failure(e);
+        }
+    }
+
+    /**
+     * Sorts the range [from, to) of the array in place. Runs of INSERTION_SORT_RUN
+     * elements are sorted by insertion, and are then merged bottom-up, back and forth
+     * between the array and the auxiliary one.
+     */
+    private static void mergeSort(Object[] as, Object[] aux, int from, int to, Comparator<Object> c) {
+        for (int lo = from; lo < to; lo += INSERTION_SORT_RUN) {
+            final int hi = Math.min(lo + INSERTION_SORT_RUN, to);
+            for (int i = lo + 1; i < hi; ++i) {
+                final var a = as[i];
+                int j = i - 1;
+                for (; j >= lo && c.compare(as[j], a) > 0; --j) {
+                    as[j + 1] = as[j];
+                }
+                as[j + 1] = a;
+            }
+        }
+        mergeRuns(as, aux, from, to, INSERTION_SORT_RUN, c);
+    }
+
+    /**
+     * Merges bottom-up the sorted runs of width elements of the range [from, to) of
+     * the array, back and forth between the array and the auxiliary one.
+     */
+    private static void mergeRuns(Object[] as, Object[] aux, int from, int to, int width, Comparator<Object> c) {
+        var src = as;
+        var dst = aux;
+        for (; width < to - from; width *= 2) {
+            for (int lo = from; lo < to; lo += 2 * width) {
+                final int mid = Math.min(lo + width, to);
+                merge(src, dst, lo, mid, Math.min(lo + 2 * width, to), c);
+            }
+            final var tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+
+        if (src != as) {
+            System.arraycopy(src, from, as, from, to - from);
+        }
+    }
+
+    /**
+     * Merges the sorted ranges [lo, mid) and [mid, hi) of src into dst. On equal
+     * elements, the one from the left range is taken first, which keeps the sort
+     * stable.
+     */
+    private static void merge(Object[] src, Object[] dst, int lo, int mid, int hi, Comparator<Object> c) {
+        int i = lo;
+        int j = mid;
+        for (int k = lo; k < hi; ++k) {
+            if (j >= hi || i < mid && c.compare(src[j], src[i]) >= 0) {
+                dst[k] = src[i++];
+            } else {
+                dst[k] = src[j++];
+            }
+        }
+    }
+
+    private static final int INSERTION_SORT_RUN = 16;
+
+    private static Result<Nothing> runInParallel(ExecutorService es, int size, IntConsumer body) {
+        try {
+            invokeAll(es, size, sequentialThreshold(es, size),
+                    (from, to, threshold) -> new RangeTask(from, to, threshold, body));
+            return success(Nothing.instance);
+        } catch (Exception e) {
+            return failure(e);
+        }
+    }
+
+    /**
+     * Creates the task processing the range [from, to), which splits it in halves
+     * until they are below the threshold.
+     */
+    @FunctionalInterface
+    private interface RangeTaskFactory<R> {
+        ForkJoinTask<R> create(int from, int to, int threshold);
+    }
+
+    /**
+     * Runs the tasks processing the range [0, size) on the executor service. A
+     * ForkJoinPool runs a single task, which splits the range adaptively. Any other
+     * executor service cannot run forked tasks, so it is given one task per range of
+     * threshold elements, which does not split it.
+     * @return the results of the tasks, in the order of their ranges.
+     */
+    private static <R> ArrayList<R> invokeAll(ExecutorService es, int size, int threshold,
+                                              RangeTaskFactory<R> factory) throws Exception {
+        final var results = new ArrayList<R>();
+        if (es instanceof ForkJoinPool) {
+            results.add(((ForkJoinPool) es).invoke(factory.create(0, size, threshold)));
+            return results;
+        }
+
+        final var futures = new ArrayList<Future<R>>();
+        int from = 0;
+        do {
+            final int to = Math.min(from + threshold, size);
+            final var task = factory.create(from, to, to - from);
+            futures.add(es.submit(task::invoke));
+            from = to;
+        } while (from < size);
+
+        try {
+            for (var future : futures) {
+                results.add(future.get());
             }
+            return results;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static <R> R combine(ArrayList<R> results, Function<R, Function<R, R>> m) {
+        var acc = results.get(0);
+        for (int i = 1; i < results.size(); ++i) {
+            acc = m.apply(acc).apply(results.get(i));
+        }
+        return acc;
+    }
+
+    /**
+     * Ranges smaller than the threshold are processed sequentially. The threshold
+     * gives each worker about four ranges to balance the load, but never goes below
+     * MIN_PARALLEL_CHUNK elements, under which splitting costs more than it saves.
+     * The number of workers is the parallelism of a ForkJoinPool, and the number of
+     * processors for any other executor service, whose size is not known.
+     */
+    private static int sequentialThreshold(ExecutorService es, int size) {
+        final int parallelism = es instanceof ForkJoinPool
+                ? ((ForkJoinPool) es).getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        return Math.max(MIN_PARALLEL_CHUNK, size / (4 * Math.max(1, parallelism)));
+    }
+
+    private static final int MIN_PARALLEL_CHUNK = 1024;
+
+    private Object[] toArray() {
+        final var as = new Object[length()];
+        var ls = this;
+        for (int i = 0; i < as.length; ++i) {
+            as[i] = ls.head();
+            ls = ls.tail();
         }
+        return as;
+    }
 
-        return new TakeHelper().go(list(), this, n).eval().reverse();
+    @SuppressWarnings("unchecked")
+    private static <A> List<A> fromArray(Object[] as, int length) {
+        var res = List.<A>list();
+        for (int i = length - 1; i >= 0; --i) {
+            res = new Cons<>((A) as[i], res);
+        }
+        return res;
+    }
 
-        //TODO: Fix the compiler error, to make the implementation functional.
-        //For some reason, the below code is errored by the compiler.
-//        Function<Tuple<List<A>, Integer>, Function<A, Boolean>> p = t -> a -> t._2 < n;
-//        var res = foldLeft(Tuple.create(List.<A>list(), 0),
-//                p, acc -> v -> Tuple.create(acc._1.cons(v), acc._2 + 1));
-//
-//        return res._1._1.reverse();
+    /**
+     * Applies the given effect to each element of the list.
+     * @param ef : The effect to be applied.
+     */
+    public abstract void forEach(Effect<A> ef);
+
+    /**
+     * Returns a lazy view over this list. The operations called on the view are
+     * fused, and run in a single pass over the list when a terminal operation is
+     * called, without building the intermediate lists. For example,
+     * list.view().map(f).filter(p).takeAtMost(k).toList() reads the list only
+     * until k elements have passed the filter, and builds only the resulting list.
+     * @return the view over the elements of this list.
+     */
+    public ListView<A> view() {
+        return ListView.of(this);
+    }
+
+    /**
+     * Returns a spliterator over the elements of this list. Since the length of the
+     * list is known, the spliterator is SIZED and SUBSIZED, and splits the list in
+     * two halves of the same size. Splitting walks to the middle of the list, but
+     * copies nothing, since each half is a part of this list.
+     * @return the spliterator over the elements of this list.
+     */
+    public Spliterator<A> spliterator() {
+        return new ListSpliterator<>(this, length());
+    }
+
+    /**
+     * @return a sequential java.util.stream.Stream of the elements of this list.
+     */
+    public java.util.stream.Stream<A> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @return a parallel java.util.stream.Stream of the elements of this list, which
+     * runs on the common ForkJoinPool.
+     */
+    public java.util.stream.Stream<A> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a collector, which collects the elements of a java.util.stream.Stream
+     * into a List, keeping the order of the stream. Each thread of a parallel stream
+     * collects its elements with a Builder, and the partial builders are appended
+     * to each other before the list is built once.
+     * @param <A> : Type parameter of the elements.
+     * @return the collector into a List.
+     */
+    public static <A> Collector<A, Builder<A>, List<A>> collector() {
+        return Collector.of(List::builder, Builder::add, Builder::addBuilder, Builder::build);
+    }
+
+    public List<A> takeAtMost(int n) {
+        final var builder = List.<A>builder();
+        var ls = this;
+        for (int i = 0; i < n && !ls.isEmpty(); ++i, ls = ls.tail()) {
+            builder.add(ls.head());
+        }
+        return builder.build();
     }
 
     /**
@@ -943,21 +1330,11 @@ public abstract class List<A> {
      * @return The elements which satisfy the predicate.
      */
     public List<A> takeWhile(Function<A, Boolean> f) {
-        class TakeHelper {
-            TailCall<List<A>> go(List<A> acc, List<A> unseenList) {
-                return  unseenList.isEmpty() || !f.apply(head())
-                        ? ret(acc)
-                        : sus(() -> go(acc.cons(unseenList.head()), unseenList.tail()));
-            }
+        final var builder = List.<A>builder();
+        for (var ls = this; !ls.isEmpty() && f.apply(ls.head()); ls = ls.tail()) {
+            builder.add(ls.head());
         }
-        var res = new TakeHelper().go(list(), this).eval();
-        return res.reverse();
-
-        //TODO: Fix the compiler error, to make the implementation functional.
-        //For some reason, this is not being accepted by the compiler.
-//        var res = foldLeft(List.<A>list(), ls -> a -> f.apply(a), acc -> v -> acc.cons(v));
-//
-//        return res._1.reverse();
+        return builder.build();
     }
 
     private static class Nil<A> extends List<A> {
@@ -1038,17 +1415,292 @@ public abstract class List<A> {
 
         @Override
         public void forEach(Effect<A> ef) {
-            class ForEachHelper {
-                TailCall<Nothing> go(List<A> ls) {
-                    return ls.isEmpty() ?
-                        ret(Nothing.instance)
-                            : sus (() -> {
-                        ef.apply(ls.head());
-                        return sus(() -> go(ls.tail()));
-                    });
+            for (List<A> ls = this; !ls.isEmpty(); ls = ls.tail()) {
+                ef.apply(ls.head());
+            }
+        }
+    }
+
+    /**
+     * A single-owner builder, which constructs a List from the first element to the
+     * last one. Functional code builds a list backwards with cons, and then has to
+     * reverse it, which allocates every cell twice. The builder instead collects the
+     * elements in an array, and build conses them from the last one, so each cell is
+     * allocated once, and the cells stay immutable.
+     * A builder must not be shared between threads. Once build has been called,
+     * the builder is reset, and can be used to construct a new list.
+     * @param <A> : Type parameter of the elements.
+     */
+    public static final class Builder<A> {
+        private static final Object[] NO_ELEMENTS = {};
+
+        private Object[] elements = NO_ELEMENTS;
+        private int size;
+
+        private Builder() {}
+
+        /**
+         * Adds an element at the end of the list being built.
+         * @param a : The element to be added.
+         * @return this builder.
+         */
+        public Builder<A> add(A a) {
+            if (size == elements.length) {
+                grow(size + 1);
+            }
+            elements[size++] = a;
+            return this;
+        }
+
+        /**
+         * Adds all the elements of the list at the end of the list being built.
+         * @param as : The elements to be added.
+         * @return this builder.
+         */
+        public Builder<A> addAll(List<A> as) {
+            if (size + as.length() > elements.length) {
+                grow(size + as.length());
+            }
+            for (; !as.isEmpty(); as = as.tail()) {
+                elements[size++] = as.head();
+            }
+            return this;
+        }
+
+        /**
+         * Moves the elements of that builder at the end of this one. That builder is
+         * reset.
+         */
+        private Builder<A> addBuilder(Builder<A> that) {
+            if (size + that.size > elements.length) {
+                grow(size + that.size);
+            }
+            System.arraycopy(that.elements, 0, elements, size, that.size);
+            size += that.size;
+            that.reset();
+            return this;
+        }
+
+        private void grow(int capacity) {
+            elements = Arrays.copyOf(elements, Math.max(capacity, Math.max(8, 2 * elements.length)));
+        }
+
+        private void reset() {
+            elements = NO_ELEMENTS;
+            size = 0;
+        }
+
+        /**
+         * @return the list holding the elements added so far, in the order in which
+         * they were added.
+         */
+        public List<A> build() {
+            return buildOnto(list());
+        }
+
+        /**
+         * Conses the elements added so far in front of the given list, which is
+         * shared, not copied.
+         */
+        @SuppressWarnings("unchecked")
+        private List<A> buildOnto(List<A> rest) {
+            var res = rest;
+            for (int i = size - 1; i >= 0; --i) {
+                res = new Cons<>((A) elements[i], res);
+            }
+            reset();
+            return res;
+        }
+    }
+
+    private static class ListSpliterator<A> implements Spliterator<A> {
+        private List<A> current;
+        private int remaining;
+
+        private ListSpliterator(List<A> current, int remaining) {
+            this.current = current;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super A> action) {
+            if (remaining <= 0) {
+                return false;
+            }
+
+            action.accept(current.head());
+            current = current.tail();
+            --remaining;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super A> action) {
+            for (; remaining > 0; --remaining, current = current.tail()) {
+                action.accept(current.head());
+            }
+        }
+
+        @Override
+        public Spliterator<A> trySplit() {
+            if (remaining < 2) {
+                return null;
+            }
+
+            final int half = remaining / 2;
+            final var prefix = new ListSpliterator<>(current, half);
+            current = current.drop(half);
+            remaining -= half;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class FoldTask<A, B> extends RecursiveTask<B> {
+        private final Object[] as;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final B identity;
+        private final Function<B, Function<A, B>> f;
+        private final Function<B, Function<B, B>> m;
+
+        private FoldTask(Object[] as, int from, int to, int threshold, B identity,
+                         Function<B, Function<A, B>> f, Function<B, Function<B, B>> m) {
+            this.as = as;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.identity = identity;
+            this.f = f;
+            this.m = m;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected B compute() {
+            if (to - from <= threshold) {
+                var acc = identity;
+                for (int i = from; i < to; ++i) {
+                    acc = f.apply(acc).apply((A) as[i]);
                 }
+                return acc;
             }
-            new ForEachHelper().go(this).eval();
+
+            final int mid = (from + to) >>> 1;
+            final var left = new FoldTask<>(as, from, mid, threshold, identity, f, m);
+            left.fork();
+            final var right = new FoldTask<>(as, mid, to, threshold, identity, f, m).compute();
+            return m.apply(left.join()).apply(right);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class ReduceTask<A> extends RecursiveTask<A> {
+        private final Object[] as;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final Function<A, Function<A, A>> m;
+
+        private ReduceTask(Object[] as, int from, int to, int threshold, Function<A, Function<A, A>> m) {
+            this.as = as;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.m = m;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected A compute() {
+            if (to - from <= threshold) {
+                var acc = (A) as[from];
+                for (int i = from + 1; i < to; ++i) {
+                    acc = m.apply(acc).apply((A) as[i]);
+                }
+                return acc;
+            }
+
+            final int mid = (from + to) >>> 1;
+            final var left = new ReduceTask<>(as, from, mid, threshold, m);
+            left.fork();
+            final var right = new ReduceTask<>(as, mid, to, threshold, m).compute();
+            return m.apply(left.join()).apply(right);
+        }
+    }
+
+    /**
+     * Applies the body to every index of a range, splitting the range in halves
+     * until it is below the threshold.
+     */
+    @SuppressWarnings("serial")
+    private static class RangeTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final IntConsumer body;
+
+        private RangeTask(int from, int to, int threshold, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; ++i) {
+                    body.accept(i);
+                }
+                return;
+            }
+
+            final int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, threshold, body), new RangeTask(mid, to, threshold, body));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class SortTask extends RecursiveAction {
+        private final Object[] as;
+        private final Object[] aux;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final Comparator<Object> c;
+
+        private SortTask(Object[] as, Object[] aux, int from, int to, int threshold, Comparator<Object> c) {
+            this.as = as;
+            this.aux = aux;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.c = c;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                mergeSort(as, aux, from, to, c);
+                return;
+            }
+
+            final int mid = (from + to) >>> 1;
+            invokeAll(new SortTask(as, aux, from, mid, threshold, c), new SortTask(as, aux, mid, to, threshold, c));
+            merge(as, aux, from, mid, to, c);
+            System.arraycopy(aux, from, as, from, to - from);
         }
     }
 
@@ -1074,6 +1726,14 @@ public abstract class List<A> {
         return NIL;
     }
 
+    /**
+     * @param <A> : Type parameter of the elements.
+     * @return a new builder, to construct a list from its first element to its last one.
+     */
+    public static <A> Builder<A> builder() {
+        return new Builder<>();
+    }
+
     /**
      * A convenience method to construct a list of elements from an array of
      * elements.
@@ -1085,14 +1745,7 @@ public abstract class List<A> {
      */
     @SafeVarargs
     public static <A> List<A> list(A... as) {
-        class ListHelper {
-            TailCall<List<A>> go(List<A> acc, int i) {
-                //Need to construct the list from reverse, so do downcounting.
-                return i >= 0  ? sus(() -> go(new Cons<>(as[i], acc), i-1)) : ret(acc);
-            }
-        }
-
-        return new ListHelper().go(list(), as.length - 1).eval();
+        return fromArray(as, as.length);
     }
 
     /**
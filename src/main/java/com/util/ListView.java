@@ -0,0 +1,199 @@
+package com.util;
+
+import com.functional.Effect;
+import com.functional.Function;
+
+/**
+ * A lazy view over a List. The operations called on a view (map, filter, takeAtMost,
+ * takeWhile, drop) are only recorded, and no intermediate list is built. They are
+ * run when a terminal operation (toList, foldLeft, first, exists, forAll, forEach)
+ * is called, in a single pass over the source list:
+ * -> Each element of the source list is pushed through the whole chain of operations
+ * before the next one is read.
+ * -> Each operation may stop the pass, which lets takeAtMost, takeWhile, first,
+ * exists and forAll return without reading the rest of the source list.
+ * A view holds no state between two terminal operations, so it can be run many times.
+ * @param <A> : Type parameter of the elements produced by the view.
+ */
+public final class ListView<A> {
+    private final Pipeline<A> pipeline;
+
+    private ListView(Pipeline<A> pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * Receives the elements pushed by a pipeline.
+     */
+    private interface Sink<A> {
+        /**
+         * @return true if the pipeline should push the next element, false to stop it.
+         */
+        boolean accept(A a);
+    }
+
+    /**
+     * Pushes the elements of the view into a sink, until there are no more elements
+     * or the sink asks to stop.
+     */
+    private interface Pipeline<A> {
+        void run(Sink<A> sink);
+    }
+
+    /**
+     * Creates a view over the elements of the list.
+     * @param ls : The source list.
+     * @param <A> : Type parameter of the elements.
+     * @return the view over the list.
+     */
+    static <A> ListView<A> of(List<A> ls) {
+        return new ListView<>(sink -> {
+            var as = ls;
+            while (!as.isEmpty() && sink.accept(as.head())) {
+                as = as.tail();
+            }
+        });
+    }
+
+    /**
+     * Records the mapping of the elements of the view.
+     * @param f : The function to be applied to each element.
+     * @param <B> : The type into which the function maps each element.
+     * @return the view of the mapped elements.
+     */
+    public <B> ListView<B> map(Function<A, B> f) {
+        return new ListView<>(sink -> pipeline.run(a -> sink.accept(f.apply(a))));
+    }
+
+    /**
+     * Records the filtering of the elements of the view.
+     * @param p : The predicate to be applied to each element.
+     * @return the view of the elements for which the predicate returns true.
+     */
+    public ListView<A> filter(Function<A, Boolean> p) {
+        return new ListView<>(sink -> pipeline.run(a -> !p.apply(a) || sink.accept(a)));
+    }
+
+    /**
+     * Records the truncation of the view to its first n elements. The pass stops
+     * as soon as the n-th element has been pushed.
+     * @param n : The maximum number of elements to keep.
+     * @return the view of the first n elements.
+     */
+    public ListView<A> takeAtMost(int n) {
+        return new ListView<>(sink -> {
+            if (n > 0) {
+                final var count = new int[] {0};
+                pipeline.run(a -> sink.accept(a) && ++count[0] < n);
+            }
+        });
+    }
+
+    /**
+     * Records the truncation of the view to its first elements for which the predicate
+     * returns true. The pass stops at the first element for which it returns false.
+     * @param p : The predicate to be applied to each element.
+     * @return the view of the first elements satisfying the predicate.
+     */
+    public ListView<A> takeWhile(Function<A, Boolean> p) {
+        return new ListView<>(sink -> pipeline.run(a -> p.apply(a) && sink.accept(a)));
+    }
+
+    /**
+     * Records the removal of the first n elements of the view.
+     * @param n : The number of elements to drop.
+     * @return the view of the remaining elements.
+     */
+    public ListView<A> drop(int n) {
+        return new ListView<>(sink -> {
+            final var count = new int[] {0};
+            pipeline.run(a -> count[0]++ < n || sink.accept(a));
+        });
+    }
+
+    /**
+     * Runs the view, and collects the elements into a list.
+     * @return the list of the elements of the view.
+     */
+    public List<A> toList() {
+        final var builder = List.<A>builder();
+        pipeline.run(a -> {
+            builder.add(a);
+            return true;
+        });
+        return builder.build();
+    }
+
+    /**
+     * Runs the view, and folds the elements from left to right.
+     * @param identity : The identity of the operation. This will be returned if the
+     *                 view has no elements.
+     * @param f : Accumulating function, which accepts a parameter of type B, and returns
+     *          a function that accepts a parameter of type A and returns a B.
+     * @param <B> : The type of reduction element.
+     * @return the reduced type object.
+     */
+    public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
+        final var acc = new Object[] {identity};
+        pipeline.run(a -> {
+            acc[0] = f.apply(cast(acc[0])).apply(a);
+            return true;
+        });
+        return cast(acc[0]);
+    }
+
+    /**
+     * Runs the view until an element satisfies the predicate.
+     * @param p : The predicate to be applied to each element.
+     * @return the Result holding the first element satisfying the predicate, or a
+     * failure if there is none.
+     */
+    public Result<A> first(Function<A, Boolean> p) {
+        final var res = new Object[] {null};
+        final var found = new boolean[] {false};
+        pipeline.run(a -> {
+            if (p.apply(a)) {
+                res[0] = a;
+                found[0] = true;
+            }
+            return !found[0];
+        });
+        return found[0] ? Result.success(cast(res[0])) : Result.failure("Empty list");
+    }
+
+    /**
+     * Runs the view until an element satisfies the predicate.
+     * @param p : The predicate to be applied to each element.
+     * @return true if the predicate returns true for an element, false otherwise.
+     */
+    public boolean exists(Function<A, Boolean> p) {
+        final var found = new boolean[] {false};
+        pipeline.run(a -> !(found[0] = p.apply(a)));
+        return found[0];
+    }
+
+    /**
+     * Runs the view until an element does not satisfy the predicate.
+     * @param p : The predicate to be applied to each element.
+     * @return true if the predicate returns true for all the elements, false otherwise.
+     */
+    public boolean forAll(Function<A, Boolean> p) {
+        return !exists(a -> !p.apply(a));
+    }
+
+    /**
+     * Runs the view, and applies the given effect to each element.
+     * @param ef : The effect to be applied.
+     */
+    public void forEach(Effect<A> ef) {
+        pipeline.run(a -> {
+            ef.apply(a);
+            return true;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object o) {
+        return (T) o;
+    }
+}
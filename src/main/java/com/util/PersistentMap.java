@@ -0,0 +1,605 @@
+package com.util;
+
+import com.functional.Effect;
+import com.functional.Function;
+import com.functional.Tuple;
+
+import static com.util.Result.success;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable map, implemented as a hash array mapped trie (HAMT), as described
+ * by Phil Bagwell in "Ideal Hash Trees". Whereas the Map class wraps a mutable
+ * ConcurrentHashMap, every update of this map returns a new map, which shares all
+ * the nodes but the modified path with the original one. Taking a snapshot of a
+ * map is therefore free, since the map itself is the snapshot.
+ * -> The hash of a key is consumed 5 bits at a time, one level of the trie per
+ * 5 bits, so the trie is at most seven levels deep.
+ * -> Each node holds a 32 bits bitmap of the slots in use, and an array holding
+ * only these slots. Each slot holds either a key and its value, or a child node.
+ * -> The keys having the same hash are held in a collision node.
+ * get, put and remove run in O(log32 n) time.
+ * Many updates can be batched with a Transient, obtained from asTransient, which
+ * updates in place the nodes it has already copied, and then returns a new
+ * persistent map in O(1) time.
+ * @param <K> : Type parameter of the keys.
+ * @param <V> : Type parameter of the values.
+ */
+public final class PersistentMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final Object NOT_FOUND = new Object();
+
+    private static final Node EMPTY_NODE = new BitmapNode(null, 0, new Object[0]);
+
+    @SuppressWarnings("rawtypes")
+    private static final PersistentMap EMPTY = new PersistentMap<>(EMPTY_NODE, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return the number of entries in the map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the map is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value associated to the key, wrapped in a Result object.
+     * @param key : The key to look for.
+     * @return a success holding the value, or an empty Result if the key is absent.
+     */
+    public Result<V> get(K key) {
+        return lookup(root, key);
+    }
+
+    /**
+     * @param key : The key to look for.
+     * @return true if the map holds an entry for the key, false otherwise.
+     */
+    public boolean containsKey(K key) {
+        return root.find(0, hash(key), key) != NOT_FOUND;
+    }
+
+    /**
+     * Associates the value to the key, replacing the previous value if any.
+     * @param key : The key of the entry.
+     * @param value : The value of the entry.
+     * @return the map holding the entry.
+     */
+    public PersistentMap<K, V> put(K key, V value) {
+        final var added = new boolean[1];
+        final var newRoot = root.put(null, 0, hash(key), key, value, added);
+        return newRoot == root ? this : new PersistentMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Removes the entry of the key, if any.
+     * @param key : The key of the entry to be removed.
+     * @return the map without the entry.
+     */
+    public PersistentMap<K, V> remove(K key) {
+        final var removed = new boolean[1];
+        final var newRoot = root.remove(null, 0, hash(key), key, removed);
+        return !removed[0] ? this : newRoot == null ? empty() : new PersistentMap<>(newRoot, size - 1);
+    }
+
+    /**
+     * Merges two maps. The entries of the smaller map are put into a transient copy
+     * of the larger one, so the runtime is O(m log32 n), where m is the size of the
+     * smaller map, and the nodes of the larger map which are not updated are shared.
+     * @param that : The map to be merged with this one.
+     * @param f : The function combining the values of the keys present in both maps.
+     *          It receives the value of this map first.
+     * @return the map holding the entries of both maps.
+     */
+    public PersistentMap<K, V> merge(PersistentMap<K, V> that, Function<V, Function<V, V>> f) {
+        if (that.size > size) {
+            return that.merge(this, v2 -> v1 -> f.apply(v1).apply(v2));
+        }
+
+        final var res = asTransient();
+        that.forEachEntry((k, v) -> res.put(k, res.get(k).map(v1 -> f.apply(v1).apply(v)).getOrElse(v)));
+        return res.persistent();
+    }
+
+    /**
+     * Folds the entries of the map, in no particular order.
+     * @param identity : The identity of the operation. This will be returned if the
+     *                 map is empty.
+     * @param f : Accumulating function, which accepts a parameter of type B, and returns
+     *          a function that accepts an entry and returns a B.
+     * @param <B> : The type of reduction element.
+     * @return the reduced type object.
+     */
+    public <B> B foldLeft(B identity, Function<B, Function<Tuple<K, V>, B>> f) {
+        final var acc = new Object[] {identity};
+        forEachEntry((k, v) -> acc[0] = f.apply(cast(acc[0])).apply(Tuple.create(k, v)));
+        return cast(acc[0]);
+    }
+
+    /**
+     * Applies the given effect to each entry of the map, in no particular order.
+     * @param ef : The effect to be applied.
+     */
+    public void forEach(Effect<Tuple<K, V>> ef) {
+        forEachEntry((k, v) -> ef.apply(Tuple.create(k, v)));
+    }
+
+    /**
+     * @return the list of the entries of the map, in no particular order.
+     */
+    public List<Tuple<K, V>> entries() {
+        final var builder = List.<Tuple<K, V>>builder();
+        forEachEntry((k, v) -> builder.add(Tuple.create(k, v)));
+        return builder.build();
+    }
+
+    /**
+     * @return the list of the keys of the map, in no particular order.
+     */
+    public List<K> keys() {
+        final var builder = List.<K>builder();
+        forEachEntry((k, v) -> builder.add(k));
+        return builder.build();
+    }
+
+    /**
+     * @return the list of the values of the map, in the same order as keys.
+     */
+    public List<V> values() {
+        final var builder = List.<V>builder();
+        forEachEntry((k, v) -> builder.add(v));
+        return builder.build();
+    }
+
+    /**
+     * Returns a transient copy of this map, to batch many updates. The map itself is
+     * not modified.
+     * @return the transient map holding the entries of this map.
+     */
+    public Transient<K, V> asTransient() {
+        return new Transient<>(root, size);
+    }
+
+    private void forEachEntry(BiConsumer<K, V> action) {
+        root.forEach((k, v) -> action.accept(cast(k), cast(v)));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PersistentMap)) return false;
+
+        final PersistentMap<?, ?> that = (PersistentMap<?, ?>) o;
+        if (size != that.size) return false;
+
+        final var equal = new boolean[] {true};
+        forEachEntry((k, v) -> {
+            if (equal[0]) {
+                final var other = that.root.find(0, hash(k), k);
+                equal[0] = other != NOT_FOUND && Objects.equals(v, other);
+            }
+        });
+        return equal[0];
+    }
+
+    @Override
+    public int hashCode() {
+        final var res = new int[1];
+        forEachEntry((k, v) -> res[0] += Objects.hashCode(k) ^ Objects.hashCode(v));
+        return res[0];
+    }
+
+    @Override
+    public String toString() {
+        final var sb = new StringBuilder("{");
+        forEachEntry((k, v) -> sb.append(sb.length() > 1 ? ", " : "").append(k).append('=').append(v));
+        return sb.append('}').toString();
+    }
+
+    /**
+     * A map which can be updated in place, to build a persistent map in a batch. The
+     * nodes copied by a transient belong to it, and are updated in place by the next
+     * updates, so a batch of updates copies each node at most once.
+     * A transient must not be shared between threads, and must not be used anymore
+     * once persistent has been called.
+     * @param <K> : Type parameter of the keys.
+     * @param <V> : Type parameter of the values.
+     */
+    public static final class Transient<K, V> {
+        private final Owner owner = new Owner();
+        private Node root;
+        private int size;
+
+        private Transient(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        /**
+         * Associates the value to the key, replacing the previous value if any.
+         * @param key : The key of the entry.
+         * @param value : The value of the entry.
+         * @return this transient map.
+         */
+        public Transient<K, V> put(K key, V value) {
+            ensureEditable();
+            final var added = new boolean[1];
+            root = root.put(owner, 0, hash(key), key, value, added);
+            size += added[0] ? 1 : 0;
+            return this;
+        }
+
+        /**
+         * Removes the entry of the key, if any.
+         * @param key : The key of the entry to be removed.
+         * @return this transient map.
+         */
+        public Transient<K, V> remove(K key) {
+            ensureEditable();
+            final var removed = new boolean[1];
+            final var newRoot = root.remove(owner, 0, hash(key), key, removed);
+            root = newRoot == null ? EMPTY_NODE : newRoot;
+            size -= removed[0] ? 1 : 0;
+            return this;
+        }
+
+        /**
+         * @param key : The key to look for.
+         * @return a success holding the value, or an empty Result if the key is absent.
+         */
+        public Result<V> get(K key) {
+            ensureEditable();
+            return lookup(root, key);
+        }
+
+        /**
+         * @return the number of entries in the map.
+         */
+        public int size() {
+            ensureEditable();
+            return size;
+        }
+
+        /**
+         * Ends the batch of updates, and returns the map holding the entries.
+         * @return the persistent map holding the entries of this transient.
+         */
+        public PersistentMap<K, V> persistent() {
+            ensureEditable();
+            owner.active = false;
+            return size == 0 ? empty() : new PersistentMap<>(root, size);
+        }
+
+        private void ensureEditable() {
+            if (!owner.active) {
+                throw new IllegalStateException("Transient used after persistent() call");
+            }
+        }
+    }
+
+    /**
+     * The identity of a transient. The nodes created by a transient hold its owner,
+     * and only them may be updated in place.
+     */
+    private static final class Owner {
+        private boolean active = true;
+    }
+
+    private abstract static class Node {
+        protected final Owner owner;
+
+        private Node(Owner owner) {
+            this.owner = owner;
+        }
+
+        /**
+         * @return true if the node belongs to the given transient, and may be updated
+         * in place.
+         */
+        boolean isEditable(Owner owner) {
+            return owner != null && this.owner == owner;
+        }
+
+        /**
+         * @return the value of the key, or NOT_FOUND.
+         */
+        abstract Object find(int shift, int hash, Object key);
+
+        /**
+         * @return the node holding the entry. added[0] is set to true if the key was
+         * not present.
+         */
+        abstract Node put(Owner owner, int shift, int hash, Object key, Object value, boolean[] added);
+
+        /**
+         * @return the node without the entry, or null if the node became empty.
+         * removed[0] is set to true if the key was present.
+         */
+        abstract Node remove(Owner owner, int shift, int hash, Object key, boolean[] removed);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+    }
+
+    private static final class BitmapNode extends Node {
+        private int bitmap;
+        private Object[] array;
+
+        private BitmapNode(Owner owner, int bitmap, Object[] array) {
+            super(owner);
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            final int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+
+            final int i = 2 * index(bit);
+            final var v = array[i + 1];
+            if (v instanceof Node) {
+                return ((Node) v).find(shift + BITS, hash, key);
+            }
+            return Objects.equals(array[i], key) ? v : NOT_FOUND;
+        }
+
+        @Override
+        Node put(Owner owner, int shift, int hash, Object key, Object value, boolean[] added) {
+            final int bit = bitpos(hash, shift);
+            final int i = 2 * index(bit);
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                final var newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, i);
+                newArray[i] = key;
+                newArray[i + 1] = value;
+                System.arraycopy(array, i, newArray, i + 2, array.length - i);
+                return update(owner, bitmap | bit, newArray);
+            }
+
+            final var k = array[i];
+            final var v = array[i + 1];
+            if (v instanceof Node) {
+                final var child = ((Node) v).put(owner, shift + BITS, hash, key, value, added);
+                return child == v ? this : set(owner, i, null, child);
+            }
+
+            if (Objects.equals(k, key)) {
+                return v == value ? this : set(owner, i, k, value);
+            }
+
+            added[0] = true;
+            final var child = createNode(owner, shift + BITS, k, v, hash, key, value);
+            return set(owner, i, null, child);
+        }
+
+        @Override
+        Node remove(Owner owner, int shift, int hash, Object key, boolean[] removed) {
+            final int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+
+            final int i = 2 * index(bit);
+            final var v = array[i + 1];
+            if (v instanceof Node) {
+                final var child = ((Node) v).remove(owner, shift + BITS, hash, key, removed);
+                if (child == v) {
+                    return this;
+                }
+                if (child != null) {
+                    return set(owner, i, null, child);
+                }
+            } else if (!Objects.equals(array[i], key)) {
+                return this;
+            } else {
+                removed[0] = true;
+            }
+
+            if (bitmap == bit) {
+                return null;
+            }
+
+            final var newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+            return update(owner, bitmap ^ bit, newArray);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i + 1] instanceof Node) {
+                    ((Node) array[i + 1]).forEach(action);
+                } else {
+                    action.accept(array[i], array[i + 1]);
+                }
+            }
+        }
+
+        /**
+         * Replaces the slot starting at index i of the array.
+         */
+        private BitmapNode set(Owner owner, int i, Object key, Object value) {
+            final var newArray = isEditable(owner) ? array : array.clone();
+            newArray[i] = key;
+            newArray[i + 1] = value;
+            return update(owner, bitmap, newArray);
+        }
+
+        private BitmapNode update(Owner owner, int bitmap, Object[] array) {
+            if (isEditable(owner)) {
+                this.bitmap = bitmap;
+                this.array = array;
+                return this;
+            }
+            return new BitmapNode(owner, bitmap, array);
+        }
+    }
+
+    private static final class CollisionNode extends Node {
+        private final int hash;
+        private Object[] array;
+
+        private CollisionNode(Owner owner, int hash, Object[] array) {
+            super(owner);
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (Objects.equals(array[i], key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            final int i = indexOf(key);
+            return i < 0 ? NOT_FOUND : array[i + 1];
+        }
+
+        @Override
+        Node put(Owner owner, int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                // Push this node one level down, below a bitmap node.
+                return new BitmapNode(owner, bitpos(this.hash, shift), new Object[] {null, this})
+                        .put(owner, shift, hash, key, value, added);
+            }
+
+            final int i = indexOf(key);
+            final Object[] newArray;
+            if (i >= 0) {
+                if (array[i + 1] == value) {
+                    return this;
+                }
+                newArray = isEditable(owner) ? array : array.clone();
+                newArray[i + 1] = value;
+            } else {
+                added[0] = true;
+                newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, array.length);
+                newArray[array.length] = key;
+                newArray[array.length + 1] = value;
+            }
+            return update(owner, newArray);
+        }
+
+        @Override
+        Node remove(Owner owner, int shift, int hash, Object key, boolean[] removed) {
+            final int i = indexOf(key);
+            if (i < 0) {
+                return this;
+            }
+
+            removed[0] = true;
+            if (array.length == 2) {
+                return null;
+            }
+
+            final var newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+            return update(owner, newArray);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept(array[i], array[i + 1]);
+            }
+        }
+
+        private CollisionNode update(Owner owner, Object[] array) {
+            if (isEditable(owner)) {
+                this.array = array;
+                return this;
+            }
+            return new CollisionNode(owner, hash, array);
+        }
+    }
+
+    /**
+     * Creates the node holding two entries, whose keys fell in the same slot at the
+     * previous level.
+     */
+    private static Node createNode(Owner owner, int shift, Object k1, Object v1, int h2, Object k2, Object v2) {
+        final int h1 = hash(k1);
+        if (h1 == h2) {
+            return new CollisionNode(owner, h1, new Object[] {k1, v1, k2, v2});
+        }
+
+        final var added = new boolean[1];
+        return EMPTY_NODE.put(owner, shift, h1, k1, v1, added).put(owner, shift, h2, k2, v2, added);
+    }
+
+    private static int hash(Object key) {
+        final int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitpos(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static <V> Result<V> lookup(Node root, Object key) {
+        final var v = root.find(0, hash(key), key);
+        return v == NOT_FOUND ? Result.empty() : success(cast(v));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object o) {
+        return (T) o;
+    }
+
+    /**
+     * @param <K> : Type parameter of the keys.
+     * @param <V> : Type parameter of the values.
+     * @return the empty map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a map from a list of entries. When a key appears more than once, the
+     * last value wins.
+     * @param entries : The entries of the map.
+     * @param <K> : Type parameter of the keys.
+     * @param <V> : Type parameter of the values.
+     * @return the map holding the entries.
+     */
+    public static <K, V> PersistentMap<K, V> fromList(List<Tuple<K, V>> entries) {
+        final var res = PersistentMap.<K, V>empty().asTransient();
+        entries.forEach(t -> res.put(t._1, t._2));
+        return res.persistent();
+    }
+}
@@ -0,0 +1,214 @@
+package com.util;
+
+import com.functional.Effect;
+import com.functional.Function;
+import com.functional.Nothing;
+
+/**
+ * An immutable set, backed by a PersistentMap whose values are ignored. As for the
+ * map, every update returns a new set sharing most of its nodes with the original
+ * one, and contains, add and remove run in O(log32 n) time.
+ * @param <A> : Type parameter of the elements.
+ */
+public final class PersistentSet<A> {
+    @SuppressWarnings("rawtypes")
+    private static final PersistentSet EMPTY = new PersistentSet<>(PersistentMap.empty());
+
+    private final PersistentMap<A, Nothing> map;
+
+    private PersistentSet(PersistentMap<A, Nothing> map) {
+        this.map = map;
+    }
+
+    /**
+     * @return the number of elements in the set.
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * @return true if the set is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    /**
+     * @param a : The element to look for.
+     * @return true if the set holds the element, false otherwise.
+     */
+    public boolean contains(A a) {
+        return map.containsKey(a);
+    }
+
+    /**
+     * @param a : The element to be added.
+     * @return the set holding the element.
+     */
+    public PersistentSet<A> add(A a) {
+        return wrap(map.put(a, Nothing.instance));
+    }
+
+    /**
+     * @param a : The element to be removed.
+     * @return the set without the element.
+     */
+    public PersistentSet<A> remove(A a) {
+        return wrap(map.remove(a));
+    }
+
+    /**
+     * Returns the union of two sets. The elements of the smaller set are added to the
+     * larger one, whose nodes are shared by the result.
+     * @param that : The set to be merged with this one.
+     * @return the set holding the elements of both sets.
+     */
+    public PersistentSet<A> union(PersistentSet<A> that) {
+        return wrap(map.merge(that.map, x -> y -> x));
+    }
+
+    /**
+     * Folds the elements of the set, in no particular order.
+     * @param identity : The identity of the operation. This will be returned if the
+     *                 set is empty.
+     * @param f : Accumulating function, which accepts a parameter of type B, and returns
+     *          a function that accepts an element and returns a B.
+     * @param <B> : The type of reduction element.
+     * @return the reduced type object.
+     */
+    public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
+        return map.foldLeft(identity, acc -> t -> f.apply(acc).apply(t._1));
+    }
+
+    /**
+     * Applies the given effect to each element of the set, in no particular order.
+     * @param ef : The effect to be applied.
+     */
+    public void forEach(Effect<A> ef) {
+        map.forEach(t -> ef.apply(t._1));
+    }
+
+    /**
+     * @return the list of the elements of the set, in no particular order.
+     */
+    public List<A> toList() {
+        return map.keys();
+    }
+
+    /**
+     * Returns a transient copy of this set, to batch many updates. The set itself is
+     * not modified.
+     * @return the transient set holding the elements of this set.
+     */
+    public Transient<A> asTransient() {
+        return new Transient<>(map.asTransient());
+    }
+
+    private PersistentSet<A> wrap(PersistentMap<A, Nothing> newMap) {
+        return newMap == map ? this : newMap.isEmpty() ? empty() : new PersistentSet<>(newMap);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PersistentSet && map.equals(((PersistentSet<?>) o).map);
+    }
+
+    @Override
+    public int hashCode() {
+        return map.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return foldLeft(new StringBuilder("{"), acc -> a -> acc.append(acc.length() > 1 ? ", " : "").append(a))
+                .append('}').toString();
+    }
+
+    /**
+     * A set which can be updated in place, to build a persistent set in a batch. As
+     * for PersistentMap.Transient, it must not be shared between threads, and must
+     * not be used anymore once persistent has been called.
+     * @param <A> : Type parameter of the elements.
+     */
+    public static final class Transient<A> {
+        private final PersistentMap.Transient<A, Nothing> map;
+
+        private Transient(PersistentMap.Transient<A, Nothing> map) {
+            this.map = map;
+        }
+
+        /**
+         * @param a : The element to be added.
+         * @return this transient set.
+         */
+        public Transient<A> add(A a) {
+            map.put(a, Nothing.instance);
+            return this;
+        }
+
+        /**
+         * @param a : The element to be removed.
+         * @return this transient set.
+         */
+        public Transient<A> remove(A a) {
+            map.remove(a);
+            return this;
+        }
+
+        /**
+         * @param a : The element to look for.
+         * @return true if the set holds the element, false otherwise.
+         */
+        public boolean contains(A a) {
+            return map.get(a).isSuccess();
+        }
+
+        /**
+         * @return the number of elements in the set.
+         */
+        public int size() {
+            return map.size();
+        }
+
+        /**
+         * Ends the batch of updates, and returns the set holding the elements.
+         * @return the persistent set holding the elements of this transient.
+         */
+        public PersistentSet<A> persistent() {
+            final var res = map.persistent();
+            return res.isEmpty() ? empty() : new PersistentSet<>(res);
+        }
+    }
+
+    /**
+     * @param <A> : Type parameter of the elements.
+     * @return the empty set.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> PersistentSet<A> empty() {
+        return EMPTY;
+    }
+
+    /**
+     * A convenience method to construct a set from an array of elements.
+     * @param as : The elements of the set.
+     * @param <A> : Type parameter of the elements.
+     * @return the set holding the elements.
+     */
+    @SafeVarargs
+    public static <A> PersistentSet<A> of(A... as) {
+        return fromList(List.list(as));
+    }
+
+    /**
+     * @param ls : The elements of the set.
+     * @param <A> : Type parameter of the elements.
+     * @return the set holding the elements of the list.
+     */
+    public static <A> PersistentSet<A> fromList(List<A> ls) {
+        final var res = PersistentSet.<A>empty().asTransient();
+        ls.forEach(res::add);
+        return res.persistent();
+    }
+}
@@ -1,14 +1,10 @@
 package com.util;
 
-import static com.functional.Case.match;
-import static com.functional.Case.mcase;
-
 import static com.util.List.list;
-import static com.util.Result.success;
 
 import com.functional.Function;
-import com.functional.QuadFunction;
 import com.functional.TailCall;
+import com.functional.Tuple;
 
 /**
  * A Red-Black tree is a binary search tree (BST) with some additions to its
@@ -23,12 +19,14 @@ import com.functional.TailCall;
  */
 public abstract class RBTree<A extends Comparable<A>> {
     private static RBTree E = new E();
+    private static RBTree EE = new EE();
 
     /**
      * Colors are used through static singletons.
      */
     private static Color R = new Red();
     private static Color B = new Black();
+    private static Color BB = new DoubleBlack();
 
     /**
      * Methods are defined to test each characteristic of a tree (emptiness,
@@ -41,6 +39,18 @@ public abstract class RBTree<A extends Comparable<A>> {
     protected abstract boolean isTB();
     protected abstract boolean isTR();
 
+    /**
+     * Double black trees only appear while an element is being removed, and are
+     * gone once remove returns.
+     * @return true if the tree is the double black empty tree, or a double black node.
+     */
+    protected abstract boolean isBB();
+
+    /**
+     * @return the tree with one black less at its root, for a double black tree.
+     */
+    protected abstract RBTree<A> unDouble();
+
     public abstract boolean isEmpty();
 
     protected abstract RBTree<A> right();
@@ -56,54 +66,51 @@ public abstract class RBTree<A extends Comparable<A>> {
     @Override
     public abstract String toString();
 
-    private final QuadFunction<Color, RBTree<A>, A, RBTree<A>, Result<RBTree<A>>> balancer =
-            (Color color, RBTree<A> left, A value, RBTree<A> right) -> match(
-                    /**
-                     * Default case is no balancing. Just instantiate a tree with the
-                     * provided arguments.
-                     */
-                    mcase(() -> success(new T<>(color, left, value, right))),
-                    /**
-                     * Check if the left and the left child of left are both red.
-                     * If so, return a right rotated tree, with left as root, left's left
-                     * subtree as subtree of new root(left), the left's right subtree as
-                     * new root's right's left child, and the right parameter as the right
-                     * subtree of the right child of the new root.
-                     */
-                    mcase(() -> color.isB() && left.isTR() && left.left().isTR(),
-                            () -> success(new T<>(R, new T<>(B, left.left().left(), left.left().value(),
-                                    left.left().right()),
-                                    left.value(), new T<>(B, left.right(), value, right)))),
-                    /**
-                     * Check if the left and the right child of left are both red.
-                     * If so, return a left rotated tree, with the right subtree of the left
-                     * child as the root, left subtree of left child as the left subtree,
-                     * the value, together with right subtree of right child of left and right parameter
-                     * together forming the right subtree.
-                     */
-                    mcase(() -> color.isB() && left.isTR() && left.right().isTR(),
-                            () ->success(new T<>(R, new T<>(B, left.left(), left.value(), left.right().left()),
-                                    left.right().value(),
-                                    new T<>(B, left.right().right(), value, right)))),
-                    /**
-                     * Check if the right and the left child of right are both red.
-                     */
-                    mcase(() -> color.isB() && right.isTR() && right.left().isTR(),
-                            () -> success(new T<>(R, new T<>(B, left, value, right.left().left()), right.left().value(),
-                                    new T<>(B,
-                                    right.left().right(), right.value(), right.right())))),
-                    /**
-                     * Check if the right and the right child of right are both red.
-                     */
-                    mcase(() -> color.isB() && right.isTR() && right.right().isTR(),
-                            () -> success(new T<>(R, new T<>(B, left, value, right.left()), right.value(), new T<>(B,
-                                    right.right().left(),
-                                    right.right().value(), right.right().right()))))
-            );
-
-    @SuppressWarnings("unchecked")
+    /**
+     * Builds a tree, rotating it when a black node has a red child which itself has a
+     * red child. The cases are tried in this order, and the first one which applies
+     * gives the result:
+     * -> The left and the left child of left are both red: left becomes the root, with
+     * its left child and a tree made of its right child, value and right as children.
+     * -> The left and the right child of left are both red: the right child of left
+     * becomes the root.
+     * -> The right and the left child of right are both red: the left child of right
+     * becomes the root.
+     * -> The right and the right child of right are both red: right becomes the root.
+     * In each case the new root is red, and its children are black. Otherwise, no
+     * balancing is needed, and the tree is built as is.
+     * The cases are plain branches rather than a match over Case objects, since this
+     * runs at every level of every insertion, and must not allocate more than the
+     * nodes it returns.
+     */
     RBTree<A> balance(Color color, RBTree<A> left, A value, RBTree<A> right) {
-        return balancer.apply(color,left, value, right).getOrElse(this);
+        if (color.isB()) {
+            if (left.isTR()) {
+                final var ll = left.left();
+                if (ll.isTR()) {
+                    return new T<>(R, new T<>(B, ll.left(), ll.value(), ll.right()),
+                            left.value(), new T<>(B, left.right(), value, right));
+                }
+                final var lr = left.right();
+                if (lr.isTR()) {
+                    return new T<>(R, new T<>(B, left.left(), left.value(), lr.left()),
+                            lr.value(), new T<>(B, lr.right(), value, right));
+                }
+            }
+            if (right.isTR()) {
+                final var rl = right.left();
+                if (rl.isTR()) {
+                    return new T<>(R, new T<>(B, left, value, rl.left()),
+                            rl.value(), new T<>(B, rl.right(), right.value(), right.right()));
+                }
+                final var rr = right.right();
+                if (rr.isTR()) {
+                    return new T<>(R, new T<>(B, left, value, right.left()),
+                            right.value(), new T<>(B, rr.left(), rr.value(), rr.right()));
+                }
+            }
+        }
+        return new T<>(color, left, value, right);
     }
 
     abstract RBTree<A> ins(A value);
@@ -131,6 +138,85 @@ public abstract class RBTree<A extends Comparable<A>> {
         return blacken(ins(value));
     }
 
+    abstract RBTree<A> del(A value);
+
+    abstract Tuple<A, RBTree<A>> minDel();
+
+    /**
+     * This function removes an element from the tree, in O(log(n)) time, using the
+     * algorithm described by Germane and Might in "Deletion: The curse of the
+     * red-black tree" (https://matt.might.net/articles/red-black-delete/):
+     * -> Removing a black leaf leaves a double black empty tree in its place, which
+     * counts as two blacks, so that every path still has the same number of blacks.
+     * -> Removing an element with two subtrees replaces it by the minimum of its right
+     * subtree, which is removed from there, and is always a leaf or the parent of a
+     * single red leaf.
+     * -> On the way up, rotate moves the extra black of a double black subtree into
+     * its sibling, which is reddened, and balance fixes the red-red violations which
+     * this may create. A double black which cannot be absorbed moves up to the parent.
+     * -> The root is reddened first when both its children are black, and blackened
+     * at the end, which removes a double black left at the root.
+     * @param value : to be removed from the tree.
+     * @return the tree without the value, or an equal tree if it did not hold it.
+     */
+    public RBTree<A> remove(A value) {
+        return blacken(redden().del(value));
+    }
+
+    private RBTree<A> redden() {
+        return isTB() && left().isTB() && right().isTB() ? new T<>(R, left(), value(), right()) : this;
+    }
+
+    /**
+     * Builds a node after an element was removed from one of its subtrees, moving the
+     * extra black of a double black subtree into its sibling.
+     */
+    RBTree<A> rotate(Color color, RBTree<A> left, A value, RBTree<A> right) {
+        if (color.isR()) {
+            if (left.isBB() && right.isTB()) {
+                return balanceDel(B, new T<>(R, left.unDouble(), value, right.left()), right.value(), right.right());
+            }
+            if (left.isTB() && right.isBB()) {
+                return balanceDel(B, left.left(), left.value(), new T<>(R, left.right(), value, right.unDouble()));
+            }
+        } else if (color.isB()) {
+            if (left.isBB() && right.isTB()) {
+                return balanceDel(BB, new T<>(R, left.unDouble(), value, right.left()), right.value(), right.right());
+            }
+            if (left.isTB() && right.isBB()) {
+                return balanceDel(BB, left.left(), left.value(), new T<>(R, left.right(), value, right.unDouble()));
+            }
+            if (left.isBB() && right.isTR() && right.left().isTB()) {
+                return new T<>(B, balanceDel(B, new T<>(R, left.unDouble(), value, right.left().left()),
+                        right.left().value(), right.left().right()), right.value(), right.right());
+            }
+            if (left.isTR() && left.right().isTB() && right.isBB()) {
+                return new T<>(B, left.left(), left.value(), balanceDel(B, left.right().left(),
+                        left.right().value(), new T<>(R, left.right().right(), value, right.unDouble())));
+            }
+        }
+        return new T<>(color, left, value, right);
+    }
+
+    /**
+     * The balance of the removal: a double black node with a red child which has a red
+     * child is rotated into a black node, and other nodes are balanced as on insertion.
+     */
+    private RBTree<A> balanceDel(Color color, RBTree<A> left, A value, RBTree<A> right) {
+        if (color.isBB()) {
+            if (left.isTR() && left.right().isTR()) {
+                return new T<>(B, new T<>(B, left.left(), left.value(), left.right().left()), left.right().value(),
+                        new T<>(B, left.right().right(), value, right));
+            }
+            if (right.isTR() && right.left().isTR()) {
+                return new T<>(B, new T<>(B, left, value, right.left().left()), right.left().value(),
+                        new T<>(B, right.left().right(), right.value(), right.right()));
+            }
+            return new T<>(BB, left, value, right);
+        }
+        return balance(color, left, value, right);
+    }
+
     public abstract <B> B foldLeft(B identity, Function<B, Function<A, B>> f, Function<B, Function<B, B>> g);
 
     public abstract <B> B foldRight(B identity, Function<A, Function<B, B>> f, Function<B, Function<B, B>> g);
@@ -261,11 +347,31 @@ public abstract class RBTree<A extends Comparable<A>> {
             return "E";
         }
 
+        @Override
+        protected boolean isBB() {
+            return false;
+        }
+
+        @Override
+        protected RBTree<A> unDouble() {
+            return this;
+        }
+
         @Override
         RBTree<A> ins(A value) {
             return new T<>(R, empty(), value, empty());
         }
 
+        @Override
+        RBTree<A> del(A value) {
+            return this;
+        }
+
+        @Override
+        Tuple<A, RBTree<A>> minDel() {
+            throw new IllegalStateException("minDel called on Empty");
+        }
+
         @Override
         public <B> B foldLeft(B identity, Function<B, Function<A, B>> f, Function<B, Function<B, B>> g) {
             return identity;
@@ -320,6 +426,33 @@ public abstract class RBTree<A extends Comparable<A>> {
         }
     }
 
+    /**
+     * The double black empty tree, left in place of a black leaf which was removed.
+     * @param <A>
+     */
+    private static class EE<A extends Comparable<A>> extends E<A> {
+
+        @Override
+        protected boolean isB() {
+            return false;
+        }
+
+        @Override
+        protected boolean isBB() {
+            return true;
+        }
+
+        @Override
+        protected RBTree<A> unDouble() {
+            return empty();
+        }
+
+        @Override
+        public String toString() {
+            return "EE";
+        }
+    }
+
     private static class T<A extends Comparable<A>> extends RBTree<A> {
         private final RBTree<A> left;
         private final RBTree<A> right;
@@ -367,6 +500,16 @@ public abstract class RBTree<A extends Comparable<A>> {
             return true;
         }
 
+        @Override
+        protected boolean isBB() {
+            return color.isBB();
+        }
+
+        @Override
+        protected RBTree<A> unDouble() {
+            return new T<>(B, left, value, right);
+        }
+
         @Override
         public int size() {
             return length;
@@ -421,6 +564,41 @@ public abstract class RBTree<A extends Comparable<A>> {
                         : this;
         }
 
+        @Override
+        RBTree<A> del(A value) {
+            final int cmp = value.compareTo(this.value);
+            if (left.isEmpty() && right.isEmpty()) {
+                return cmp != 0 ? this : color.isR() ? empty() : doubleBlackEmpty();
+            }
+            //A black node whose only child is a red leaf on its left.
+            if (color.isB() && right.isEmpty()) {
+                return cmp < 0
+                        ? new T<>(B, left.del(value), this.value, right)
+                        : cmp == 0 ? new T<>(B, empty(), left.value(), empty()) : this;
+            }
+            if (cmp < 0) {
+                return rotate(color, left.del(value), this.value, right);
+            }
+            if (cmp > 0) {
+                return rotate(color, left, this.value, right.del(value));
+            }
+            final var min = right.minDel();
+            return rotate(color, left, min._1, min._2);
+        }
+
+        @Override
+        Tuple<A, RBTree<A>> minDel() {
+            if (left.isEmpty()) {
+                if (right.isEmpty()) {
+                    return Tuple.create(value, color.isR() ? empty() : doubleBlackEmpty());
+                }
+                //A black node whose only child is a red leaf on its right.
+                return Tuple.create(value, new T<>(B, empty(), right.value(), empty()));
+            }
+            final var min = left.minDel();
+            return Tuple.create(min._1, rotate(color, min._2, value, right));
+        }
+
         @Override
         public <B> B foldLeft(B identity, Function<B, Function<A, B>> f, Function<B, Function<B, B>> g) {
             /**
@@ -530,6 +708,7 @@ public abstract class RBTree<A extends Comparable<A>> {
     private static abstract class Color {
         abstract boolean isR();
         abstract boolean isB();
+        abstract boolean isBB();
 
         @Override
         public abstract String toString();
@@ -548,6 +727,11 @@ public abstract class RBTree<A extends Comparable<A>> {
             return false;
         }
 
+        @Override
+        boolean isBB() {
+            return false;
+        }
+
         @Override
         public String toString() {
             return "R";
@@ -565,17 +749,52 @@ public abstract class RBTree<A extends Comparable<A>> {
             return true;
         }
 
+        @Override
+        boolean isBB() {
+            return false;
+        }
+
         @Override
         public String toString() {
             return "B";
         }
     }
 
+    /**
+     * The color of a node which counts as two blacks, during a removal.
+     */
+    private static class DoubleBlack extends Color {
+        @Override
+        boolean isR() {
+            return false;
+        }
+
+        @Override
+        boolean isB() {
+            return false;
+        }
+
+        @Override
+        boolean isBB() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "BB";
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public static <A extends Comparable<A>> RBTree<A> empty() {
         return E;
     }
 
+    @SuppressWarnings("unchecked")
+    private static <A extends Comparable<A>> RBTree<A> doubleBlackEmpty() {
+        return EE;
+    }
+
     @SafeVarargs
     public static <A extends Comparable<A>> RBTree<A> tree(A... as) {
         return tree(list(as));
@@ -642,8 +861,5 @@ public abstract class RBTree<A extends Comparable<A>> {
 
         return leftPaths.concat(rightPaths).map(s -> s + (tree.isB() ? "B" : "R"));
     }
-
-    //TODO: Write the functional ne removal algorithm for RBTrees described here:
-    // https://matt.might.net/articles/red-black-delete/
 }
 
@@ -0,0 +1,464 @@
+package com.util;
+
+import com.functional.Effect;
+import com.functional.Function;
+import com.functional.Tuple;
+
+import static com.util.Result.failure;
+import static com.util.Result.success;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An unrolled variant of the functional List. Instead of holding one element per
+ * node, each node holds a slice of a small immutable array of elements, so a list
+ * of n elements is made of about n / CHUNK_SIZE nodes. This reduces the number of
+ * objects, and keeps neighbouring elements next to each other in memory, which
+ * makes traversals much friendlier to the cache.
+ * Like List, the class contains two private static subclasses: Nil for an empty
+ * list, and Node for a non-empty one.
+ * Structure is shared in both directions:
+ * -> tail returns a node over the same array, starting one element later.
+ * -> cons fills the free slot in front of the head node's slice if no other list
+ * has claimed it yet, otherwise it starts a new array.
+ * The arrays are filled from the end, and a slot is claimed at most once, so the
+ * elements seen through a given node never change.
+ * @param <A> : Type parameter of the elements of the list.
+ */
+public abstract class UnrolledList<A> {
+    /**
+     * The number of elements held by a full node.
+     */
+    static final int CHUNK_SIZE = 32;
+
+    @SuppressWarnings("rawtypes")
+    private static final UnrolledList NIL = new Nil();
+
+    /**
+     * Prevent the clients from extending this class.
+     */
+    private UnrolledList() {}
+
+    /**
+     * Returns the first or head element of the list.
+     * Throws an exception if called on the Nil object.
+     * @return the first element from the list.
+     */
+    public abstract A head();
+
+    /**
+     * Returns the first or head element of the list, wrapped in a Result object.
+     * @return the Result object holding the value or a failure for an empty list.
+     */
+    public abstract Result<A> headOption();
+
+    /**
+     * Returns the tail (or rest) of the list. The tail shares the array of this
+     * node.
+     * @return the remaining elements of the list.
+     */
+    public abstract UnrolledList<A> tail();
+
+    /**
+     * @return true if the list is empty or false otherwise.
+     */
+    public abstract boolean isEmpty();
+
+    /**
+     * @return Returns the number of elements in the list.
+     */
+    public abstract int length();
+
+    /**
+     * Adds an element at the beginning of the list.
+     * @param a : The element that needs to be added at the beginning.
+     * @return The list with the element added in the beginning.
+     */
+    public abstract UnrolledList<A> cons(A a);
+
+    /**
+     * A general purpose function which can be used to turn the list into any other type.
+     * It operates on the list from left to right, one array slice at a time.
+     * @param identity : The identity of the operation. This will be returned if the
+     *                 input list is empty.
+     * @param f : Accumulating function, which accepts a parameter of type B, and returns
+     *          a function that accepts a parameter of type A and returns a B.
+     * @param <B> : The type of reduction element.
+     * @return the reduced type object.
+     */
+    @SuppressWarnings("unchecked")
+    public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
+        var acc = identity;
+        for (var ls = this; !ls.isEmpty(); ls = ((Node<A>) ls).next) {
+            final var node = (Node<A>) ls;
+            final var elements = node.chunk.elements;
+            for (int i = node.offset; i < CHUNK_SIZE; ++i) {
+                acc = f.apply(acc).apply((A) elements[i]);
+            }
+        }
+        return acc;
+    }
+
+    /**
+     * Folds the list from right to left. The nodes are collected into an array
+     * first, so the fold is stack safe.
+     * @param identity : The identity element of the operation.
+     * @param f : Accumulating function that takes a parameter of type A, and returns a function
+     *          that takes a parameter of type B and returns a B.
+     * @param <B> : The type of reduction element.
+     * @return the reduced type object.
+     */
+    @SuppressWarnings("unchecked")
+    public <B> B foldRight(B identity, Function<A, Function<B, B>> f) {
+        final var nodes = nodes();
+        var acc = identity;
+        for (int n = nodes.length - 1; n >= 0; --n) {
+            final var elements = nodes[n].chunk.elements;
+            for (int i = CHUNK_SIZE - 1; i >= nodes[n].offset; --i) {
+                acc = f.apply((A) elements[i]).apply(acc);
+            }
+        }
+        return acc;
+    }
+
+    /**
+     * Applies the given effect to each element of the list.
+     * @param ef : The effect to be applied.
+     */
+    public void forEach(Effect<A> ef) {
+        foldLeft(this, acc -> a -> {
+            ef.apply(a);
+            return acc;
+        });
+    }
+
+    /**
+     * Transforms the list by applying the function to each element. The resulting
+     * list has the same shape as this one, each node being mapped into a new array.
+     * @param f : The function to be applied to each element of the list.
+     * @param <B> : The type into which the function maps each element.
+     * @return the transformed list containing the elements of type B.
+     */
+    public <B> UnrolledList<B> map(Function<A, B> f) {
+        final var nodes = nodes();
+        var res = UnrolledList.<B>list();
+        for (int n = nodes.length - 1; n >= 0; --n) {
+            final var elements = nodes[n].chunk.elements;
+            final var mapped = new Object[CHUNK_SIZE];
+            for (int i = nodes[n].offset; i < CHUNK_SIZE; ++i) {
+                mapped[i] = f.apply(elementAt(elements, i));
+            }
+            res = new Node<>(new Chunk(mapped, nodes[n].offset), nodes[n].offset, res);
+        }
+        return res;
+    }
+
+    /**
+     * Returns the list of the elements for which the predicate returns true. The
+     * matching elements are packed into full nodes.
+     * @param p : The predicate to be applied to each element of the list.
+     * @return the list of values for which the predicate returned true.
+     */
+    public UnrolledList<A> filter(Function<A, Boolean> p) {
+        final var buffer = new Object[length()];
+        final int count = foldLeft(0, i -> a -> {
+            if (p.apply(a)) {
+                buffer[i] = a;
+                return i + 1;
+            }
+            return i;
+        });
+        return fromArray(buffer, 0, count, list());
+    }
+
+    /**
+     * Reverses the order of the elements and returns a new list. Successive cons
+     * calls fill the same array, so the result is packed.
+     * @return the list with elements in the reverse order.
+     */
+    public UnrolledList<A> reverse() {
+        return foldLeft(list(), acc -> acc::cons);
+    }
+
+    /**
+     * Removes n elements from the list and returns the remaining elements. Whole
+     * nodes are skipped at once, and the result shares the remaining nodes.
+     * @param n : the number of elements to drop from the list.
+     * @return the remaining list after dropping n elements.
+     */
+    public UnrolledList<A> drop(int n) {
+        var ls = this;
+        var remaining = n;
+        while (remaining > 0 && !ls.isEmpty()) {
+            final var node = (Node<A>) ls;
+            final int size = CHUNK_SIZE - node.offset;
+            if (remaining < size) {
+                return new Node<>(node.chunk, node.offset + remaining, node.next);
+            }
+            remaining -= size;
+            ls = node.next;
+        }
+        return ls;
+    }
+
+    /**
+     * Splits the list at the given index, and returns a tuple containing the two
+     * parts. The second part shares the nodes of this list, the first one is
+     * copied into packed nodes.
+     * @param index : The index at which to split the list.
+     * @return the tuple containing the two sub lists.
+     */
+    public Tuple<UnrolledList<A>, UnrolledList<A>> splitAt(int index) {
+        if (index <= 0) {
+            return Tuple.create(list(), this);
+        }
+
+        if (index >= length()) {
+            return Tuple.create(this, list());
+        }
+
+        final var buffer = new Object[index];
+        var ls = this;
+        for (int i = 0; i < index; ++i) {
+            buffer[i] = ls.head();
+            ls = ls.tail();
+        }
+        return Tuple.create(fromArray(buffer, 0, index, list()), ls);
+    }
+
+    /**
+     * Returns the element at the given position, skipping whole nodes to reach it.
+     * @param index : The position from which element is to be fetched.
+     * @return the Result object encapsulating the element or failure.
+     */
+    public Result<A> getAt(int index) {
+        if (index < 0 || index >= length()) {
+            return failure("Index out of bounds");
+        }
+        return success(drop(index).head());
+    }
+
+    /**
+     * Converts this list into a regular List.
+     * @return the List holding the same elements in the same order.
+     */
+    public List<A> toList() {
+        return foldRight(List.list(), a -> ls -> ls.cons(a));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%sNIL]",
+                foldLeft(new StringBuilder(), acc -> v -> acc.append(v).append(", ")));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof UnrolledList)) return false;
+
+        UnrolledList<?> l1 = this;
+        UnrolledList<?> l2 = (UnrolledList<?>) o;
+        if (l1.length() != l2.length()) return false;
+
+        while (!l1.isEmpty()) {
+            if (!Objects.equals(l1.head(), l2.head())) return false;
+            l1 = l1.tail();
+            l2 = l2.tail();
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        return foldLeft(1, acc -> v -> acc * prime + Objects.hashCode(v));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<A>[] nodes() {
+        int count = 0;
+        for (var ls = this; !ls.isEmpty(); ls = ((Node<A>) ls).next) {
+            count++;
+        }
+        final Node<A>[] nodes = new Node[count];
+        var ls = this;
+        for (int n = 0; n < count; ++n) {
+            nodes[n] = (Node<A>) ls;
+            ls = nodes[n].next;
+        }
+        return nodes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> A elementAt(Object[] elements, int i) {
+        return (A) elements[i];
+    }
+
+    /**
+     * Builds packed nodes holding elements from to to of the array, in front of the
+     * given list. The nodes are built from the end, so that all but the first one
+     * are full.
+     */
+    private static <A> UnrolledList<A> fromArray(Object[] as, int from, int to, UnrolledList<A> rest) {
+        var res = rest;
+        var end = to;
+        while (end > from) {
+            final int size = Math.min(CHUNK_SIZE, end - from);
+            final int offset = CHUNK_SIZE - size;
+            final var elements = new Object[CHUNK_SIZE];
+            System.arraycopy(as, end - size, elements, offset, size);
+            res = new Node<>(new Chunk(elements, offset), offset, res);
+            end -= size;
+        }
+        return res;
+    }
+
+    /**
+     * An array of elements shared by the nodes built over it. The slots before
+     * first are free, and can be claimed by a single cons operation each.
+     */
+    private static final class Chunk {
+        private final Object[] elements;
+        private final AtomicInteger first;
+
+        private Chunk(Object[] elements, int first) {
+            this.elements = elements;
+            this.first = new AtomicInteger(first);
+        }
+
+        /**
+         * Claims the slot in front of the given offset, which is only possible if
+         * the offset is the first used slot of the array.
+         */
+        private boolean claim(int offset) {
+            return offset > 0 && first.compareAndSet(offset, offset - 1);
+        }
+    }
+
+    private static class Nil<A> extends UnrolledList<A> {
+        private Nil() {}
+
+        @Override
+        public A head() {
+            throw new IllegalStateException("head called on empty list");
+        }
+
+        @Override
+        public Result<A> headOption() {
+            return failure("head called on empty list.");
+        }
+
+        @Override
+        public UnrolledList<A> tail() {
+            throw new IllegalStateException("tail called on empty list");
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        public int length() {
+            return 0;
+        }
+
+        @Override
+        public UnrolledList<A> cons(A a) {
+            return newChunk(a, this);
+        }
+    }
+
+    private static class Node<A> extends UnrolledList<A> {
+        private final Chunk chunk;
+        private final int offset;
+        private final UnrolledList<A> next;
+        private final int length;
+
+        private Node(Chunk chunk, int offset, UnrolledList<A> next) {
+            this.chunk = chunk;
+            this.offset = offset;
+            this.next = next;
+            this.length = CHUNK_SIZE - offset + next.length();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public A head() {
+            return (A) chunk.elements[offset];
+        }
+
+        @Override
+        public Result<A> headOption() {
+            return success(head());
+        }
+
+        @Override
+        public UnrolledList<A> tail() {
+            return offset + 1 < CHUNK_SIZE ? new Node<>(chunk, offset + 1, next) : next;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public UnrolledList<A> cons(A a) {
+            if (chunk.claim(offset)) {
+                chunk.elements[offset - 1] = a;
+                return new Node<>(chunk, offset - 1, next);
+            }
+            return newChunk(a, this);
+        }
+    }
+
+    private static <A> UnrolledList<A> newChunk(A a, UnrolledList<A> next) {
+        final var elements = new Object[CHUNK_SIZE];
+        elements[CHUNK_SIZE - 1] = a;
+        return new Node<>(new Chunk(elements, CHUNK_SIZE - 1), CHUNK_SIZE - 1, next);
+    }
+
+    /**
+     * A convenience method to create an empty list.
+     * @param <A> : Type parameter of the elements.
+     * @return the empty list.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> UnrolledList<A> list() {
+        return NIL;
+    }
+
+    /**
+     * A convenience method to construct a list of elements from an array of
+     * elements.
+     * @param as : The elements to be held in the list.
+     * @param <A> : Type parameter of the elements.
+     * @return the list holding the elements in the order of the array.
+     */
+    @SafeVarargs
+    public static <A> UnrolledList<A> list(A... as) {
+        return fromArray(as, 0, as.length, list());
+    }
+
+    /**
+     * Converts a List into an unrolled list holding the same elements.
+     * @param ls : The list to be converted.
+     * @param <A> : Type parameter of the elements.
+     * @return the unrolled list, with packed nodes.
+     */
+    public static <A> UnrolledList<A> fromList(List<A> ls) {
+        final var buffer = new Object[ls.length()];
+        ls.foldLeft(0, i -> a -> {
+            buffer[i] = a;
+            return i + 1;
+        });
+        return fromArray(buffer, 0, buffer.length, list());
+    }
+}
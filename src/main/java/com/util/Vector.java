@@ -0,0 +1,469 @@
+package com.util;
+
+import com.functional.Effect;
+import com.functional.Function;
+
+import static com.util.Result.failure;
+import static com.util.Result.success;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A persistent vector, implemented as a bit-partitioned trie with a branching
+ * factor of 32, with a tail buffer holding the last (up to 32) elements.
+ * Whereas the List class gives access to its elements only through the head,
+ * this class provides indexed access: get, update, append and pop all run in
+ * O(log32 n) time, which is effectively constant, since a trie holding all the
+ * positive ints is only seven levels deep.
+ * -> The elements are stored in leaf arrays of 32 elements. Inner nodes hold arrays
+ * of 32 children. The path to an element is given by its index, 5 bits per level.
+ * -> The last leaf is kept apart, in the tail, so that appending and popping
+ * usually copy only the tail.
+ * -> Updates copy the path from the root to the modified leaf, and share every
+ * other node with the original vector.
+ * @param <A> : Type parameter of the elements of the vector.
+ */
+public final class Vector<A> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final Node EMPTY_NODE = new Node(new Object[WIDTH]);
+
+    @SuppressWarnings("rawtypes")
+    private static final Vector EMPTY = new Vector<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+    private final int length;
+    private final int shift;
+    private final Node root;
+    private final Object[] tail;
+
+    private Vector(int length, int shift, Node root, Object[] tail) {
+        this.length = length;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * A node of the trie. The array holds either the children nodes, or the
+     * elements themselves for the leaves.
+     */
+    private static final class Node {
+        private final Object[] array;
+
+        private Node(Object[] array) {
+            this.array = array;
+        }
+    }
+
+    /**
+     * @return Returns the number of elements in the vector.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return true if the vector is empty or false otherwise.
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Returns the element at the given position.
+     * @param index : The position from which element is to be fetched.
+     * @return the element at the given position.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    @SuppressWarnings("unchecked")
+    public A get(int index) {
+        checkIndex(index);
+        return (A) leafFor(index)[index & MASK];
+    }
+
+    /**
+     * Returns the element at the given position, wrapped in a Result object.
+     * @param index : The position from which element is to be fetched.
+     * @return the Result object encapsulating the element or failure.
+     */
+    public Result<A> getAt(int index) {
+        return index < 0 || index >= length ? failure("Index out of bounds") : success(get(index));
+    }
+
+    /**
+     * Returns the first element of the vector, wrapped in a Result object.
+     * @return a Result object, which could be a Success or a Failure object.
+     */
+    public Result<A> headOption() {
+        return getAt(0);
+    }
+
+    /**
+     * Returns the last element of the vector, wrapped in a Result object.
+     * @return a Result object, which could be a Success or an Empty object.
+     */
+    public Result<A> lastOption() {
+        return isEmpty() ? Result.empty() : success(get(length - 1));
+    }
+
+    /**
+     * Returns a new vector with the element at the given position replaced. Only
+     * the path leading to the element is copied.
+     * @param index : The position of the element to be replaced.
+     * @param a : The new element.
+     * @return the vector holding the new element at the given position.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public Vector<A> update(int index, A a) {
+        checkIndex(index);
+
+        if (index >= tailOffset()) {
+            final var newTail = tail.clone();
+            newTail[index & MASK] = a;
+            return new Vector<>(length, shift, root, newTail);
+        }
+
+        return new Vector<>(length, shift, doUpdate(shift, root, index, a), tail);
+    }
+
+    private static Node doUpdate(int level, Node node, int index, Object a) {
+        final var array = node.array.clone();
+        if (level == 0) {
+            array[index & MASK] = a;
+        } else {
+            final int subIndex = (index >>> level) & MASK;
+            array[subIndex] = doUpdate(level - BITS, (Node) node.array[subIndex], index, a);
+        }
+        return new Node(array);
+    }
+
+    /**
+     * Returns a new vector with the element added at the end.
+     * @param a : The element to be added.
+     * @return the vector with the element added at the end.
+     */
+    public Vector<A> append(A a) {
+        if (length - tailOffset() < WIDTH) {
+            final var newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = a;
+            return new Vector<>(length + 1, shift, root, newTail);
+        }
+
+        //The tail is full: push it into the trie, and start a new tail.
+        final var tailNode = new Node(tail);
+        if ((length >>> BITS) > (1 << shift)) {
+            //The root is full too: add a level.
+            final var array = new Object[WIDTH];
+            array[0] = root;
+            array[1] = newPath(shift, tailNode);
+            return new Vector<>(length + 1, shift + BITS, new Node(array), new Object[] {a});
+        }
+
+        return new Vector<>(length + 1, shift, pushTail(shift, root, tailNode), new Object[] {a});
+    }
+
+    private Node pushTail(int level, Node parent, Node tailNode) {
+        final int subIndex = ((length - 1) >>> level) & MASK;
+        final var array = parent.array.clone();
+        if (level == BITS) {
+            array[subIndex] = tailNode;
+        } else {
+            final var child = (Node) parent.array[subIndex];
+            array[subIndex] = child != null
+                    ? pushTail(level - BITS, child, tailNode)
+                    : newPath(level - BITS, tailNode);
+        }
+        return new Node(array);
+    }
+
+    private static Node newPath(int level, Node node) {
+        if (level == 0) {
+            return node;
+        }
+        final var array = new Object[WIDTH];
+        array[0] = newPath(level - BITS, node);
+        return new Node(array);
+    }
+
+    /**
+     * Returns a new vector with the last element removed.
+     * Throws an exception if called on an empty vector.
+     * @return the vector without its last element.
+     */
+    public Vector<A> pop() {
+        if (length == 0) {
+            throw new IllegalStateException("pop called on empty vector");
+        }
+
+        if (length == 1) {
+            return empty();
+        }
+
+        if (length - tailOffset() > 1) {
+            return new Vector<>(length - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+        }
+
+        //The tail holds a single element: the last leaf of the trie becomes the tail.
+        final var newTail = leafFor(length - 2);
+        var newRoot = popTail(shift, root);
+        var newShift = shift;
+        if (newRoot == null) {
+            newRoot = EMPTY_NODE;
+        }
+        if (shift > BITS && newRoot.array[1] == null) {
+            newRoot = (Node) newRoot.array[0];
+            newShift -= BITS;
+        }
+        return new Vector<>(length - 1, newShift, newRoot, newTail);
+    }
+
+    private Node popTail(int level, Node node) {
+        final int subIndex = ((length - 2) >>> level) & MASK;
+        if (level > BITS) {
+            final var newChild = popTail(level - BITS, (Node) node.array[subIndex]);
+            if (newChild == null && subIndex == 0) {
+                return null;
+            }
+            final var array = node.array.clone();
+            array[subIndex] = newChild;
+            return new Node(array);
+        } else if (subIndex == 0) {
+            return null;
+        } else {
+            final var array = node.array.clone();
+            array[subIndex] = null;
+            return new Node(array);
+        }
+    }
+
+    /**
+     * A general purpose function which can be used to turn the vector into any other
+     * type. It operates on the vector from left to right, one leaf at a time.
+     * @param identity : The identity of the operation. This will be returned if the
+     *                 vector is empty.
+     * @param f : Accumulating function, which accepts a parameter of type B, and returns
+     *          a function that accepts a parameter of type A and returns a B.
+     * @param <B> : The type of reduction element.
+     * @return the reduced type object.
+     */
+    @SuppressWarnings("unchecked")
+    public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
+        var acc = identity;
+        for (int i = 0; i < length; i += WIDTH) {
+            final var leaf = leafFor(i);
+            final int end = Math.min(WIDTH, length - i);
+            for (int j = 0; j < end; ++j) {
+                acc = f.apply(acc).apply((A) leaf[j]);
+            }
+        }
+        return acc;
+    }
+
+    /**
+     * Folds the vector from right to left, using the indexed access, so no
+     * reversing is needed.
+     * @param identity : The identity element of the operation.
+     * @param f : Accumulating function that takes a parameter of type A, and returns a function
+     *          that takes a parameter of type B and returns a B.
+     * @param <B> : The type of reduction element.
+     * @return the reduced type object.
+     */
+    @SuppressWarnings("unchecked")
+    public <B> B foldRight(B identity, Function<A, Function<B, B>> f) {
+        var acc = identity;
+        for (int i = (length - 1) & ~MASK; i >= 0; i -= WIDTH) {
+            final var leaf = leafFor(i);
+            for (int j = Math.min(WIDTH, length - i) - 1; j >= 0; --j) {
+                acc = f.apply((A) leaf[j]).apply(acc);
+            }
+        }
+        return acc;
+    }
+
+    /**
+     * Applies the given effect to each element of the vector.
+     * @param ef : The effect to be applied.
+     */
+    public void forEach(Effect<A> ef) {
+        foldLeft(this, acc -> a -> {
+            ef.apply(a);
+            return acc;
+        });
+    }
+
+    /**
+     * Transforms the vector by applying the given function to each element. The
+     * trie is mapped node by node, so the result has the same shape.
+     * @param f : The function to be applied to each element.
+     * @param <B> : The type into which the function maps each element.
+     * @return the transformed vector.
+     */
+    public <B> Vector<B> map(Function<A, B> f) {
+        return new Vector<>(length, shift, mapNode(shift, root, f), mapLeaf(tail, tail.length, f));
+    }
+
+    private static <A, B> Node mapNode(int level, Node node, Function<A, B> f) {
+        if (level == 0) {
+            return new Node(mapLeaf(node.array, WIDTH, f));
+        }
+        final var array = new Object[WIDTH];
+        for (int i = 0; i < WIDTH && node.array[i] != null; ++i) {
+            array[i] = mapNode(level - BITS, (Node) node.array[i], f);
+        }
+        return new Node(array);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A, B> Object[] mapLeaf(Object[] leaf, int size, Function<A, B> f) {
+        final var array = new Object[size];
+        for (int i = 0; i < size; ++i) {
+            array[i] = f.apply((A) leaf[i]);
+        }
+        return array;
+    }
+
+    /**
+     * Returns the vector of elements for which the predicate returns true.
+     * @param p : The predicate to be applied to each element.
+     * @return the vector of values for which the predicate returned true.
+     */
+    public Vector<A> filter(Function<A, Boolean> p) {
+        final var buffer = new Object[length];
+        final int count = foldLeft(0, i -> a -> {
+            if (p.apply(a)) {
+                buffer[i] = a;
+                return i + 1;
+            }
+            return i;
+        });
+        return fromArray(buffer, count);
+    }
+
+    /**
+     * Converts this vector into a List.
+     * @return the List holding the same elements in the same order.
+     */
+    public List<A> toList() {
+        return foldRight(List.list(), a -> ls -> ls.cons(a));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%sNIL]",
+                foldLeft(new StringBuilder(), acc -> v -> acc.append(v).append(", ")));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Vector)) return false;
+
+        final var that = (Vector<?>) o;
+        if (length != that.length) return false;
+
+        for (int i = 0; i < length; ++i) {
+            if (!Objects.equals(get(i), that.get(i))) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        return foldLeft(1, acc -> v -> acc * prime + Objects.hashCode(v));
+    }
+
+    /**
+     * The index of the first element held in the tail.
+     */
+    private int tailOffset() {
+        return length < WIDTH ? 0 : ((length - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] leafFor(int index) {
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        var node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Node) node.array[(index >>> level) & MASK];
+        }
+        return node.array;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(String.format("Index %d out of bounds for length %d",
+                    index, length));
+        }
+    }
+
+    /**
+     * Builds a vector holding the first length elements of the array. The leaves
+     * are filled directly, and the trie is built bottom up, one level at a time.
+     */
+    private static <A> Vector<A> fromArray(Object[] as, int length) {
+        if (length == 0) {
+            return empty();
+        }
+
+        final int tailOffset = length < WIDTH ? 0 : ((length - 1) >>> BITS) << BITS;
+        var nodes = new Node[tailOffset >>> BITS];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(Arrays.copyOfRange(as, i << BITS, (i + 1) << BITS));
+        }
+
+        var shift = BITS;
+        while (nodes.length > WIDTH) {
+            final var parents = new Node[(nodes.length + MASK) >>> BITS];
+            for (int i = 0; i < parents.length; ++i) {
+                final var array = new Object[WIDTH];
+                System.arraycopy(nodes, i << BITS, array, 0, Math.min(WIDTH, nodes.length - (i << BITS)));
+                parents[i] = new Node(array);
+            }
+            nodes = parents;
+            shift += BITS;
+        }
+
+        final var rootArray = new Object[WIDTH];
+        System.arraycopy(nodes, 0, rootArray, 0, nodes.length);
+        return new Vector<>(length, shift, new Node(rootArray), Arrays.copyOfRange(as, tailOffset, length));
+    }
+
+    /**
+     * @param <A> : Type parameter of the elements.
+     * @return the empty vector.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> Vector<A> empty() {
+        return EMPTY;
+    }
+
+    /**
+     * A convenience method to construct a vector from an array of elements.
+     * @param as : The elements to be held in the vector.
+     * @param <A> : Type parameter of the elements.
+     * @return the vector holding the elements in the order of the array.
+     */
+    @SafeVarargs
+    public static <A> Vector<A> vector(A... as) {
+        return fromArray(as, as.length);
+    }
+
+    /**
+     * Converts a List into a vector holding the same elements.
+     * @param ls : The list to be converted.
+     * @param <A> : Type parameter of the elements.
+     * @return the vector holding the elements in the order of the list.
+     */
+    public static <A> Vector<A> fromList(List<A> ls) {
+        final var buffer = new Object[ls.length()];
+        ls.foldLeft(0, i -> a -> {
+            buffer[i] = a;
+            return i + 1;
+        });
+        return fromArray(buffer, buffer.length);
+    }
+}
@@ -20,10 +20,23 @@ TARGETS = [
     ("function", ["test/java/com/functional/FunctionTest.java"], "com.functional.FunctionTest", [], []),
     ("memoize", ["test/java/com/util/MemoizeTest.java"], "com.util.MemoizeTest", [], []),
     ("list", ["test/java/com/util/ListTest.java"], "com.util.ListTest", [], []),
+    ("unrolledlist", ["test/java/com/util/UnrolledListTest.java"], "com.util.UnrolledListTest", [], []),
+    ("intlist", ["test/java/com/util/IntListTest.java"], "com.util.IntListTest", [], []),
+    ("longlist", ["test/java/com/util/LongListTest.java"], "com.util.LongListTest", [], []),
+    ("doublelist", ["test/java/com/util/DoubleListTest.java"], "com.util.DoubleListTest", [], []),
+    ("vector", ["test/java/com/util/VectorTest.java"], "com.util.VectorTest", [], []),
+    ("catenablelist", ["test/java/com/util/CatenableListTest.java"], "com.util.CatenableListTest", [], []),
+    ("listview", ["test/java/com/util/ListViewTest.java"], "com.util.ListViewTest", [], []),
+    ("persistentmap", ["test/java/com/util/PersistentMapTest.java"], "com.util.PersistentMapTest", [], []),
+    ("persistentset", ["test/java/com/util/PersistentSetTest.java"], "com.util.PersistentSetTest", [], []),
+    ("ahocorasick", ["test/java/com/util/AhoCorasickTest.java"], "com.util.AhoCorasickTest", [], []),
     ("option", ["test/java/com/util/OptionTest.java"], "com.util.OptionTest", [], []),
     ("either", ["test/java/com/util/EitherTest.java"], "com.util.EitherTest", [], []),
     ("result", ["test/java/com/util/ResultTest.java"], "com.util.ResultTest", [], []),
     ("stream", ["test/java/com/lazy/StreamTest.java"], "com.lazy.StreamTest", [], []),
+    ("streampublisher", ["test/java/com/lazy/StreamPublisherTest.java"], "com.lazy.StreamPublisherTest", [], []),
+    ("hashaggregation", ["test/java/com/lazy/HashAggregationTest.java"], "com.lazy.HashAggregationTest", [], []),
+    ("chunkedstream", ["test/java/com/lazy/ChunkedStreamTest.java"], "com.lazy.ChunkedStreamTest", [], []),
     ("tree", ["test/java/com/util/TreeTest.java"], "com.util.TreeTest", [], []),
     ("rbtree", ["test/java/com/util/RBTreeTest.java"], "com.util.RBTreeTest", [], []),
     ("rng", ["test/java/com/state/JavaRNGTest.java"], "com.state.JavaRNGTest", [], []),
@@ -36,6 +49,7 @@ TARGETS = [
         ["//src/test/resources:persons_io"],
     ),
     ("io", ["test/java/com/io/IOTest.java"], "com.io.IOTest", [], []),
+    ("mappedfile", ["test/java/com/io/MappedFileTest.java"], "com.io.MappedFileTest", [], []),
     (
         "actor_pingpong",
         ["test/java/com/actor/pingpong/PingPong.java", "test/java/com/actor/pingpong/Player.java"],
@@ -66,3 +80,23 @@ TARGETS = [
         ["//src/test/resources:sample_properties"],
     ),
 ]
+
+# The benchmarks, in the same format. They measure the data structures against the
+# ones they replace with the shared harness of test/java/com/benchmark, which warms
+# each operation up before timing repeated iterations of it, so they are tagged
+# manual, and only run when they are named, e.g. bazel test //:benchmark_functional_java.
+BENCHMARKS = [
+    ("list", ["test/java/com/util/ListBenchmark.java"], "com.util.ListBenchmark", [], []),
+    ("unrolledlist", ["test/java/com/util/UnrolledListBenchmark.java"], "com.util.UnrolledListBenchmark", [], []),
+    ("intlist", ["test/java/com/util/IntListBenchmark.java"], "com.util.IntListBenchmark", [], []),
+    ("vector", ["test/java/com/util/VectorBenchmark.java"], "com.util.VectorBenchmark", [], []),
+    ("catenablelist", ["test/java/com/util/CatenableListBenchmark.java"], "com.util.CatenableListBenchmark", [], []),
+    ("listview", ["test/java/com/util/ListViewBenchmark.java"], "com.util.ListViewBenchmark", [], []),
+    ("persistentmap", ["test/java/com/util/PersistentMapBenchmark.java"], "com.util.PersistentMapBenchmark", [], []),
+    ("ahocorasick", ["test/java/com/util/AhoCorasickBenchmark.java"], "com.util.AhoCorasickBenchmark", [], []),
+    ("rbtree", ["test/java/com/util/RBTreeBenchmark.java"], "com.util.RBTreeBenchmark", [], []),
+    ("stream", ["test/java/com/lazy/StreamBenchmark.java"], "com.lazy.StreamBenchmark", [], []),
+    ("chunkedstream", ["test/java/com/lazy/ChunkedStreamBenchmark.java"], "com.lazy.ChunkedStreamBenchmark", [], []),
+    ("external_sort", ["test/java/com/lazy/ExternalSortBenchmark.java"], "com.lazy.ExternalSortBenchmark", [], []),
+    ("mappedfile", ["test/java/com/io/MappedFileBenchmark.java"], "com.io.MappedFileBenchmark", [], []),
+]
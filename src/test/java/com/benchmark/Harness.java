@@ -0,0 +1,125 @@
+package com.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * The harness shared by the benchmarks, so that they all measure the same way:
+ * -> An operation is first run a number of warmup iterations, which are not
+ * measured, so that it is compiled by the JIT before it is timed.
+ * -> It is then run a number of measured iterations, and the harness prints the
+ * mean, minimum and maximum duration of an iteration, the mean duration of one of
+ * the operations done by an iteration, and the bytes allocated per operation when
+ * the JVM reports them.
+ * The result of each iteration is consumed, so that the JIT cannot drop the
+ * operation, and the result of the last one is returned, for the benchmark to
+ * check it. The number of iterations can be changed with the benchmark.warmups
+ * and benchmark.iterations system properties.
+ */
+public final class Harness {
+    private static final int WARMUPS = Integer.getInteger("benchmark.warmups", 5);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 10);
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private static volatile int sink;
+
+    private Harness() {}
+
+    /**
+     * Measures an operation, each iteration doing it once.
+     * @param name : The name printed with the measures.
+     * @param operation : The measured operation.
+     * @param <T> : Type parameter of the result of the operation.
+     * @return the result of the last iteration.
+     */
+    public static <T> T measure(String name, Supplier<T> operation) {
+        return measure(name, 1, operation);
+    }
+
+    /**
+     * Measures an operation, each iteration doing the given number of operations,
+     * e.g. the insertion of each element of a collection.
+     * @param name : The name printed with the measures.
+     * @param operations : The number of operations done by an iteration.
+     * @param operation : The measured iteration.
+     * @param <T> : Type parameter of the result of the iteration.
+     * @return the result of the last iteration.
+     */
+    public static <T> T measure(String name, int operations, Supplier<T> operation) {
+        T res = null;
+        for (int i = 0; i < WARMUPS; ++i) {
+            res = operation.get();
+            consume(res);
+        }
+        System.gc();
+
+        long total = 0;
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        long bytes = 0;
+        for (int i = 0; i < ITERATIONS; ++i) {
+            final long allocated = allocatedBytes();
+            final long time = System.nanoTime();
+            res = operation.get();
+            final long duration = System.nanoTime() - time;
+            bytes += allocatedBytes() - allocated;
+            consume(res);
+            total += duration;
+            min = Math.min(min, duration);
+            max = Math.max(max, duration);
+        }
+
+        System.out.println(String.format("%s: %.3f ms (min %.3f, max %.3f), %.1f ns/op%s",
+                name, total / 1e6 / ITERATIONS, min / 1e6, max / 1e6, (double) total / ITERATIONS / operations,
+                THREADS == null ? "" : String.format(", %d bytes/op", bytes / ITERATIONS / operations)));
+        return res;
+    }
+
+    /**
+     * Measures the memory retained by the result of an operation, as the difference
+     * of the heap used after a full collection, and prints the smallest one found
+     * over the measured iterations.
+     * @param name : The name printed with the measure.
+     * @param elements : The number of elements held by the result.
+     * @param operation : The operation building the result.
+     * @param <T> : Type parameter of the result of the operation.
+     * @return the result of the last iteration.
+     */
+    public static <T> T footprint(String name, int elements, Supplier<T> operation) {
+        T res = null;
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; ++i) {
+            res = null;
+            final long before = usedMemory();
+            res = operation.get();
+            min = Math.min(min, usedMemory() - before);
+            consume(res);
+        }
+        System.out.println(String.format("%s: %.1f bytes/element", name, (double) min / elements));
+        return res;
+    }
+
+    private static void consume(Object o) {
+        sink ^= System.identityHashCode(o);
+    }
+
+    private static long usedMemory() {
+        final var runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * The allocated bytes are only reported by the HotSpot extension of ThreadMXBean.
+     */
+    private static com.sun.management.ThreadMXBean threads() {
+        final var bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) bean : null;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
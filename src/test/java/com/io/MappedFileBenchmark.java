@@ -0,0 +1,47 @@
+package com.io;
+
+import com.benchmark.Harness;
+import com.lazy.Stream;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+
+public class MappedFileBenchmark {
+    private static Path write(String content) throws IOException {
+        final var path = Files.createTempFile("mapped", ".txt");
+        path.toFile().deleteOnExit();
+        return Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int count(Stream<String> lines) {
+        int count = 0;
+        for (; !lines.isEmpty(); lines = lines.tail()) {
+            count += lines.head()._1.isEmpty() ? 0 : 1;
+        }
+        return count;
+    }
+
+    @Test
+    public void testLinesBenchmark() throws IOException {
+        int limit = 500_000;
+        var builder = new StringBuilder();
+        for (int i = 0; i < limit; ++i) {
+            builder.append("2024-01-01 12:00:00 INFO request ").append(i).append(" served\n");
+        }
+        var path = write(builder.toString());
+
+        var readerCount = Harness.measure("FileReader lines", limit, () -> count(FileReader.fileReader(path.toString())
+                .map(input -> Stream.unfold(input, Input::readString))
+                .getOrElse(Stream.empty())));
+        var mappedCount = Harness.measure("MappedFile lines", limit,
+                () -> count(MappedFile.lines(path.toString()).getOrElse(Stream.empty())));
+
+        assertEquals(Integer.valueOf(limit), readerCount);
+        assertEquals(Integer.valueOf(limit), mappedCount);
+    }
+}
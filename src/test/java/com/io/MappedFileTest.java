@@ -0,0 +1,69 @@
+package com.io;
+
+import com.lazy.Stream;
+import com.util.List;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.util.List.list;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MappedFileTest {
+
+    private static Path write(String content) throws IOException {
+        final var path = Files.createTempFile("mapped", ".txt");
+        path.toFile().deleteOnExit();
+        return Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> lines(Path path, int windowSize) {
+        return MappedFile.lines(path, StandardCharsets.UTF_8, windowSize).getOrElse(Stream.empty()).toList();
+    }
+
+    @Test
+    public void testLines() throws IOException {
+        var path = write("first\nsecond\r\n\nthird");
+
+        assertEquals(list("first", "second", "", "third"), lines(path, MappedFile.WINDOW_SIZE));
+        assertEquals(list("a", "b"), lines(write("a\nb\n"), MappedFile.WINDOW_SIZE));
+        assertTrue(lines(write(""), MappedFile.WINDOW_SIZE).isEmpty());
+        assertEquals(list("", ""), lines(write("\n\r\n"), MappedFile.WINDOW_SIZE));
+    }
+
+    @Test
+    public void testWindows() throws IOException {
+        var builder = new StringBuilder();
+        var expected = List.<String>builder();
+        for (int i = 0; i < 1000; ++i) {
+            var line = "line " + i + " \u00e9" + "x".repeat(i % 50);
+            builder.append(line).append(i % 3 == 0 ? "\r\n" : "\n");
+            expected.add(line);
+        }
+        var path = write(builder.toString());
+        var lines = expected.build();
+
+        assertEquals(lines, lines(path, 16));
+        assertEquals(lines, lines(path, 1));
+        assertEquals(lines, lines(path, 4096));
+    }
+
+    @Test
+    public void testByteLines() throws IOException {
+        var path = write("abc\ndefg\n");
+        var lengths = MappedFile.byteLines(path).getOrElse(Stream.empty()).map(b -> b.remaining()).toList();
+
+        assertEquals(list(3, 4), lengths);
+        assertTrue(MappedFile.byteLines(path).getOrElse(Stream.empty()).headOption()
+                .map(b -> b.isReadOnly()).getOrElse(false));
+    }
+
+    @Test
+    public void testMissingFile() {
+        assertTrue(MappedFile.lines("/no/such/file").isFailure());
+    }
+}
@@ -0,0 +1,26 @@
+package com.lazy;
+
+import com.benchmark.Harness;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChunkedStreamBenchmark {
+    @Test
+    public void testPipelineBenchmark() {
+        int limit = 1_000_000;
+
+        var streamSum = Harness.measure("Stream pipeline", limit, () -> Stream.from(0)
+                .map(x -> x * 3)
+                .filter(x -> x % 2 == 0)
+                .takeWhile(x -> x < 3 * limit)
+                .foldLeft(0L, acc -> v -> acc + v));
+        var chunkedSum = Harness.measure("ChunkedStream pipeline", limit, () -> ChunkedStream.from(0)
+                .map(x -> x * 3)
+                .filter(x -> x % 2 == 0)
+                .takeWhile(x -> x < 3 * limit)
+                .foldLeft(0L, acc -> v -> acc + v));
+
+        assertEquals(streamSum, chunkedSum);
+    }
+}
@@ -0,0 +1,91 @@
+package com.lazy;
+
+import org.junit.Test;
+
+import static com.util.List.list;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkedStreamTest {
+    private final ChunkedStream<Integer> intStream = ChunkedStream.from(1);
+
+    @Test
+    public void testTakeAndDrop() {
+        assertEquals(list(1, 2, 3, 4, 5), intStream.take(5).toList());
+        assertEquals(list(1001, 1002, 1003), intStream.drop(1000).take(3).toList());
+        assertEquals(ChunkedStream.CHUNK_SIZE, intStream.take(ChunkedStream.CHUNK_SIZE).toList().length());
+        assertTrue(intStream.take(0).isEmpty());
+        assertTrue(ChunkedStream.of(1, 2).drop(5).isEmpty());
+    }
+
+    @Test
+    public void testTakeWhileAndDropWhile() {
+        assertEquals(Integer.valueOf(999), intStream.takeWhile(x -> x < 1000).foldLeft(0, acc -> x -> acc + 1));
+        assertEquals(Integer.valueOf(1000), intStream.dropWhile(x -> x < 1000).headOption().getOrElse(0));
+        assertTrue(ChunkedStream.of(1, 2, 3).dropWhile(x -> true).isEmpty());
+        assertTrue(intStream.takeWhile(x -> false).isEmpty());
+    }
+
+    @Test
+    public void testMapAndFilter() {
+        var res = intStream.map(x -> x * 10).filter(x -> x % 3 == 0).take(4);
+
+        assertEquals(list(30, 60, 90, 120), res.toList());
+        assertTrue(ChunkedStream.of(1, 3, 5).filter(x -> x % 2 == 0).isEmpty());
+        assertEquals(Integer.valueOf(2000), intStream.filter(x -> x % 1000 == 0).drop(1).headOption().getOrElse(0));
+    }
+
+    @Test
+    public void testFlatMapAndAppend() {
+        var res = intStream.flatMap(x -> x % 500 == 0 ? ChunkedStream.of(x, -x) : ChunkedStream.<Integer>empty());
+
+        assertEquals(list(500, -500, 1000, -1000), res.take(4).toList());
+        assertEquals(list(1, 2, 3, 1, 2), intStream.take(3).append(() -> intStream.take(2)).toList());
+    }
+
+    @Test
+    public void testLaziness() {
+        var evaluated = new int[1];
+        var res = intStream.map(x -> {
+            ++evaluated[0];
+            return x;
+        });
+
+        assertEquals(0, evaluated[0]);
+        assertEquals(Integer.valueOf(1), res.headOption().getOrElse(0));
+        assertEquals(ChunkedStream.CHUNK_SIZE, evaluated[0]);
+        assertTrue(res.exists(x -> x == 10));
+        assertEquals(ChunkedStream.CHUNK_SIZE, evaluated[0]);
+    }
+
+    @Test
+    public void testTakeIsLazy() {
+        var evaluated = new int[1];
+        var tested = new int[1];
+        var mapped = intStream.map(x -> {
+            ++evaluated[0];
+            return x;
+        });
+        var taken = mapped.take(3);
+        var takenWhile = mapped.takeWhile(x -> {
+            ++tested[0];
+            return x < 3;
+        });
+
+        assertEquals(0, evaluated[0]);
+        assertEquals(0, tested[0]);
+        assertEquals(list(1, 2, 3), taken.toList());
+        assertEquals(ChunkedStream.CHUNK_SIZE, evaluated[0]);
+        assertEquals(list(1, 2), takenWhile.toList());
+        assertEquals(3, tested[0]);
+    }
+
+    @Test
+    public void testConversions() {
+        var stream = Stream.from(0).take(1000);
+
+        assertEquals(stream.toList(), ChunkedStream.fromStream(stream).toList());
+        assertEquals(list(1, 2, 3), ChunkedStream.of(1, 2, 3).toStream().toList());
+        assertEquals(list(3, 4), intStream.toStream().drop(2).take(2).toList());
+    }
+}
@@ -0,0 +1,27 @@
+package com.lazy;
+
+import com.benchmark.Harness;
+import com.util.List;
+import org.junit.Test;
+
+import java.util.Comparator;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExternalSortBenchmark {
+    private static Stream<Integer> randomStream(int n) {
+        return Stream.iterate(17, x -> (x * 1_103_515_245 + 12_345) & 0x7FFFFFFF).map(x -> x % 1000).take(n);
+    }
+
+    @Test
+    public void testSortBenchmark() {
+        int limit = 400_000;
+        var values = randomStream(limit).toList();
+
+        List<Integer> inMemory = Harness.measure("List sort", limit, () -> values.sort(Integer::compare));
+        var external = Harness.measure("sortedExternal", limit,
+                () -> Stream.of(values).sortedExternal(Comparator.naturalOrder(), Codec.INTEGER, limit / 8).toList());
+
+        assertEquals(inMemory, external);
+    }
+}
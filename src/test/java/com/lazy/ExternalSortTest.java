@@ -0,0 +1,130 @@
+package com.lazy;
+
+import org.junit.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.util.List.list;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This test is run with a 64MB heap. The large sort holds 10M longs, which would
+ * need several times that much as boxed values in memory.
+ */
+public class ExternalSortTest {
+    private static final int LIMIT = 10_000_000;
+
+    private static Stream<Integer> randomStream(int n) {
+        return Stream.iterate(17, x -> (x * 1_103_515_245 + 12_345) & 0x7FFFFFFF).map(x -> x % 1000).take(n);
+    }
+
+    @Test
+    public void testSortInMemory() {
+        var stream = randomStream(1000);
+
+        assertEquals(stream.toList().sort(Integer::compare),
+                stream.sortedExternal(Comparator.naturalOrder(), Codec.INTEGER, 1000).toList());
+        assertTrue(Stream.<Integer>empty().sortedExternal(Comparator.naturalOrder(), Codec.INTEGER, 10).isEmpty());
+    }
+
+    @Test
+    public void testSortRuns() throws IOException {
+        var directory = Files.createTempDirectory("external-sort");
+        var stream = randomStream(10_000);
+        var sorted = stream.sortedExternal(Comparator.reverseOrder(), Codec.INTEGER, 7, directory);
+
+        //More than MAX_FAN_IN runs, which need an intermediate merge.
+        assertTrue(10_000 / 7 > ExternalSort.MAX_FAN_IN);
+        assertEquals(stream.toList().sort(Comparator.reverseOrder()), sorted.toList());
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testClosedMergeDeletesRuns() throws IOException {
+        var directory = Files.createTempDirectory("external-sort");
+        var merge = ExternalSort.merge(randomStream(10_000).once().iterator(), Comparator.naturalOrder(),
+                Codec.INTEGER, 500, directory);
+
+        //Closing the merge runs the action registered with the Cleaner for a dropped stream.
+        assertEquals(10, merge.next().take(10).toList().length());
+        assertEquals(20, files(directory));
+        merge.close();
+        assertEquals(0, files(directory));
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testFailedMergeDeletesRuns() throws IOException {
+        var directory = Files.createTempDirectory("external-sort");
+        var reads = new AtomicInteger();
+        var failing = new Codec<Integer>() {
+            @Override
+            public void write(DataOutput out, Integer a) throws IOException {
+                Codec.INTEGER.write(out, a);
+            }
+
+            @Override
+            public Integer read(DataInput in) throws IOException {
+                if (reads.incrementAndGet() > 5_000) {
+                    throw new IOException("Unreadable run");
+                }
+                return Codec.INTEGER.read(in);
+            }
+        };
+
+        //The intermediate merge fails half way through.
+        try {
+            randomStream(10_000).sortedExternal(Comparator.naturalOrder(), failing, 7, directory);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("Unreadable run", e.getCause().getMessage());
+        }
+        assertEquals(0, files(directory));
+        Files.delete(directory);
+    }
+
+    private static long files(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void testStable() {
+        var words = Stream.of("pear", "fig", "apple", "kiwi", "date", "plum", "lime", "banana", "nut", "yam");
+        var sorted = words.sortedExternal(Comparator.comparing(String::length), Codec.STRING, 3);
+
+        assertEquals(list("fig", "nut", "yam", "pear", "kiwi", "date", "plum", "lime", "apple", "banana"),
+                sorted.toList());
+    }
+
+    @Test
+    public void testSortLargerThanMemory() {
+        //The sorted stream is read through once, without keeping its head.
+        var res = SinglePassStream.iterate(17L, x -> (x * 6_364_136_223_846_793_005L + 1_442_695_040_888_963_407L))
+                .map(x -> x >>> 20)
+                .take(LIMIT)
+                .sortedExternal(Comparator.naturalOrder(), Codec.LONG, 500_000)
+                .once()
+                .foldLeft(new long[] {0, Long.MIN_VALUE, 1}, acc -> x -> {
+                    acc[0]++;
+                    acc[2] &= x >= acc[1] ? 1 : 0;
+                    acc[1] = x;
+                    return acc;
+                });
+
+        assertEquals(LIMIT, res[0]);
+        assertEquals(1, res[2]);
+    }
+}
@@ -0,0 +1,94 @@
+package com.lazy;
+
+import com.functional.Function;
+import com.functional.Tuple;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.util.List.list;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HashAggregationTest {
+    private static final int LIMIT = 200_000;
+    private static final int KEYS = 5_000;
+
+    /**
+     * An order sensitive aggregate, so that the elements of a key must be folded in
+     * the order of the stream.
+     */
+    private static final Function<Long, Function<Integer, Long>> HASH = b -> a -> b * 31 + a;
+
+    private static Stream<Integer> randomStream() {
+        return Stream.iterate(17, x -> (x * 1_103_515_245 + 12_345) & 0x7FFFFFFF).map(x -> x % 1_000_000).take(LIMIT);
+    }
+
+    private static HashMap<Integer, Long> toMap(Stream<Tuple<Integer, Long>> aggregates) {
+        var res = new HashMap<Integer, Long>();
+        for (var s = aggregates; !s.isEmpty(); s = s.tail()) {
+            var t = s.head()._1;
+            assertTrue("duplicate key " + t._1, res.put(t._1, t._2) == null);
+        }
+        return res;
+    }
+
+    private static long files(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void testAggregateInMemory() {
+        var words = Stream.of("b", "a", "c", "a", "b", "a");
+        var counts = words.aggregateBy(w -> w, 0, n -> w -> n + 1);
+
+        assertEquals(list(Tuple.create("b", 2), Tuple.create("a", 3), Tuple.create("c", 1)).toString(),
+                counts.toList().toString());
+        assertTrue(Stream.<String>empty().aggregateBy(w -> w, 0, n -> w -> n + 1).isEmpty());
+    }
+
+    @Test
+    public void testAggregateSpill() throws IOException {
+        var stream = randomStream();
+        var expected = toMap(stream.aggregateBy(x -> x % KEYS, 0L, HASH));
+        var directory = Files.createTempDirectory("hash-aggregation");
+
+        var spilled = stream.aggregateBy(x -> x % KEYS, 0L, HASH, Codec.INTEGER, 100, directory);
+
+        assertTrue(files(directory) > 0);
+        assertEquals(KEYS, expected.size());
+        assertEquals(expected, toMap(spilled));
+        assertEquals(0, files(directory));
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testAggregateParallel() throws InterruptedException {
+        var pool = Executors.newFixedThreadPool(4);
+        var stream = randomStream();
+        var expected = toMap(stream.aggregateBy(x -> x % KEYS, 0L, HASH));
+
+        var parallel = stream.aggregateBy(x -> x % KEYS, 0L, HASH, Codec.INTEGER, 300, pool, 4);
+
+        assertEquals(expected, toMap(parallel));
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void testAggregateFitsInMemory() throws IOException {
+        var directory = Files.createTempDirectory("hash-aggregation");
+        var counts = randomStream().aggregateBy(x -> x % 10, 0, n -> x -> n + 1, Codec.INTEGER, 10, directory);
+
+        assertEquals(0, files(directory));
+        assertEquals(Integer.valueOf(LIMIT), counts.foldLeft(0, acc -> t -> acc + t._2));
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,80 @@
+package com.lazy;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static com.util.List.list;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The folds over 100M elements would need gigabytes if the elements read were kept,
+ * and this test is run with a 64MB heap.
+ */
+public class SinglePassStreamTest {
+    private static final int LIMIT = 100_000_000;
+
+    @Test
+    public void testOperations() {
+        assertEquals(list(2, 4, 6), SinglePassStream.from(1).map(x -> x * 2).take(3).toList());
+        assertEquals(list(3, 6, 9), SinglePassStream.from(1).filter(x -> x % 3 == 0).take(3).toList());
+        assertEquals(list(1, 2, 3), SinglePassStream.from(1).takeWhile(x -> x < 4).toList());
+        assertEquals(list(11, 12), SinglePassStream.from(1).drop(10).take(2).toList());
+        assertEquals(list(5, 6), SinglePassStream.from(1).dropWhile(x -> x < 5).take(2).toList());
+        assertEquals(list(1, 1, 3, 3), SinglePassStream.from(0)
+                .flatMap(x -> x % 2 == 0 ? SinglePassStream.<Integer>of(Collections.emptyIterator()) : Stream.of(x, x).once())
+                .take(4)
+                .toList());
+        assertEquals(Integer.valueOf(10), SinglePassStream.from(1).find(x -> x % 10 == 0).getOrElse(0));
+        assertTrue(SinglePassStream.from(1).exists(x -> x == 1000));
+        assertTrue(!Stream.of(1, 2, 3).once().exists(x -> x > 3));
+        assertTrue(Stream.<Integer>empty().once().headOption().isEmpty());
+    }
+
+    @Test
+    public void testIterateAppliesOnlyTheNeededSteps() {
+        final int[] calls = {0};
+        var res = SinglePassStream.iterate(1, x -> {
+            ++calls[0];
+            return x * 2;
+        }).take(4).toList();
+
+        assertEquals(list(1, 2, 4, 8), res);
+        assertEquals(3, calls[0]);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSinglePass() {
+        var stream = SinglePassStream.from(1);
+        stream.take(2).toList();
+        stream.toList();
+    }
+
+    @Test
+    public void testFoldOnce() {
+        long sum = Stream.from(0).once()
+                .take(LIMIT)
+                .foldLeft(0L, acc -> x -> acc + x);
+
+        assertEquals((long) LIMIT * (LIMIT - 1) / 2, sum);
+    }
+
+    @Test
+    public void testFindOnce() {
+        var res = Stream.iterate(0L, x -> x + 1).once().find(x -> x == LIMIT);
+
+        assertEquals(Long.valueOf(LIMIT), res.getOrElse(-1L));
+    }
+
+    @Test
+    public void testFold() {
+        long count = SinglePassStream.from(0)
+                .filter(x -> x % 2 == 0)
+                .map(x -> x / 2)
+                .takeWhile(x -> x < LIMIT)
+                .foldLeft(0L, acc -> x -> acc + 1);
+
+        assertEquals(LIMIT, count);
+    }
+}
@@ -0,0 +1,105 @@
+package com.lazy;
+
+import com.benchmark.Harness;
+import com.functional.Function;
+import com.util.List;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.Executors;
+
+public class StreamBenchmark {
+    @Test
+    public void testPipelineBenchmark() {
+        int limit = 1_000_000;
+
+        var sum = Harness.measure("Stream pipeline", limit, () -> Stream.from(0)
+                .map(x -> x * 3)
+                .filter(x -> x % 2 == 0)
+                .takeWhile(x -> x < 3 * limit)
+                .foldLeft(0L, acc -> v -> acc + v));
+
+        assertEquals(Long.valueOf(3L * (limit / 2) * (limit / 2 - 1)), sum);
+    }
+
+    @Test
+    public void testWindowAggregateBenchmark() {
+        int limit = 50_000;
+        int window = 500;
+        Function<Integer, Function<Integer, Integer>> max = x -> y -> Math.max(x, y);
+        var stream = Stream.iterate(17, x -> (x * 31 + 7) % 100_000).take(limit);
+        stream.toList();
+
+        var folded = Harness.measure("Sliding fold", limit, () -> stream.sliding(window, 1)
+                .map(w -> w.foldLeft(Integer.MIN_VALUE, max))
+                .foldLeft(0L, acc -> v -> acc + v));
+        var incremental = Harness.measure("windowAggregate", limit, () -> stream
+                .windowAggregate(window, Integer.MIN_VALUE, max)
+                .foldLeft(0L, acc -> v -> acc + v));
+
+        assertEquals(folded, incremental);
+    }
+
+    @Test
+    public void testMergeSortedBenchmark() {
+        int streams = 1_000;
+        int limit = 1_000;
+        var inputs = List.range(0, streams).map(i -> Stream.iterate(i, x -> x + streams).take(limit));
+
+        var res = Harness.measure("mergeSorted of " + streams + " streams", streams * limit, () -> Stream
+                .mergeSorted(inputs, Integer::compare)
+                .foldLeft(new long[] {0, 1, -1}, acc -> x -> {
+                    acc[0]++;
+                    acc[1] &= x == acc[2] + 1 ? 1 : 0;
+                    acc[2] = x;
+                    return acc;
+                }));
+
+        assertEquals((long) streams * limit, res[0]);
+        assertEquals(1, res[1]);
+    }
+
+    @Test
+    public void testMapAsyncBenchmark() {
+        int limit = 200;
+        var pool = Executors.newFixedThreadPool(8);
+        Function<Integer, Integer> slow = x -> {
+            sleep(1);
+            return x + 1;
+        };
+
+        try {
+            var sequential = Harness.measure("Stream map", limit,
+                    () -> Stream.from(0).take(limit).map(slow).foldLeft(0, acc -> v -> acc + v));
+            var async = Harness.measure("Stream mapAsync", limit,
+                    () -> Stream.from(0).take(limit).mapAsync(pool, 8, slow).foldLeft(0, acc -> v -> acc + v));
+
+            assertEquals(sequential, async);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testTraversalBenchmark() {
+        int limit = 1_000_000;
+
+        var sum = Harness.measure("Stream traversal", limit, () -> {
+            long res = 0;
+            for (var s = Stream.from(0).take(limit); !s.isEmpty(); s = s.tail()) {
+                res += s.head()._1;
+            }
+            return res;
+        });
+
+        assertEquals(Long.valueOf((long) limit * (limit - 1) / 2), sum);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
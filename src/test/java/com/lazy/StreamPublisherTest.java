@@ -0,0 +1,181 @@
+package com.lazy;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.util.List.list;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StreamPublisherTest {
+
+    /**
+     * A subscriber which only requests what the test asks for, and records what it
+     * receives.
+     */
+    private static class Recorder<A> implements Flow.Subscriber<A> {
+        private final StringBuffer received = new StringBuffer();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private volatile Flow.Subscription subscription;
+        private final CountDownLatch subscribed = new CountDownLatch(1);
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscribed.countDown();
+        }
+
+        @Override
+        public void onNext(A item) {
+            received.append(item).append(' ');
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error.set(throwable);
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            received.append("done");
+            done.countDown();
+        }
+
+        private void request(long n) throws InterruptedException {
+            assertTrue(subscribed.await(10, TimeUnit.SECONDS));
+            subscription.request(n);
+        }
+    }
+
+    @Test
+    public void testDemandDriven() throws InterruptedException {
+        var evaluated = new AtomicInteger();
+        var recorder = new Recorder<Integer>();
+        StreamPublisher.of(Stream.from(1).map(x -> {
+            evaluated.incrementAndGet();
+            return x;
+        })).subscribe(recorder);
+
+        recorder.request(3);
+        Thread.sleep(200);
+        assertEquals("1 2 3 ", recorder.received.toString());
+        assertEquals(3, evaluated.get());
+
+        recorder.request(2);
+        Thread.sleep(200);
+        assertEquals("1 2 3 4 5 ", recorder.received.toString());
+        assertEquals(5, evaluated.get());
+        recorder.subscription.cancel();
+    }
+
+    @Test
+    public void testComplete() throws InterruptedException {
+        var recorder = new Recorder<Integer>();
+        Stream.of(1, 2, 3).publisher(Runnable::run).subscribe(recorder);
+
+        recorder.request(3);
+        assertTrue(recorder.done.await(10, TimeUnit.SECONDS));
+        assertEquals("1 2 3 done", recorder.received.toString());
+    }
+
+    @Test
+    public void testError() throws InterruptedException {
+        var recorder = new Recorder<Integer>();
+        StreamPublisher.of(Stream.from(1).map(x -> 10 / (3 - x))).subscribe(recorder);
+
+        recorder.request(Long.MAX_VALUE);
+        assertTrue(recorder.done.await(10, TimeUnit.SECONDS));
+        assertEquals("5 10 ", recorder.received.toString());
+        assertTrue(recorder.error.get() instanceof ArithmeticException);
+    }
+
+    @Test
+    public void testInvalidRequest() throws InterruptedException {
+        var recorder = new Recorder<Integer>();
+        StreamPublisher.of(Stream.from(1)).subscribe(recorder);
+
+        recorder.request(0);
+        assertTrue(recorder.done.await(10, TimeUnit.SECONDS));
+        assertTrue(recorder.error.get() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        ExecutorService es = Executors.newSingleThreadExecutor();
+        try {
+            var evaluated = new AtomicInteger();
+            var publisher = Stream.from(0).map(x -> {
+                evaluated.incrementAndGet();
+                return x;
+            }).publisher(es);
+
+            var stream = Stream.fromPublisher(publisher, 8);
+            assertEquals(list(0, 1, 2, 3, 4), stream.take(5).toList());
+            assertEquals(Long.valueOf(499_500), stream.take(1000).foldLeft(0L, acc -> x -> acc + x));
+            //The publisher is at most one buffer ahead of the reader.
+            assertTrue(evaluated.get() <= 1000 + 8 + 1);
+        } finally {
+            es.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSlowConsumer() throws InterruptedException {
+        ExecutorService es = Executors.newSingleThreadExecutor();
+        try {
+            var evaluated = new AtomicInteger();
+            var subscriber = StreamSubscriber.<Integer>subscribe(Stream.from(0).map(x -> {
+                evaluated.incrementAndGet();
+                return x;
+            }).publisher(es), 4);
+
+            var stream = subscriber.stream();
+            Thread.sleep(200);
+            assertTrue(evaluated.get() <= 5);
+            assertEquals(Integer.valueOf(2), stream.tail().tail().head()._1);
+            Thread.sleep(200);
+            assertTrue(evaluated.get() <= 8);
+            subscriber.cancel();
+        } finally {
+            es.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSubmissionPublisher() {
+        var publisher = new SubmissionPublisher<Integer>();
+        var subscriber = StreamSubscriber.<Integer>subscribe(publisher, 2);
+        new Thread(() -> {
+            for (int i = 1; i <= 100; ++i) {
+                publisher.submit(i);
+            }
+            publisher.close();
+        }).start();
+
+        assertEquals(Integer.valueOf(5050), subscriber.stream().foldLeft(0, acc -> x -> acc + x));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPublisherError() {
+        var publisher = new SubmissionPublisher<Integer>();
+        var subscriber = StreamSubscriber.<Integer>subscribe(publisher, 2);
+        new Thread(() -> {
+            publisher.submit(1);
+            publisher.closeExceptionally(new IllegalStateException("failed"));
+        }).start();
+
+        var stream = subscriber.stream();
+        assertEquals(Integer.valueOf(1), stream.head()._1);
+        stream.tail();
+    }
+}
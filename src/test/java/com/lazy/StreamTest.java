@@ -9,6 +9,13 @@ import static org.junit.Assert.assertTrue;
 
 import static com.util.List.list;
 
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
@@ -108,6 +115,164 @@ public class StreamTest {
         assertEquals(Integer.valueOf(3), res.tail().tail().head()._1);
     }
 
+    @Test
+    public void testEmptyStream() {
+        var empty = Stream.<Integer>empty();
+
+        assertTrue(!empty.exists(i -> true));
+        assertTrue(empty.dropWhile(i -> true).isEmpty());
+        assertTrue(empty.headOption().isEmpty());
+        assertTrue(Stream.of(1, 2, 3).dropWhile(i -> true).isEmpty());
+        assertTrue(!Stream.of(1, 2, 3).exists(i -> i > 3));
+        assertEquals(list(1, 2, 3, 4), Stream.of(1, 2).append(() -> Stream.of(3, 4)).toList());
+    }
+
+    @Test
+    public void testFolds() {
+        var stream = Stream.of(1, 2, 3, 4, 5);
+
+        assertEquals("(((((0 + 1) + 2) + 3) + 4) + 5)",
+                stream.foldLeft("0", acc -> v -> "(" + acc + " + " + v + ")"));
+        assertEquals("(1 + (2 + (3 + (4 + (5 + 0)))))",
+                stream.foldRightStrict("0", v -> acc -> "(" + v + " + " + acc + ")"));
+    }
+
+    @Test
+    public void testLongStreams() throws InterruptedException {
+        int limit = 2_000_000;
+        var stream = Stream.from(0).take(limit);
+        long sum = (long) limit * (limit - 1) / 2;
+
+        withSmallStack(() -> {
+            assertEquals(Long.valueOf(sum), stream.foldLeft(0L, acc -> v -> acc + v));
+            assertEquals(Long.valueOf(sum), stream.foldRightStrict(0L, v -> acc -> acc + v));
+            assertEquals(Long.valueOf(2 * sum), stream.map(x -> 2L * x).foldLeft(0L, acc -> v -> acc + v));
+            assertEquals(Integer.valueOf(limit / 2), stream.filter(x -> x % 2 == 0).foldLeft(0, acc -> v -> acc + 1));
+            assertEquals(list(0, 1_000_000),
+                    stream.flatMap(x -> x % 1_000_000 == 0 ? Stream.of(x) : Stream.<Integer>empty()).toList());
+            assertEquals(Integer.valueOf(2 * limit),
+                    stream.append(() -> stream).foldLeft(0, acc -> v -> acc + 1));
+            assertEquals(Integer.valueOf(limit - 1),
+                    stream.takeWhile(x -> x < limit - 1).foldLeft(0, acc -> v -> acc + 1));
+        });
+    }
+
+    /**
+     * Runs the body on a thread with a 512KB stack, so that an operation recursing
+     * once per element overflows it, whatever the default stack size of the JVM.
+     */
+    private static void withSmallStack(Runnable body) throws InterruptedException {
+        var failure = new AtomicReference<Throwable>();
+        var thread = new Thread(null, () -> {
+            try {
+                body.run();
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        }, "small-stack", 512 * 1024);
+        thread.start();
+        thread.join();
+        if (failure.get() instanceof Error) {
+            throw (Error) failure.get();
+        } else if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+
+    @Test
+    public void testSlidingAndGrouped() {
+        assertEquals(list(list(1, 2, 3), list(2, 3, 4), list(3, 4, 5)), Stream.of(1, 2, 3, 4, 5).sliding(3, 1).toList());
+        assertEquals(list(list(1, 2), list(4, 5)), Stream.of(1, 2, 3, 4, 5, 6).sliding(2, 3).toList());
+        assertTrue(Stream.of(1, 2).sliding(3, 1).isEmpty());
+        assertEquals(list(list(1, 2), list(3, 4), list(5)), Stream.of(1, 2, 3, 4, 5).grouped(2).toList());
+        assertEquals(list(list(10, 11, 12), list(13, 14, 15)), intStream.grouped(3).drop(3).take(2).toList());
+    }
+
+    @Test
+    public void testWindowAggregate() {
+        var values = list(5, 1, 4, 2, 8, 3, 3, 9, 0, 7);
+        var stream = Stream.of(values);
+
+        assertEquals(list(1, 1, 2, 2, 3, 3, 0, 0), stream.windowAggregate(3, Integer.MAX_VALUE, x -> y -> Math.min(x, y)).toList());
+        assertEquals(list(5, 4, 8, 8, 8, 9, 9, 9), stream.windowAggregate(3, Integer.MIN_VALUE, x -> y -> Math.max(x, y)).toList());
+        assertEquals(list(10, 7, 14, 13, 14, 15, 12, 16),
+                stream.windowAggregate(3, 0, x -> y -> x + y, x -> y -> x - y).toList());
+        assertEquals(values, stream.windowAggregate(1, 0, x -> y -> x + y).toList());
+        assertTrue(Stream.of(1, 2).windowAggregate(3, 0, x -> y -> x + y).isEmpty());
+        //The operation is applied with the older elements on the left.
+        assertEquals(list("abc", "bcd", "cde"),
+                Stream.of("a", "b", "c", "d", "e").windowAggregate(3, "", x -> y -> x + y).toList());
+    }
+
+    @Test
+    public void testWindowsAreLazy() {
+        var evaluated = new AtomicInteger();
+        var stream = Stream.from(0).map(x -> {
+            evaluated.incrementAndGet();
+            return x;
+        });
+
+        var sliding = stream.sliding(5, 1);
+        var grouped = stream.grouped(5);
+        var minimums = stream.windowAggregate(5, Integer.MAX_VALUE, x -> y -> Math.min(x, y));
+        var sums = stream.windowAggregate(5, 0, x -> y -> x + y, x -> y -> x - y);
+        assertEquals(0, evaluated.get());
+
+        assertEquals(list(0, 1, 2, 3, 4), sliding.head()._1);
+        assertEquals(5, evaluated.get());
+        assertEquals(list(list(0, 1, 2, 3, 4), list(5, 6, 7, 8, 9)), grouped.take(2).toList());
+        assertEquals(Integer.valueOf(1), minimums.tail().head()._1);
+        assertEquals(Integer.valueOf(15), sums.tail().head()._1);
+    }
+
+    @Test
+    public void testWindowAggregateMatchesFold() {
+        int window = 50;
+        var stream = Stream.iterate(17, x -> (x * 31 + 7) % 1000).take(5_000);
+        var expected = stream.sliding(window, 1).map(w -> w.foldLeft(Integer.MAX_VALUE, x -> y -> Math.min(x, y)));
+
+        assertEquals(expected.toList(), stream.windowAggregate(window, Integer.MAX_VALUE, x -> y -> Math.min(x, y)).toList());
+    }
+
+    @Test
+    public void testZip() {
+        assertEquals(list(Tuple.create(1, "a"), Tuple.create(2, "b")).toString(),
+                intStream.zip(Stream.of("a", "b")).toList().toString());
+        assertEquals(list(11, 22, 33), Stream.zipWith(Stream.of(1, 2, 3), intStream.map(x -> x * 10), x -> y -> x + y).toList());
+        assertTrue(intStream.zip(Stream.empty()).isEmpty());
+
+        var count = new AtomicInteger();
+        var zipped = Stream.zipWith(intStream, intStream.map(x -> count.incrementAndGet()), x -> y -> x + y);
+        zipped.drop(5);
+        assertEquals(0, count.get());
+        assertEquals(Integer.valueOf(5), zipped.drop(3).head()._1);
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testInterleave() {
+        assertEquals(list(1, 10, 2, 20, 3, 30, 40, 50), Stream.of(1, 2, 3).interleave(Stream.of(10, 20, 30, 40, 50)).toList());
+        assertEquals(list(1, -1, 2, -2, 3, -3), intStream.interleave(intStream.map(x -> -x)).take(6).toList());
+        assertEquals(list(1, 4, 6, 2, 5, 3), Stream.interleave(list(Stream.of(1, 2, 3), Stream.of(4, 5), Stream.of(6))).toList());
+        assertTrue(Stream.interleave(list(Stream.<Integer>empty(), Stream.empty())).isEmpty());
+    }
+
+    @Test
+    public void testMergeSorted() {
+        var merged = Stream.mergeSorted(list(Stream.of(1, 4, 7), Stream.of(2, 5, 8), Stream.of(3, 6, 9), Stream.empty()),
+                Integer::compare);
+        assertEquals(List.range(1, 10), merged.toList());
+
+        var multiples = Stream.mergeSorted(list(intStream.map(x -> x * 2), intStream.map(x -> x * 3)), Integer::compare);
+        assertEquals(list(2, 3, 4, 6, 6, 8, 9, 10), multiples.take(8).toList());
+
+        //Equal elements are taken in the order of their streams.
+        var words = Stream.mergeSorted(list(Stream.of("b1", "c1"), Stream.of("a2", "b2"), Stream.of("b3")),
+                Comparator.comparing((String w) -> w.charAt(0)));
+        assertEquals(list("a2", "b1", "b2", "b3", "c1"), words.toList());
+        assertTrue(Stream.mergeSorted(List.<Stream<Integer>>list(), Integer::compare).isEmpty());
+    }
+
     private Stream<Integer> fibStream() {
         return Stream.iterate(Tuple.create(0, 1), t -> Tuple.create(t._2, t._2 + t._1)).map(x -> x._1);
     }
@@ -126,4 +291,181 @@ public class StreamTest {
 
         assertEquals(res.toList().toString(), res2.toList().toString());
     }
+
+    @Test
+    public void testJavaStream() {
+        var res = intStream.javaStream()
+                .filter(x -> x % 2 == 0)
+                .limit(5)
+                .collect(List.collector());
+
+        assertEquals(list(2, 4, 6, 8, 10), res);
+    }
+
+    @Test
+    public void testParallelJavaStream() {
+        long limit = 100_000;
+        var res = intStream.take((int) limit).parallelJavaStream()
+                .mapToLong(Integer::longValue)
+                .sum();
+
+        assertEquals(limit * (limit + 1) / 2, res);
+        assertEquals(list(1, 2, 3), intStream.take(3).parallelJavaStream().collect(List.collector()));
+    }
+
+    @Test
+    public void testHeadEvaluatedOnce() {
+        var count = new AtomicInteger();
+        var stream = Stream.cons(count::incrementAndGet, Stream.<Integer>empty());
+
+        stream.head();
+        stream.head();
+        stream.take(1).toList();
+
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testSharedStreamEvaluatedOnce() throws InterruptedException {
+        int limit = 10_000;
+        int threads = 8;
+        var count = new AtomicInteger();
+        var stream = Stream.unfold(0, i -> i < limit
+                ? Result.success(Tuple.create(i, i + 1))
+                : Result.<Tuple<Integer, Integer>>empty())
+                .map(x -> {
+                    count.incrementAndGet();
+                    return x;
+                });
+        var pool = Executors.newFixedThreadPool(threads);
+        var sums = new ConcurrentLinkedQueue<Long>();
+        var start = new CountDownLatch(1);
+
+        for (int i = 0; i < threads; ++i) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                long sum = 0;
+                for (var s = stream; !s.isEmpty(); s = s.tail()) {
+                    sum += s.head()._1;
+                }
+                sums.add(sum);
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(threads, sums.size());
+        assertTrue(sums.stream().allMatch(sum -> sum == (long) limit * (limit - 1) / 2));
+        assertEquals(limit, count.get());
+    }
+
+    @Test
+    public void testMapAsync() throws InterruptedException {
+        var pool = Executors.newFixedThreadPool(4);
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var res = Stream.from(0).take(100).mapAsync(pool, 4, x -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(x % 3);
+            running.decrementAndGet();
+            return x * 2;
+        });
+
+        assertEquals(List.range(0, 100).map(x -> x * 2), res.toList());
+        assertTrue(maxRunning.get() <= 4);
+        assertTrue(Stream.<Integer>empty().mapAsync(pool, 4, x -> x).isEmpty());
+        assertEquals(list(1, 2, 3), Stream.of(0, 1, 2).mapAsync(pool, 1, x -> x + 1).toList());
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void testMapAsyncUnordered() throws InterruptedException {
+        var pool = Executors.newFixedThreadPool(4);
+        var res = Stream.from(0).take(100).mapAsyncUnordered(pool, 4, x -> {
+            sleep(x % 3);
+            return x * 2;
+        });
+
+        assertEquals(List.range(0, 100).map(x -> x * 2), res.toList().sort(Integer::compare));
+        assertTrue(Stream.<Integer>empty().mapAsyncUnordered(pool, 4, x -> x).isEmpty());
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void testMapAsyncUnorderedBoundedWithoutHeads() throws InterruptedException {
+        var pool = Executors.newFixedThreadPool(8);
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var res = Stream.from(0).take(40).mapAsyncUnordered(pool, 2, x -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(2);
+            running.decrementAndGet();
+            return x;
+        });
+
+        //Walking the tails without reading the heads does not submit more elements.
+        assertEquals(30, res.drop(10).toList().length());
+        assertTrue(maxRunning.get() <= 2);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testMapAsyncFailure() {
+        var pool = Executors.newFixedThreadPool(2);
+        try {
+            Stream.of(1, 0, 2).mapAsync(pool, 2, x -> 10 / x).toList();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testMapAsyncFailureCancelsTheWindow() throws InterruptedException {
+        var pool = Executors.newFixedThreadPool(4);
+        var blocked = new CountDownLatch(1);
+        try {
+            //The elements after the failed one only end when they are cancelled.
+            Stream.from(0).mapAsync(pool, 4, x -> 10 / x + await(blocked)).toList();
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        }
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testMapAsyncUnorderedFailureCancelsThePending() throws InterruptedException {
+        var pool = Executors.newFixedThreadPool(4);
+        var blocked = new CountDownLatch(1);
+        try {
+            Stream.from(0).mapAsyncUnordered(pool, 4, x -> 10 / x + await(blocked)).toList();
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        }
+    }
+
+    private static int await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -0,0 +1,30 @@
+package com.util;
+
+import com.benchmark.Harness;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class AhoCorasickBenchmark {
+    @Test
+    public void testFindAllBenchmark() {
+        int limit = 200_000;
+        var random = new Random(5);
+        var text = List.fill(limit, () -> random.nextInt(4));
+        var patterns = PersistentSet.fromList(List.fill(200, () -> List.fill(6, () -> random.nextInt(4)))).toList();
+        var matcher = AhoCorasick.of(patterns);
+
+        int naive = Harness.measure("One scan per pattern", limit, () -> patterns.foldLeft(0, acc -> p -> {
+            int count = 0;
+            for (var ls = text; !ls.isEmpty(); ls = ls.tail()) {
+                count += List.startsWith(ls, p) ? 1 : 0;
+            }
+            return acc + count;
+        }));
+        var matches = Harness.measure("Aho-Corasick", limit, () -> matcher.findAll(text));
+
+        assertEquals(naive, matches.length());
+    }
+}
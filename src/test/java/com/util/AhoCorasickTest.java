@@ -0,0 +1,54 @@
+package com.util;
+
+import com.functional.Tuple;
+import com.lazy.Stream;
+import org.junit.Test;
+
+import static com.util.List.list;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AhoCorasickTest {
+    private static List<Character> chars(String s) {
+        return List.range(0, s.length()).map(s::charAt);
+    }
+
+    private static String show(List<Tuple<Integer, List<Character>>> matches) {
+        return matches.map(t -> t._1 + ":" + t._2.foldLeft("", acc -> c -> acc + c)).toString();
+    }
+
+    @Test
+    public void testFindAll() {
+        var matcher = AhoCorasick.of(list(chars("he"), chars("she"), chars("his"), chars("hers")));
+
+        assertEquals("[1:she, 2:he, 2:hers, NIL]", show(matcher.findAll(chars("ushers"))));
+        assertEquals("[0:his, 3:she, 4:he, NIL]", show(matcher.findAll(chars("hisshe"))));
+        assertEquals("[NIL]", show(matcher.findAll(chars("xyz"))));
+    }
+
+    @Test
+    public void testOverlappingMatches() {
+        var matcher = AhoCorasick.of(list(chars("aa"), chars("a"), chars("aa")));
+
+        assertEquals("[0:a, 0:aa, 1:a, 1:aa, 2:a, NIL]", show(matcher.findAll(chars("aaa"))));
+        assertEquals("[NIL]", show(AhoCorasick.<Character>of(list(list())).findAll(chars("aaa"))));
+    }
+
+    @Test
+    public void testCursor() {
+        var cursor = AhoCorasick.of(list(chars("ab"), chars("b"))).start();
+
+        assertTrue(cursor.next('a').matches().isEmpty());
+        assertEquals(2, cursor.next('a').next('b').matches().length());
+    }
+
+    @Test
+    public void testFindAllInStream() {
+        var matcher = AhoCorasick.of(list(list(3, 4), list(10, 11, 12)));
+        var matches = Stream.from(0).findAll(matcher).take(2).toList();
+
+        assertEquals(list(3, 10), matches.map(t -> t._1));
+        assertEquals(Integer.valueOf(5), Stream.from(0).indexOfSlice(list(5, 6, 7)).getOrElse(-1));
+        assertTrue(Stream.of(1, 2, 3).indexOfSlice(list(2, 4)).isEmpty());
+    }
+}
@@ -0,0 +1,31 @@
+package com.util;
+
+import com.benchmark.Harness;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CatenableListBenchmark {
+    @Test
+    public void testConcatBenchmark() {
+        int limit = 2_000;
+        var chunk = List.range(0, 10);
+
+        var list = Harness.measure("List concat", limit, () -> {
+            var res = List.<Integer>list();
+            for (int i = 0; i < limit; ++i) {
+                res = List.concat(res, chunk);
+            }
+            return res;
+        });
+        var catenable = Harness.measure("CatenableList concat", limit, () -> {
+            var res = CatenableList.<Integer>empty();
+            for (int i = 0; i < limit; ++i) {
+                res = res.concat(chunk);
+            }
+            return res.toList();
+        });
+
+        assertEquals(list.toString(), catenable.toString());
+    }
+}
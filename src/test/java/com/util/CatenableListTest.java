@@ -0,0 +1,151 @@
+package com.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CatenableListTest {
+    private final CatenableList<Integer> l1 = CatenableList.of(1, 2, 3)
+            .concat(CatenableList.of(4, 5))
+            .concat(List.list(6, 7, 8, 9));
+
+    @Test
+    public void testConcat() {
+        assertEquals("[1, 2, 3, 4, 5, 6, 7, 8, 9, NIL]", l1.toString());
+        assertEquals(9, l1.length());
+        assertEquals("[1, 2, 3, 4, 5, 6, 7, 8, 9, NIL]", l1.toList().toString());
+    }
+
+    @Test
+    public void testConcatEmpty() {
+        var empty = CatenableList.<Integer>empty();
+
+        assertTrue(empty.concat(empty).isEmpty());
+        assertEquals("[1, 2, 3, NIL]", empty.concat(CatenableList.of(1, 2, 3)).toString());
+        assertEquals("[1, 2, 3, NIL]", CatenableList.of(1, 2, 3).concat(empty).toString());
+        assertEquals("[NIL]", empty.toList().toString());
+    }
+
+    @Test
+    public void testConsAndAppend() {
+        var list = CatenableList.of(2, 3).cons(1).append(4);
+
+        assertEquals(Integer.valueOf(1), list.head());
+        assertEquals("[1, 2, 3, 4, NIL]", list.toString());
+        assertEquals(4, list.length());
+    }
+
+    @Test
+    public void testTail() {
+        var list = l1;
+        for (int i = 1; i <= 9; ++i) {
+            assertEquals(Integer.valueOf(i), list.head());
+            assertEquals(10 - i, list.length());
+            list = list.tail();
+        }
+        assertTrue(list.isEmpty());
+        assertTrue(list.headOption().isFailure());
+    }
+
+    @Test
+    public void testPersistence() {
+        var base = CatenableList.of(1, 2);
+        var l2 = base.concat(CatenableList.of(3));
+        var l3 = base.concat(CatenableList.of(4));
+
+        assertEquals("[1, 2, NIL]", base.toString());
+        assertEquals("[1, 2, 3, NIL]", l2.toString());
+        assertEquals("[1, 2, 4, NIL]", l3.toString());
+        assertEquals("[2, 3, NIL]", l2.tail().toString());
+    }
+
+    @Test
+    public void testRepeatedTail() {
+        int limit = 100_000;
+        var list = CatenableList.<Integer>empty();
+        for (int i = 0; i < limit; ++i) {
+            list = list.append(i);
+        }
+
+        //The linking of the queue is memoized, so each tail of the same list is cheap.
+        for (int i = 0; i < limit; ++i) {
+            assertEquals(Integer.valueOf(1), list.tail().head());
+        }
+        var rest = list.tail();
+        for (int i = 1; i < limit; ++i) {
+            assertEquals(Integer.valueOf(i), rest.head());
+            assertEquals(Integer.valueOf(i + 1), rest.cons(-1).tail().tail().headOption().getOrElse(limit));
+            rest = rest.tail();
+        }
+        assertTrue(rest.isEmpty());
+    }
+
+    @Test
+    public void testEquals() {
+        var l2 = CatenableList.of(1, 2).concat(List.list(3, 4, 5, 6)).concat(CatenableList.of(7, 8, 9));
+
+        assertEquals(l1, l2);
+        assertEquals(l1.hashCode(), l2.hashCode());
+        assertEquals(CatenableList.empty(), CatenableList.of().concat(CatenableList.empty()));
+        assertNotEquals(l1, l2.tail());
+        assertNotEquals(l1, l2.tail().cons(0));
+        assertNotEquals(l1, List.range(1, 10));
+    }
+
+    @Test
+    public void testEqualsWithNulls() {
+        var list = CatenableList.of(1).append(null).concat(CatenableList.of(3));
+
+        assertEquals(list, CatenableList.<Integer>empty().append(1).append(null).append(3));
+        assertEquals(list.hashCode(), CatenableList.<Integer>empty().append(1).append(null).append(3).hashCode());
+        assertNotEquals(list, CatenableList.of(1, 2, 3));
+    }
+
+    @Test
+    public void testLeftNestedConcat() {
+        int limit = 100_000;
+        var list = CatenableList.<Integer>empty();
+        for (int i = 0; i < limit; ++i) {
+            list = list.append(i);
+        }
+
+        assertEquals(limit, list.length());
+        assertEquals(List.range(0, limit).toString(), list.toList().toString());
+        assertEquals(Integer.valueOf(1), list.tail().head());
+    }
+
+    @Test
+    public void testRightNestedConcat() {
+        int limit = 100_000;
+        var list = CatenableList.<Integer>empty();
+        for (int i = limit - 1; i >= 0; --i) {
+            list = CatenableList.of(i).concat(list);
+        }
+
+        assertEquals(limit, list.length());
+        assertEquals(Long.valueOf((long) limit * (limit - 1) / 2), list.foldLeft(0L, acc -> v -> acc + v));
+        assertEquals(List.range(0, limit).toString(), list.toList().toString());
+    }
+
+    @Test
+    public void testFlatMap() {
+        var list = List.range(0, 10_000).flatMap(x -> List.list(x, x));
+
+        assertEquals(20_000, list.length());
+        assertEquals("[0, 0, 1, 1, 2, 2, NIL]", List.list(0, 1, 2).flatMap(x -> List.list(x, x)).toString());
+        assertEquals("[1, 2, 3, 4, NIL]", List.flatten(List.list(List.list(1, 2), List.list(), List.list(3, 4))).toString());
+    }
+
+    @Test
+    public void testParFoldLeft() {
+        var list = List.range(0, 100_000);
+        var res = list.parFoldLeft(new ForkJoinPool(4), CatenableList.<Integer>empty(),
+                acc -> acc::append, a -> a::concat);
+
+        assertEquals(list.toString(), res.getOrElse(CatenableList.empty()).toList().toString());
+    }
+}
@@ -0,0 +1,38 @@
+package com.util;
+
+import com.state.SimpleRNG;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DoubleListTest {
+    private final DoubleList l1 = DoubleList.list(1.0, 2.5, 3.5);
+
+    @Test
+    public void testFoldLeft() {
+        assertEquals(7.0, l1.sum(), 0.0);
+        assertEquals(8.75, l1.foldLeft(1.0, (acc, d) -> acc * d), 0.0);
+    }
+
+    @Test
+    public void testMapAndFilter() {
+        assertEquals(DoubleList.list(5.0, 7.0), l1.filter(d -> d > 2.0).map(d -> d * 2));
+        assertEquals(DoubleList.list(3.5, 2.5, 1.0), l1.reverse());
+    }
+
+    @Test
+    public void testBridges() {
+        assertEquals(List.list(1.0, 2.5, 3.5).toString(), l1.toList().toString());
+        assertEquals(l1, DoubleList.fromList(List.list(1.0, 2.5, 3.5)));
+        assertEquals(DoubleList.list(1.0, 2.0), List.list(1, 2).mapToDouble(Integer::doubleValue));
+    }
+
+    @Test
+    public void testRandomDoubles() {
+        var res = SimpleRNG.doubleList(10, new SimpleRNG.Simple(3));
+        var boxed = SimpleRNG.doubles(10, new SimpleRNG.Simple(3));
+
+        assertEquals(boxed._1.toString(), res._1.toString());
+        assertEquals(boxed._2.nextInt()._1, res._2.nextInt()._1);
+    }
+}
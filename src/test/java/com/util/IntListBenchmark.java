@@ -0,0 +1,20 @@
+package com.util;
+
+import com.benchmark.Harness;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class IntListBenchmark {
+    @Test
+    public void testSumBenchmark() {
+        int limit = 1_000_000;
+        var boxed = List.range(0, limit);
+        var unboxed = IntList.range(0, limit);
+
+        int boxedSum = Harness.measure("List<Integer> sum", limit, () -> boxed.foldLeft(0, acc -> v -> acc + v));
+        int unboxedSum = Harness.measure("IntList sum", limit, () -> unboxed.foldLeft(0, (acc, v) -> acc + v));
+
+        assertEquals(boxedSum, unboxedSum);
+    }
+}
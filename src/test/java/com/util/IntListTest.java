@@ -0,0 +1,73 @@
+package com.util;
+
+import com.state.SimpleRNG;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IntListTest {
+    private final IntList l1 = IntList.list(1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+    @Test
+    public void testList() {
+        assertEquals("[1, 2, 3, 4, 5, 6, 7, 8, 9, NIL]", l1.toString());
+        assertEquals(9, l1.length());
+        assertEquals(1, l1.head());
+        assertEquals(2, l1.tail().head());
+        assertTrue(IntList.list().headOption().isFailure());
+    }
+
+    @Test
+    public void testFoldLeft() {
+        assertEquals(45, l1.foldLeft(0, (acc, i) -> acc + i));
+        assertEquals(45, l1.sum());
+        assertEquals("123456789", l1.foldLeft("", acc -> i -> acc + i));
+    }
+
+    @Test
+    public void testMapAndFilter() {
+        assertEquals(IntList.list(3, 6, 9, 12, 15, 18, 21, 24, 27), l1.map(i -> i * 3));
+        assertEquals(IntList.list(1, 2, 3, 4, 5), l1.filter(i -> i <= 5));
+        assertEquals("[a1, a2, NIL]", IntList.list(1, 2).mapToObj(i -> "a" + i).toString());
+    }
+
+    @Test
+    public void testReverseAndDrop() {
+        assertEquals(IntList.list(9, 8, 7, 6, 5, 4, 3, 2, 1), l1.reverse());
+        assertEquals(IntList.list(6, 7, 8, 9), l1.drop(5));
+        assertTrue(l1.drop(20).isEmpty());
+    }
+
+    @Test
+    public void testExistsAndForAll() {
+        assertTrue(l1.exists(i -> i == 5));
+        assertFalse(l1.exists(i -> i == 10));
+        assertTrue(l1.forAll(i -> i > 0));
+    }
+
+    @Test
+    public void testRangeAndIterate() {
+        assertEquals(IntList.list(0, 1, 2, 3, 4), IntList.range(0, 5));
+        assertEquals(IntList.list(1, 2, 4, 8), IntList.iterate(1, i -> i * 2, 4));
+        assertArrayEquals(new int[] {0, 1, 2}, IntList.range(0, 3).toArray());
+    }
+
+    @Test
+    public void testBridges() {
+        assertEquals(List.range(0, 100).toString(), IntList.range(0, 100).toList().toString());
+        assertEquals(IntList.range(0, 100), IntList.fromList(List.range(0, 100)));
+        assertEquals(IntList.list(1, 2, 3), List.list("a", "bb", "ccc").mapToInt(String::length));
+    }
+
+    @Test
+    public void testRandomInts() {
+        var res = SimpleRNG.intList(10, new SimpleRNG.Simple(3));
+        var boxed = SimpleRNG.ints2(10, new SimpleRNG.Simple(3));
+
+        assertEquals(boxed._1.toString(), res._1.toString());
+        assertEquals(boxed._2.nextInt()._1, res._2.nextInt()._1);
+    }
+}
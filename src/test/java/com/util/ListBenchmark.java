@@ -0,0 +1,115 @@
+package com.util;
+
+import static com.util.List.*;
+
+import com.benchmark.Harness;
+import com.functional.Function;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+public class ListBenchmark {
+    @Test
+    public void testParFoldBenchmark() {
+        int limit = 2_000_000;
+        var testList = range(0, limit);
+
+        var seq = Harness.measure("Sequential fold", limit, () -> testList.foldLeft(0L, acc -> v -> acc + v));
+        var par = Harness.measure("Parallel fold", limit,
+                () -> testList.parFoldLeft(0L, acc -> v -> acc + v, a -> b -> a + b));
+
+        assertEquals(seq, par.getOrElse(0L));
+    }
+
+    @Test
+    public void testTraversalBenchmark() {
+        int limit = 1_000_000;
+        var list = range(0, limit);
+        Function<Long, Function<Integer, Long>> sum = acc -> v -> acc + v;
+        var count = new AtomicLong();
+
+        var folded = Harness.measure("List foldLeft", limit, () -> list.foldLeft(0L, sum));
+        Harness.measure("List forEach", limit, () -> {
+            list.forEach(x -> count.incrementAndGet());
+            return count;
+        });
+        var reversed = Harness.measure("List reverse", limit, list::reverse);
+        var taken = Harness.measure("List takeWhile", limit, () -> list.takeWhile(x -> x < limit));
+
+        assertEquals(Long.valueOf((long) limit * (limit - 1) / 2), folded);
+        assertEquals(limit, reversed.length());
+        assertEquals(limit, taken.length());
+    }
+
+    @Test
+    public void testConstructionBenchmark() {
+        int limit = 1_000_000;
+        var list = range(0, limit);
+        Function<Integer, Integer> f = x -> x * 2;
+        Function<Integer, Boolean> p = x -> x % 2 == 0;
+
+        var mapped = Harness.measure("List map", limit, () -> list.map(f));
+        var filtered = Harness.measure("List filter", limit, () -> list.filter(p));
+        var concatenated = Harness.measure("List concat", limit, () -> concat(list, list));
+
+        assertEquals(limit, mapped.length());
+        assertEquals(limit / 2, filtered.length());
+        assertEquals(2 * limit, concatenated.length());
+    }
+
+    @Test
+    public void testSortBenchmark() {
+        int limit = 1_000_000;
+        var random = new Random(3);
+        var list = fill(limit, random::nextInt);
+        var pool = new ForkJoinPool();
+
+        try {
+            var copied = Harness.measure("Sort by copying to an ArrayList", limit, () -> copySort(list));
+            var sorted = Harness.measure("List sort", limit, () -> list.sort(Comparator.naturalOrder()));
+            var parSorted = Harness.measure("List parSort", limit,
+                    () -> list.parSort(pool, Comparator.naturalOrder()).getOrElse(list()));
+
+            assertEquals(copied, sorted);
+            assertEquals(copied, parSorted);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSubListSearchBenchmark() {
+        int limit = 200_000;
+        int patternLength = 1_000;
+        var list = fill(limit, () -> 0).concat(list(1));
+        var pattern = fill(patternLength - 1, () -> 0).concat(list(1));
+
+        int naive = Harness.measure("Naive search", () -> {
+            int position = 0;
+            for (var ls = list; !ls.isEmpty(); ls = ls.tail(), ++position) {
+                if (startsWith(ls, pattern)) {
+                    return position;
+                }
+            }
+            return -1;
+        });
+        var kmp = Harness.measure("KMP search", () -> list.indexOfSlice(pattern));
+
+        assertEquals(Integer.valueOf(naive), kmp.getOrElse(-1));
+    }
+
+    private static List<Integer> copySort(List<Integer> list) {
+        var copy = new ArrayList<Integer>(list.length());
+        list.forEach(copy::add);
+        Collections.sort(copy);
+        return fromCollection(copy);
+    }
+}
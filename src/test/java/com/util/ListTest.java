@@ -11,9 +11,17 @@ import com.functional.Tuple;
 import org.junit.Test;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -260,9 +268,23 @@ public class ListTest {
         Random rd = new Random();
 
         List<Integer> testList = unfold(0, i -> i < testLimit ? Result.success(Tuple.create(0, i +1)) :
-                Result.empty()).map(v -> (int)(Math.random() * 100));
+                Result.empty()).map(v -> rd.nextInt(100));
+        ExecutorService es = new ForkJoinPool(numThreads);
 
-        //Result<BigInteger> result
+        Result<BigInteger> result = testList.parFoldLeft(es, BigInteger.ZERO,
+                acc -> v -> acc.add(BigInteger.valueOf(v)), a -> a::add);
+
+        assertEquals(testList.foldLeft(BigInteger.ZERO, acc -> v -> acc.add(BigInteger.valueOf(v))),
+                result.getOrElse(BigInteger.ONE.negate()));
+    }
+
+    @Test
+    public void testParFoldKeepsOrder() {
+        var testList = range(0, 10_000).map(String::valueOf);
+
+        var res = testList.parFoldLeft("", acc -> v -> acc + v + ",", a -> b -> a + b);
+
+        assertEquals(testList.foldLeft("", acc -> v -> acc + v + ","), res.getOrElse(""));
     }
 
     @Test
@@ -273,11 +295,231 @@ public class ListTest {
         assertEquals(list(30,60,90,120,150,180,210,240,270).toString(), res.getOrElse(list()).toString());
     }
 
+    @Test
+    public void testParOperationsUseTheExecutor() throws InterruptedException {
+        var threads = new AtomicInteger();
+        ExecutorService es = Executors.newFixedThreadPool(4, r -> new Thread(r, "caller-pool-" + threads.incrementAndGet()));
+        var testList = range(0, 100_000);
+        var names = new ConcurrentHashMap<String, Boolean>();
+
+        var mapped = testList.parMap(es, v -> {
+            names.put(Thread.currentThread().getName(), true);
+            return v * 2;
+        });
+        var folded = testList.parFoldLeft(es, 0L, acc -> v -> acc + v, a -> b -> a + b);
+        var random = new Random(5);
+        var unsorted = fill(100_000, () -> random.nextInt(1_000));
+        var sorted = unsorted.parSort(es, Comparator.naturalOrder());
+
+        assertEquals(testList.map(v -> v * 2).toString(), mapped.getOrElse(list()).toString());
+        assertEquals(Long.valueOf(4_999_950_000L), folded.getOrElse(0L));
+        assertEquals(unsorted.sort(Comparator.naturalOrder()), sorted.getOrElse(list()));
+        assertTrue(names.keySet().stream().allMatch(name -> name.startsWith("caller-pool-")));
+        assertTrue(testList.parMap(es, v -> 1 / (v - 500)).isFailure());
+        es.shutdown();
+        assertTrue(es.awaitTermination(1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void testParMapLarge() {
+        var testList = range(0, 100_000);
+
+        var res = testList.parMap(ForkJoinPool.commonPool(), v -> v * 2);
+
+        assertEquals(testList.map(v -> v * 2).toString(), res.getOrElse(list()).toString());
+    }
+
+    @Test
+    public void testParFilter() {
+        var testList = range(0, 100_000);
+
+        var res = testList.parFilter(ForkJoinPool.commonPool(), v -> v % 3 == 0);
+
+        assertEquals(testList.filter(v -> v % 3 == 0).toString(), res.getOrElse(list()).toString());
+    }
+
+    @Test
+    public void testParReduce() {
+        var testList = range(0, 100_000).map(Long::valueOf);
+
+        assertEquals(Long.valueOf(4_999_950_000L),
+                testList.parReduce(ForkJoinPool.commonPool(), a -> b -> a + b).getOrElse(0L));
+        assertTrue(List.<Long>list().parReduce(ForkJoinPool.commonPool(), a -> b -> a + b).isEmpty());
+    }
+
+    @Test
+    public void testParForEach() {
+        var sum = new AtomicLong();
+
+        var res = range(0, 100_000).parForEach(ForkJoinPool.commonPool(), sum::addAndGet);
+
+        assertTrue(res.isSuccess());
+        assertEquals(4_999_950_000L, sum.get());
+    }
+
     @Test
     public void testForEach() {
         var list = List.range(0, 100);
         list.forEach(System.out::println);
     }
-    //TODO: Write benchmark tests for Parallel fold and parallel map.
-}
 
+    @Test
+    public void testTakeWhile() {
+        assertEquals(list(1, 2, 3, 4), l1.takeWhile(x -> x < 5));
+        assertEquals(list(), l1.takeWhile(x -> x > 5));
+        assertEquals(l1, l1.takeWhile(x -> true));
+        assertEquals(list(1, 2, 3), l1.takeAtMost(3));
+        assertEquals(l1, l1.takeAtMost(20));
+    }
+
+    @Test
+    public void testGetAtBounds() {
+        assertEquals(Integer.valueOf(9), l1.getAt(8).getOrElse(0));
+        assertTrue(l1.getAt(9).isFailure());
+        assertTrue(l1.getAt(-1).isFailure());
+    }
+
+    @Test
+    public void testLargeListTraversals() {
+        int limit = 1_000_000;
+        var list = range(0, limit);
+        var count = new AtomicLong();
+        list.forEach(x -> count.incrementAndGet());
+
+        assertEquals(limit, count.get());
+        assertEquals(range(0, limit), list.reverse().reverse());
+        assertEquals(Integer.valueOf(limit - 1), list.reverse().head());
+        assertEquals(limit / 2, list.takeAtMost(limit / 2).length());
+        assertEquals(limit / 2, list.takeWhile(x -> x < limit / 2).length());
+        assertEquals(limit / 2, list.dropWhile(x -> x < limit / 2).length());
+        assertEquals(Integer.valueOf(limit - 1), list.getAt(limit - 1).getOrElse(0));
+        assertEquals(Integer.valueOf(limit - 1), list.first(x -> x == limit - 1).getOrElse(0));
+        assertTrue(list.exists(x -> x == limit - 1));
+        assertTrue(list.forAll(x -> x < limit));
+        assertTrue(hasSubList(list, list(limit - 2, limit - 1)));
+        assertEquals(limit, zip(list, list).length());
+        assertTrue(!list.equals(range(0, limit - 1).cons(0)));
+    }
+
+    @Test
+    public void testBuilder() {
+        var builder = List.<Integer>builder();
+        var res = builder.add(1).add(2).addAll(list(3, 4)).build();
+
+        assertEquals(list(1, 2, 3, 4), res);
+        assertEquals(4, res.length());
+        assertEquals(3, res.tail().length());
+        assertEquals(1, res.drop(3).length());
+
+        var res2 = builder.add(5).build();
+        assertEquals(list(5), res2);
+        assertEquals(list(1, 2, 3, 4), res);
+        assertEquals(list(), builder.build());
+    }
+
+    @Test
+    public void testConcatSharesSecondList() {
+        var l2 = list(10, 11);
+        var res = concat(l1, l2);
+
+        assertEquals(11, res.length());
+        assertEquals(2, res.drop(9).length());
+        assertTrue(res.drop(9) == l2);
+    }
+
+    @Test
+    public void testStream() {
+        var res = l1.stream()
+                .map(x -> x * 2)
+                .filter(x -> x > 10)
+                .collect(List.collector());
+
+        assertEquals(list(12, 14, 16, 18), res);
+        assertEquals(0, List.<Integer>list().stream().count());
+    }
+
+    @Test
+    public void testSpliterator() {
+        var spliterator = range(0, 10).spliterator();
+        var prefix = spliterator.trySplit();
+
+        assertEquals(5, prefix.estimateSize());
+        assertEquals(5, spliterator.estimateSize());
+        assertTrue(spliterator.hasCharacteristics(java.util.Spliterator.SUBSIZED));
+
+        var first = new AtomicLong(-1);
+        prefix.tryAdvance(x -> first.set(x));
+        assertEquals(0, first.get());
+        spliterator.tryAdvance(x -> first.set(x));
+        assertEquals(5, first.get());
+    }
+
+    @Test
+    public void testParallelStream() {
+        int limit = 1_000_000;
+        var list = range(0, limit);
+
+        assertEquals(list.foldLeft(0L, acc -> v -> acc + v),
+                Long.valueOf(list.parallelStream().mapToLong(Integer::longValue).sum()));
+        assertEquals(list.map(x -> x * 2).toString(),
+                list.parallelStream().map(x -> x * 2).collect(List.collector()).toString());
+    }
+
+    @Test
+    public void testSort() {
+        assertEquals(list(1, 2, 3, 4, 5, 6, 7, 8, 9), list(5, 3, 9, 1, 7, 2, 8, 4, 6).sort(Comparator.naturalOrder()));
+        assertEquals(list(9, 8, 7, 6, 5, 4, 3, 2, 1), l1.sort(Comparator.reverseOrder()));
+        assertEquals(list(), List.<Integer>list().sort(Comparator.naturalOrder()));
+    }
+
+    @Test
+    public void testSortIsStable() {
+        var random = new Random(7);
+        var list = range(0, 10_000).map(i -> Tuple.create(random.nextInt(100), i));
+        var sorted = list.sortBy(t -> t._1);
+
+        assertEquals(list.length(), sorted.length());
+        assertTrue(zipWith(sorted, sorted.tail(), a -> b -> a._1 < b._1 || a._1.equals(b._1) && a._2 < b._2)
+                .forAll(x -> x));
+    }
+
+    @Test
+    public void testParSort() {
+        var random = new Random(11);
+        var list = fill(200_000, () -> random.nextInt(1_000));
+        var expected = new ArrayList<Integer>();
+        list.forEach(expected::add);
+        Collections.sort(expected);
+
+        var pool = new ForkJoinPool(4);
+        try {
+            var sorted = list.parSort(pool, Comparator.naturalOrder());
+
+            assertEquals(fromCollection(expected).toString(), sorted.getOrElse(list()).toString());
+        } finally {
+            pool.shutdown();
+        }
+
+        var failingPool = new ForkJoinPool(2);
+        try {
+            assertTrue(list.parSort(failingPool, (a, b) -> {
+                throw new IllegalStateException("Comparison failed");
+            }).isFailure());
+        } finally {
+            failingPool.shutdown();
+        }
+    }
+
+    @Test
+    public void testIndexOfSlice() {
+        var list = list(1, 1, 1, 2, 1, 1, 2, 3);
+
+        assertEquals(Integer.valueOf(1), list.indexOfSlice(list(1, 1, 2)).getOrElse(-1));
+        assertEquals(Integer.valueOf(4), list.indexOfSlice(list(1, 1, 2, 3)).getOrElse(-1));
+        assertEquals(Integer.valueOf(0), list.indexOfSlice(list()).getOrElse(-1));
+        assertTrue(list.indexOfSlice(list(2, 2)).isEmpty());
+        assertTrue(list.indexOfSlice(list(3, 4)).isEmpty());
+        assertTrue(hasSubList(list, list(2, 1, 1)));
+        assertTrue(!hasSubList(list(1, 2), list(1, 2, 3)));
+    }
+}
@@ -0,0 +1,25 @@
+package com.util;
+
+import com.benchmark.Harness;
+import com.functional.Function;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ListViewBenchmark {
+    @Test
+    public void testFusionBenchmark() {
+        int limit = 1_000_000;
+        var list = List.range(0, limit);
+        Function<Integer, Integer> f = x -> x * 3;
+        Function<Integer, Boolean> p = x -> x % 2 == 0;
+        Function<Integer, Integer> g = x -> x + 1;
+
+        var eager = Harness.measure("Eager operations", limit,
+                () -> list.map(f).filter(p).map(g).takeAtMost(limit / 4));
+        var lazy = Harness.measure("Fused view", limit,
+                () -> list.view().map(f).filter(p).map(g).takeAtMost(limit / 4).toList());
+
+        assertEquals(eager, lazy);
+    }
+}
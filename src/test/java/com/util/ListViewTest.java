@@ -0,0 +1,74 @@
+package com.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ListViewTest {
+    private final List<Integer> l1 = List.list(1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+    @Test
+    public void testMatchesEagerOperations() {
+        var eager = l1.map(x -> x * 3).filter(x -> x % 2 == 0).map(x -> x + 1).takeAtMost(2);
+        var lazy = l1.view().map(x -> x * 3).filter(x -> x % 2 == 0).map(x -> x + 1).takeAtMost(2).toList();
+
+        assertEquals(eager, lazy);
+        assertEquals(List.list(7, 13), lazy);
+    }
+
+    @Test
+    public void testTakeWhileAndDrop() {
+        assertEquals(List.list(3, 4), l1.view().drop(2).takeWhile(x -> x < 5).toList());
+        assertEquals(List.list(), l1.view().drop(20).toList());
+        assertEquals(List.list(), l1.view().takeAtMost(0).toList());
+        assertEquals(l1, l1.view().takeAtMost(20).toList());
+    }
+
+    @Test
+    public void testTerminalOperations() {
+        var view = l1.view().map(x -> x * 2);
+
+        assertEquals(Integer.valueOf(90), view.foldLeft(0, acc -> x -> acc + x));
+        assertEquals(Integer.valueOf(12), view.first(x -> x > 10).getOrElse(0));
+        assertTrue(view.first(x -> x > 20).isFailure());
+        assertTrue(view.exists(x -> x == 18));
+        assertTrue(!view.exists(x -> x == 19));
+        assertTrue(view.forAll(x -> x % 2 == 0));
+        assertTrue(!view.forAll(x -> x < 18));
+
+        var sum = new AtomicInteger();
+        view.forEach(sum::addAndGet);
+        assertEquals(90, sum.get());
+    }
+
+    @Test
+    public void testShortCircuits() {
+        var count = new AtomicInteger();
+        var view = List.range(0, 1_000_000).view().map(x -> {
+            count.incrementAndGet();
+            return x;
+        });
+
+        assertEquals(List.list(0, 1, 2), view.takeAtMost(3).toList());
+        assertEquals(3, count.get());
+
+        count.set(0);
+        assertEquals(Integer.valueOf(10), view.first(x -> x == 10).getOrElse(0));
+        assertEquals(11, count.get());
+
+        count.set(0);
+        assertEquals(List.list(0, 1), view.takeWhile(x -> x < 2).toList());
+        assertEquals(3, count.get());
+    }
+
+    @Test
+    public void testViewCanBeRunTwice() {
+        var view = l1.view().drop(1).takeAtMost(3);
+
+        assertEquals(List.list(2, 3, 4), view.toList());
+        assertEquals(List.list(2, 3, 4), view.toList());
+    }
+}
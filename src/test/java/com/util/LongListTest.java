@@ -0,0 +1,29 @@
+package com.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LongListTest {
+    private final LongList l1 = LongList.list(1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+    @Test
+    public void testFoldLeft() {
+        assertEquals(45L, l1.sum());
+        assertEquals(4_999_950_000L, LongList.range(0, 100_000).foldLeft(0L, Long::sum));
+    }
+
+    @Test
+    public void testMapAndFilter() {
+        assertEquals(LongList.list(3, 6, 9), l1.filter(i -> i <= 3).map(i -> i * 3));
+        assertTrue(l1.exists(i -> i == 9));
+    }
+
+    @Test
+    public void testBridges() {
+        assertEquals(List.list(1L, 2L, 3L).toString(), LongList.list(1, 2, 3).toList().toString());
+        assertEquals(LongList.list(1, 2, 3), LongList.fromList(List.list(1L, 2L, 3L)));
+        assertEquals(LongList.list(1, 2), List.list(1, 2).mapToLong(Integer::longValue));
+    }
+}
@@ -0,0 +1,43 @@
+package com.util;
+
+import com.benchmark.Harness;
+import org.junit.Test;
+
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+
+public class PersistentMapBenchmark {
+    @Test
+    public void testSnapshotBenchmark() {
+        int limit = 200_000;
+        int snapshots = 100;
+
+        var hashMap = new HashMap<Integer, Integer>();
+        var map = PersistentMap.<Integer, Integer>empty().asTransient();
+        for (int i = 0; i < limit; ++i) {
+            hashMap.put(i, i);
+            map.put(i, i);
+        }
+        var persistentMap = map.persistent();
+
+        var copy = Harness.measure("HashMap copies", snapshots, () -> {
+            var res = hashMap;
+            for (int i = 0; i < snapshots; ++i) {
+                res = new HashMap<>(res);
+                res.put(i, -i);
+            }
+            return res;
+        });
+        var snapshot = Harness.measure("PersistentMap snapshots", snapshots, () -> {
+            var res = persistentMap;
+            for (int i = 0; i < snapshots; ++i) {
+                res = res.put(i, -i);
+            }
+            return res;
+        });
+
+        assertEquals(copy.get(snapshots - 1), snapshot.get(snapshots - 1).getOrElse(0));
+        assertEquals(Integer.valueOf(snapshots - 1), persistentMap.get(snapshots - 1).getOrElse(0));
+    }
+}
@@ -0,0 +1,176 @@
+package com.util;
+
+import com.functional.Tuple;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentMapTest {
+
+    /**
+     * A key whose hash code is chosen by the test, to create collisions.
+     */
+    private static final class Key {
+        private final int id;
+        private final int hash;
+
+        private Key(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    @Test
+    public void testPutAndGet() {
+        var map = PersistentMap.<String, Integer>empty().put("a", 1).put("b", 2).put("c", 3);
+
+        assertEquals(3, map.size());
+        assertEquals(Integer.valueOf(2), map.get("b").getOrElse(0));
+        assertTrue(map.get("d").isEmpty());
+        assertTrue(map.containsKey("c"));
+        assertEquals(Integer.valueOf(20), map.put("b", 20).get("b").getOrElse(0));
+        assertEquals(3, map.put("b", 20).size());
+    }
+
+    @Test
+    public void testPersistence() {
+        var map = PersistentMap.<String, Integer>empty().put("a", 1);
+        var map2 = map.put("b", 2);
+        var map3 = map2.remove("a");
+
+        assertEquals(1, map.size());
+        assertTrue(map.get("b").isEmpty());
+        assertEquals(2, map2.size());
+        assertEquals(Integer.valueOf(1), map2.get("a").getOrElse(0));
+        assertEquals(1, map3.size());
+        assertTrue(map3.get("a").isEmpty());
+        assertTrue(map3.remove("b").isEmpty());
+        assertTrue(map3.remove("z") == map3);
+    }
+
+    @Test
+    public void testNullKey() {
+        var map = PersistentMap.<String, Integer>empty().put(null, 1).put("a", 2);
+
+        assertEquals(Integer.valueOf(1), map.get(null).getOrElse(0));
+        assertEquals(1, map.remove(null).size());
+    }
+
+    @Test
+    public void testCollisions() {
+        var map = PersistentMap.<Key, Integer>empty();
+        for (int i = 0; i < 100; ++i) {
+            map = map.put(new Key(i, i % 3), i);
+        }
+
+        assertEquals(100, map.size());
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(Integer.valueOf(i), map.get(new Key(i, i % 3)).getOrElse(-1));
+        }
+        for (int i = 0; i < 100; i += 2) {
+            map = map.remove(new Key(i, i % 3));
+        }
+        assertEquals(50, map.size());
+        assertTrue(map.get(new Key(4, 1)).isEmpty());
+        assertEquals(Integer.valueOf(5), map.get(new Key(5, 2)).getOrElse(-1));
+    }
+
+    @Test
+    public void testRandomOperations() {
+        var random = new Random(42);
+        var model = new HashMap<Integer, Integer>();
+        var map = PersistentMap.<Integer, Integer>empty();
+
+        for (int i = 0; i < 100_000; ++i) {
+            int key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                model.remove(key);
+                map = map.remove(key);
+            } else {
+                model.put(key, i);
+                map = map.put(key, i);
+            }
+        }
+
+        assertEquals(model.size(), map.size());
+        for (var entry : model.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()).getOrElse(-1));
+        }
+        assertEquals(model.size(), map.keys().length());
+        assertEquals(Long.valueOf(model.keySet().stream().mapToLong(Integer::longValue).sum()),
+                map.foldLeft(0L, acc -> t -> acc + t._1));
+    }
+
+    @Test
+    public void testTransient() {
+        var base = PersistentMap.<Integer, Integer>empty().put(1, 1);
+        var tr = base.asTransient();
+        for (int i = 0; i < 1000; ++i) {
+            tr.put(i, i * 2);
+        }
+        tr.remove(500);
+        var map = tr.persistent();
+
+        assertEquals(999, map.size());
+        assertEquals(Integer.valueOf(2), map.get(1).getOrElse(0));
+        assertTrue(map.get(500).isEmpty());
+        assertEquals(1, base.size());
+        assertEquals(Integer.valueOf(1), base.get(1).getOrElse(0));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTransientUsedAfterPersistent() {
+        var tr = PersistentMap.<Integer, Integer>empty().asTransient();
+        tr.persistent();
+        tr.put(1, 1);
+    }
+
+    @Test
+    public void testMerge() {
+        var m1 = PersistentMap.fromList(List.list(Tuple.create("a", 1), Tuple.create("b", 2)));
+        var m2 = PersistentMap.fromList(List.list(Tuple.create("b", 10), Tuple.create("c", 20), Tuple.create("d", 30)));
+
+        var res = m1.merge(m2, x -> y -> x - y);
+
+        assertEquals(4, res.size());
+        assertEquals(Integer.valueOf(1), res.get("a").getOrElse(0));
+        assertEquals(Integer.valueOf(-8), res.get("b").getOrElse(0));
+        assertEquals(Integer.valueOf(30), res.get("d").getOrElse(0));
+        assertEquals(2, m1.size());
+        assertEquals(3, m2.size());
+    }
+
+    @Test
+    public void testEquals() {
+        var m1 = PersistentMap.<Integer, String>empty().put(1, "a").put(2, "b");
+        var m2 = PersistentMap.<Integer, String>empty().put(2, "b").put(1, "a");
+
+        assertEquals(m1, m2);
+        assertEquals(m1.hashCode(), m2.hashCode());
+        assertTrue(!m1.equals(m2.put(1, "c")));
+        assertEquals("{1=a, 2=b}", m1.toString());
+    }
+
+    @Test
+    public void testGroupBy() {
+        var res = List.range(0, 10).groupBy(x -> x % 3);
+
+        assertEquals(3, res.size());
+        assertEquals(List.list(9, 6, 3, 0), res.get(0).getOrElse(List.list()));
+        assertEquals(List.list(8, 5, 2), res.get(2).getOrElse(List.list()));
+    }
+}
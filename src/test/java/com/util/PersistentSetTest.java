@@ -0,0 +1,41 @@
+package com.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentSetTest {
+
+    @Test
+    public void testAddAndRemove() {
+        var set = PersistentSet.of(1, 2, 3, 2);
+
+        assertEquals(3, set.size());
+        assertTrue(set.contains(2));
+        assertTrue(!set.remove(2).contains(2));
+        assertTrue(set.contains(2));
+        assertTrue(set.add(3) == set);
+        assertTrue(set.remove(1).remove(2).remove(3).isEmpty());
+    }
+
+    @Test
+    public void testUnion() {
+        var res = PersistentSet.of(1, 2, 3).union(PersistentSet.of(3, 4));
+
+        assertEquals(PersistentSet.of(1, 2, 3, 4), res);
+        assertEquals(Integer.valueOf(10), res.foldLeft(0, acc -> a -> acc + a));
+    }
+
+    @Test
+    public void testTransient() {
+        var tr = PersistentSet.<Integer>empty().asTransient();
+        for (int i = 0; i < 10_000; ++i) {
+            tr.add(i % 1000);
+        }
+
+        assertEquals(1000, tr.size());
+        assertTrue(tr.contains(999));
+        assertEquals(1000, tr.persistent().toList().length());
+    }
+}
@@ -0,0 +1,55 @@
+package com.util;
+
+import com.benchmark.Harness;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+public class RBTreeBenchmark {
+    @Test
+    public void testMixedWorkloadBenchmark() {
+        int limit = 100_000;
+        var base = RBTree.tree(List.range(0, limit));
+        var values = new Random(42).ints(limit, 0, 2 * limit).toArray();
+
+        var tree = Harness.measure("RBTree inserts and removes", limit, () -> {
+            var res = base;
+            for (int i = 0; i < limit; ++i) {
+                res = i % 2 == 0 ? res.insert(values[i]) : res.remove(values[i]);
+            }
+            return res;
+        });
+
+        //Removing by rebuilding the tree without the element, as before remove existed.
+        int rebuilds = 10;
+        var rebuilt = Harness.measure("RBTree removes by rebuilding", rebuilds, () -> {
+            var res = base;
+            for (int i = 0; i < rebuilds; ++i) {
+                int value = values[i];
+                res = RBTree.tree(res.toList().filter(x -> !x.equals(value)));
+            }
+            return res;
+        });
+
+        assertTrue(RBTree.isValidTree(tree));
+        assertTrue(RBTree.isValidTree(rebuilt));
+    }
+
+    @Test
+    public void testInsertAllocationBenchmark() {
+        int limit = 1_000_000;
+        var values = new Random(7).ints(limit).toArray();
+
+        var tree = Harness.measure("RBTree random inserts", limit, () -> {
+            RBTree<Integer> res = RBTree.empty();
+            for (int value : values) {
+                res = res.insert(value);
+            }
+            return res;
+        });
+
+        assertTrue(RBTree.isValidTree(tree));
+    }
+}
@@ -2,6 +2,9 @@ package com.util;
 
 import com.functional.Function;
 import org.junit.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -245,6 +248,97 @@ public class RBTreeTest {
         assertEquals("7654321", tree.foldPostOrderLeft("", f));
     }
 
+    /**
+     * Checks the invariants of a red-black tree: the elements are ordered, no red node
+     * has a red child, every path has the same number of blacks, and no double black
+     * is left.
+     * @return the number of blacks on every path, or -1 if an invariant is broken.
+     */
+    private static <A extends Comparable<A>> int blackHeight(RBTree<A> tree, A lower, A upper) {
+        if (tree.isEmpty()) {
+            return tree.isB() ? 1 : -1;
+        }
+        if (tree.isBB()
+                || lower != null && tree.value().compareTo(lower) <= 0
+                || upper != null && tree.value().compareTo(upper) >= 0
+                || tree.isR() && (tree.left().isR() || tree.right().isR())) {
+            return -1;
+        }
+        int left = blackHeight(tree.left(), lower, tree.value());
+        int right = blackHeight(tree.right(), tree.value(), upper);
+        return left < 0 || left != right ? -1 : left + (tree.isB() ? 1 : 0);
+    }
+
+    private static <A extends Comparable<A>> List<A> inOrder(RBTree<A> tree) {
+        return tree.foldInOrderRight(List.list(), r -> a -> l -> List.concat(l, r.cons(a)));
+    }
+
+    private static <A extends Comparable<A>> void assertValid(RBTree<A> tree) {
+        assertTrue(tree.toString(), blackHeight(tree, null, null) > 0);
+        assertTrue(tree.height() <= 2 * log2nlz(tree.size() + 1) + 1);
+    }
+
+    @Test
+    public void testRemove() {
+        var tree = RBTree.tree(4, 2, 1, 3, 6, 5, 7);
+
+        assertEquals(List.list(1, 2, 3, 5, 6, 7), inOrder(tree.remove(4)));
+        assertEquals(List.list(2, 3, 4, 5, 6, 7), inOrder(tree.remove(1)));
+        assertEquals(tree.toString(), tree.remove(8).toString());
+        assertTrue(RBTree.<Integer>empty().remove(1).isEmpty());
+        assertTrue(RBTree.tree(1).remove(1).isEmpty());
+
+        var res = tree;
+        for (int i = 1; i <= 7; ++i) {
+            res = res.remove(i);
+            assertValid(res);
+            assertEquals(7 - i, res.size());
+        }
+        //The tree is persistent.
+        assertEquals(7, tree.size());
+    }
+
+    @Test
+    public void testRemoveOrdered() {
+        int limit = 2_000;
+        var tree = RBTree.tree(List.range(0, limit));
+        var ascending = tree;
+        var descending = tree;
+        for (int i = 0; i < limit; ++i) {
+            ascending = ascending.remove(i);
+            descending = descending.remove(limit - 1 - i);
+            if (i % 97 == 0) {
+                assertValid(ascending);
+                assertValid(descending);
+            }
+        }
+        assertTrue(ascending.isEmpty());
+        assertTrue(descending.isEmpty());
+    }
+
+    @Test
+    public void testRemoveProperties() {
+        for (int seed = 0; seed < 100; ++seed) {
+            var random = new Random(seed);
+            var range = 1 + random.nextInt(200);
+            var tree = RBTree.<Integer>empty();
+            var expected = new TreeSet<Integer>();
+            for (int i = 0; i < 300; ++i) {
+                int value = random.nextInt(range);
+                if (random.nextInt(3) == 0) {
+                    tree = tree.insert(value);
+                    expected.add(value);
+                } else {
+                    tree = tree.remove(value);
+                    expected.remove(value);
+                }
+                assertValid(tree);
+                assertEquals(expected.size(), tree.size());
+            }
+            assertEquals(List.fromCollection(expected), inOrder(tree));
+        }
+    }
+
     //TODO: Uncomment and fix after adding the join/merge and remove functions to RBTree.
 //    @Test
 //    public void testTreeFold1() {
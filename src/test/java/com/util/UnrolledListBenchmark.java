@@ -0,0 +1,36 @@
+package com.util;
+
+import com.benchmark.Harness;
+import com.functional.Function;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class UnrolledListBenchmark {
+    @Test
+    public void testTraversalBenchmark() {
+        int limit = 1_000_000;
+        var list = List.range(0, limit);
+        var unrolled = UnrolledList.fromList(list);
+        Function<Long, Function<Integer, Long>> sum = acc -> v -> acc + v;
+
+        var listSum = Harness.measure("List foldLeft", limit, () -> list.foldLeft(0L, sum));
+        var unrolledSum = Harness.measure("UnrolledList foldLeft", limit, () -> unrolled.foldLeft(0L, sum));
+
+        assertEquals(listSum, unrolledSum);
+    }
+
+    @Test
+    public void testMemoryFootprintBenchmark() {
+        int limit = 1_000_000;
+        var elements = List.range(0, limit).foldLeft(new Integer[limit], acc -> v -> {
+            acc[v] = v;
+            return acc;
+        });
+
+        var list = Harness.footprint("List", limit, () -> List.list(elements));
+        var unrolled = Harness.footprint("UnrolledList", limit, () -> UnrolledList.list(elements));
+
+        assertEquals(list.length(), unrolled.length());
+    }
+}
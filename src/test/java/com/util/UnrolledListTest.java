@@ -0,0 +1,104 @@
+package com.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class UnrolledListTest {
+    private final UnrolledList<Integer> l1 = UnrolledList.list(1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+    @Test
+    public void testConsAndTail() {
+        var list = UnrolledList.<Integer>list().cons(3).cons(2).cons(1);
+
+        assertEquals(Integer.valueOf(1), list.head());
+        assertEquals(Integer.valueOf(2), list.tail().head());
+        assertEquals(3, list.length());
+        assertEquals("[1, 2, 3, NIL]", list.toString());
+    }
+
+    @Test
+    public void testConsSharesStructure() {
+        var base = UnrolledList.<Integer>list().cons(3).cons(2);
+        var l2 = base.cons(1);
+        var l3 = base.cons(10);
+
+        assertEquals("[1, 2, 3, NIL]", l2.toString());
+        assertEquals("[10, 2, 3, NIL]", l3.toString());
+        assertEquals("[2, 3, NIL]", base.toString());
+        assertEquals("[2, 3, NIL]", l2.tail().toString());
+    }
+
+    @Test
+    public void testLargeList() {
+        var list = UnrolledList.fromList(List.range(0, 1000));
+
+        assertEquals(1000, list.length());
+        assertEquals(Integer.valueOf(499_500), list.foldLeft(0, acc -> v -> acc + v));
+        assertEquals(List.range(0, 1000).toString(), list.toList().toString());
+    }
+
+    @Test
+    public void testMap() {
+        assertEquals("[3, 6, 9, 12, 15, 18, 21, 24, 27, NIL]", l1.map(x -> x * 3).toString());
+    }
+
+    @Test
+    public void testFilter() {
+        assertEquals("[1, 2, 3, 4, 5, NIL]", l1.filter(x -> x <= 5).toString());
+        assertEquals(500, UnrolledList.fromList(List.range(0, 1000)).filter(x -> x % 2 == 0).length());
+    }
+
+    @Test
+    public void testReverse() {
+        assertEquals("[9, 8, 7, 6, 5, 4, 3, 2, 1, NIL]", l1.reverse().toString());
+    }
+
+    @Test
+    public void testFoldRight() {
+        assertEquals("123456789", l1.foldRight("", x -> acc -> x + acc));
+    }
+
+    @Test
+    public void testDrop() {
+        var list = UnrolledList.fromList(List.range(0, 100));
+
+        assertEquals("[6, 7, 8, 9, NIL]", l1.drop(5).toString());
+        assertEquals(Integer.valueOf(70), list.drop(70).head());
+        assertTrue(list.drop(100).isEmpty());
+        assertTrue(list.drop(200).isEmpty());
+    }
+
+    @Test
+    public void testSplitAt() {
+        var res = l1.splitAt(5);
+
+        assertEquals("[1, 2, 3, 4, 5, NIL]", res._1.toString());
+        assertEquals("[6, 7, 8, 9, NIL]", res._2.toString());
+    }
+
+    @Test
+    public void testGetAt() {
+        var list = UnrolledList.fromList(List.range(0, 100));
+
+        assertEquals(Integer.valueOf(6), l1.getAt(5).getOrElse(0));
+        assertEquals(Integer.valueOf(77), list.getAt(77).getOrElse(0));
+        assertTrue(list.getAt(100).isFailure());
+    }
+
+    @Test
+    public void testEquals() {
+        assertEquals(UnrolledList.list(1, 2, 3), UnrolledList.<Integer>list().cons(3).cons(2).cons(1));
+    }
+
+    @Test
+    public void testEqualsWithNulls() {
+        var list = UnrolledList.<Integer>list().cons(3).cons(null).cons(1);
+
+        assertEquals(list, UnrolledList.<Integer>list().cons(3).cons(null).cons(1));
+        assertEquals(list.hashCode(), UnrolledList.<Integer>list().cons(3).cons(null).cons(1).hashCode());
+        assertNotEquals(list, UnrolledList.list(1, 2, 3));
+    }
+}
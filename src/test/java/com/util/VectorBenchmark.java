@@ -0,0 +1,32 @@
+package com.util;
+
+import com.benchmark.Harness;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class VectorBenchmark {
+    @Test
+    public void testIndexedAccessBenchmark() {
+        int limit = 20_000;
+        var list = List.range(0, limit);
+        var vector = Vector.fromList(list);
+
+        long listSum = Harness.measure("List getAt loop", limit, () -> {
+            long sum = 0;
+            for (int i = 0; i < limit; ++i) {
+                sum += list.getAt(i).getOrElse(0);
+            }
+            return sum;
+        });
+        long vectorSum = Harness.measure("Vector get loop", limit, () -> {
+            long sum = 0;
+            for (int i = 0; i < limit; ++i) {
+                sum += vector.get(i);
+            }
+            return sum;
+        });
+
+        assertEquals(listSum, vectorSum);
+    }
+}
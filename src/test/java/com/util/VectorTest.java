@@ -0,0 +1,114 @@
+package com.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VectorTest {
+    private final Vector<Integer> v1 = Vector.vector(1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+    @Test
+    public void testGet() {
+        assertEquals(Integer.valueOf(6), v1.get(5));
+        assertEquals(Integer.valueOf(6), v1.getAt(5).getOrElse(0));
+        assertTrue(v1.getAt(9).isFailure());
+        assertEquals(Integer.valueOf(9), v1.lastOption().getOrElse(0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        v1.get(-1);
+    }
+
+    @Test
+    public void testUpdate() {
+        var res = v1.update(0, 10);
+
+        assertEquals("[10, 2, 3, 4, 5, 6, 7, 8, 9, NIL]", res.toString());
+        assertEquals("[1, 2, 3, 4, 5, 6, 7, 8, 9, NIL]", v1.toString());
+    }
+
+    @Test
+    public void testAppendAndPop() {
+        var vector = Vector.<Integer>empty();
+        int limit = 100_000;
+        for (int i = 0; i < limit; ++i) {
+            vector = vector.append(i);
+        }
+
+        assertEquals(limit, vector.length());
+        for (int i = 0; i < limit; ++i) {
+            assertEquals(Integer.valueOf(i), vector.get(i));
+        }
+
+        for (int i = limit - 1; i >= 0; --i) {
+            assertEquals(Integer.valueOf(i), vector.lastOption().getOrElse(-1));
+            vector = vector.pop();
+        }
+        assertTrue(vector.isEmpty());
+    }
+
+    @Test
+    public void testRandomOperations() {
+        var random = new Random(42);
+        var model = new ArrayList<Integer>();
+        var vector = Vector.<Integer>empty();
+
+        for (int i = 0; i < 200_000; ++i) {
+            int op = random.nextInt(10);
+            if (op < 6 || model.isEmpty()) {
+                model.add(i);
+                vector = vector.append(i);
+            } else if (op < 8) {
+                int index = random.nextInt(model.size());
+                model.set(index, -i);
+                vector = vector.update(index, -i);
+            } else {
+                model.remove(model.size() - 1);
+                vector = vector.pop();
+            }
+        }
+
+        assertEquals(model.size(), vector.length());
+        assertEquals(List.fromCollection(model).toString(), vector.toList().toString());
+    }
+
+    @Test
+    public void testFoldMapFilter() {
+        var vector = Vector.fromList(List.range(0, 5000));
+
+        assertEquals(Integer.valueOf(12_497_500), vector.foldLeft(0, acc -> v -> acc + v));
+        assertEquals("01234", Vector.vector(0, 1, 2, 3, 4).foldRight("", v -> acc -> v + acc));
+        assertEquals(List.range(0, 5000).map(x -> x * 2).toString(), vector.map(x -> x * 2).toList().toString());
+        assertEquals(List.range(0, 5000).filter(x -> x % 3 == 0).toString(),
+                vector.filter(x -> x % 3 == 0).toList().toString());
+        assertEquals(vector.filter(x -> x % 3 == 0), vector.filter(x -> x % 3 == 0).append(5001).pop());
+    }
+
+    @Test
+    public void testFromList() {
+        for (int size : new int[] {0, 1, 31, 32, 33, 1024, 1056, 1057, 33_000}) {
+            var vector = Vector.fromList(List.range(0, size));
+            var appended = List.range(0, size).foldLeft(Vector.<Integer>empty(), acc -> acc::append);
+
+            assertEquals(appended, vector);
+            assertEquals(appended.append(-1), vector.append(-1));
+            assertEquals(size, vector.length());
+        }
+    }
+
+    @Test
+    public void testEquals() {
+        var vector = Vector.<Integer>empty().append(1).append(null).append(3);
+
+        assertEquals(vector, Vector.<Integer>empty().append(1).append(null).append(3));
+        assertEquals(vector.hashCode(), Vector.<Integer>empty().append(1).append(null).append(3).hashCode());
+        assertNotEquals(vector, Vector.fromList(List.list(1, 2, 3)));
+        assertNotEquals(vector, vector.pop());
+    }
+}